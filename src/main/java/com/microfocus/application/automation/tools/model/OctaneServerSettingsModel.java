@@ -57,6 +57,9 @@ public class OctaneServerSettingsModel implements Serializable {
 
     private String parameters;
 
+    private int logHeadLines;
+    private int logTailLines;
+
     public OctaneServerSettingsModel() {
     }
 
@@ -291,6 +294,24 @@ public class OctaneServerSettingsModel implements Serializable {
         this.parameters = parameters;
     }
 
+    public int getLogHeadLines() {
+        return logHeadLines;
+    }
+
+    @DataBoundSetter
+    public void setLogHeadLines(int logHeadLines) {
+        this.logHeadLines = Math.max(0, logHeadLines);
+    }
+
+    public int getLogTailLines() {
+        return logTailLines;
+    }
+
+    @DataBoundSetter
+    public void setLogTailLines(int logTailLines) {
+        this.logTailLines = Math.max(0, logTailLines);
+    }
+
     public boolean isFortifyParamsConverted() {
         return fortifyParamsConverted;
     }
@@ -51,11 +51,13 @@ import com.hp.octane.integrations.services.configurationparameters.FortifySSCTok
 import com.hp.octane.integrations.services.configurationparameters.UftTestRunnerFolderParameter;
 import com.microfocus.application.automation.tools.model.OctaneServerSettingsModel;
 import com.microfocus.application.automation.tools.octane.configuration.*;
+import com.microfocus.application.automation.tools.octane.events.BuildLogFile;
+import com.microfocus.application.automation.tools.octane.events.CIEventsDispatcher;
 import com.microfocus.application.automation.tools.octane.executor.ExecutorConnectivityService;
 import com.microfocus.application.automation.tools.octane.executor.TestExecutionJobCreatorService;
 import com.microfocus.application.automation.tools.octane.executor.UftJobRecognizer;
+import com.microfocus.application.automation.tools.octane.model.JobsListIndex;
 import com.microfocus.application.automation.tools.octane.model.ModelFactory;
-import com.microfocus.application.automation.tools.octane.model.processors.parameters.ParameterProcessors;
 import com.microfocus.application.automation.tools.octane.model.processors.projects.AbstractProjectProcessor;
 import com.microfocus.application.automation.tools.octane.model.processors.projects.JobProcessorFactory;
 import com.microfocus.application.automation.tools.octane.model.processors.scm.SCMUtils;
@@ -63,8 +65,8 @@ import com.microfocus.application.automation.tools.octane.testrunner.TestsToRunC
 import com.microfocus.application.automation.tools.octane.tests.TestListener;
 import com.microfocus.application.automation.tools.octane.tests.build.BuildHandlerUtils;
 import com.microfocus.application.automation.tools.octane.tests.junit.JUnitExtension;
+import com.microfocus.application.automation.tools.octane.tests.xml.TestResultFile;
 import hudson.ProxyConfiguration;
-import hudson.console.PlainTextConsoleOutputStream;
 import hudson.matrix.MatrixConfiguration;
 import hudson.maven.MavenModule;
 import hudson.model.*;
@@ -74,7 +76,6 @@ import org.acegisecurity.AccessDeniedException;
 import org.apache.commons.fileupload.FileItem;
 import org.apache.commons.fileupload.FileItemFactory;
 import org.apache.commons.fileupload.disk.DiskFileItemFactory;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.http.HttpStatus;
 import org.apache.logging.log4j.Logger;
@@ -157,25 +158,23 @@ public class CIJenkinsServicesImpl extends CIPluginServices {
 	public CIJobsList getJobsList(boolean includeParameters, Long workspaceId) {
 		ACLContext securityContext = startImpersonation(workspaceId);
 		CIJobsList result = dtoFactory.newDTO(CIJobsList.class);
-		Map<String, PipelineNode> jobsMap = new HashMap<>();
+		Map<String, PipelineNode> jobsMap = new LinkedHashMap<>();
 
 		try {
-			Collection<String> jobNames = Jenkins.get().getJobNames();
-			for (String jobName : jobNames) {
-				String tempJobName = jobName;
+			for (JobsListIndex.Entry entry : JobsListIndex.getInstance().getEntries()) {
+				String tempJobName = entry.getListName();
 				try {
-					Job tmpJob = (Job) Jenkins.get().getItemByFullName(tempJobName);
-
-					if (!isJobIsRelevantForPipelineModule(tmpJob)) {
+					if (jobsMap.containsKey(tempJobName) ||
+							!isJobIsRelevantForPipelineModule(entry.getJob()) ||
+							!isReadable(entry.getJob())) {
 						continue;
 					}
 
 					PipelineNode tmpConfig;
-					if (tmpJob != null && JobProcessorFactory.WORKFLOW_MULTI_BRANCH_JOB_NAME.equals(tmpJob.getParent().getClass().getName())) {
-						tempJobName = tmpJob.getParent().getFullName();
+					if (entry.isMultiBranchChild()) {
 						tmpConfig = createPipelineNodeFromJobName(tempJobName);
 					} else {
-						tmpConfig = createPipelineNode(tempJobName, tmpJob, includeParameters);
+						tmpConfig = createPipelineNode(entry, includeParameters);
 					}
 					jobsMap.put(tempJobName, tmpConfig);
 				} catch (Throwable e) {
@@ -199,6 +198,16 @@ public class CIJenkinsServicesImpl extends CIPluginServices {
 		return result;
 	}
 
+	//job is visible to the current user only if its folders are visible as well
+	private static boolean isReadable(Item item) {
+		for (Object current = item; current instanceof Item; current = ((Item) current).getParent()) {
+			if (!((Item) current).hasPermission(Item.READ)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	public static boolean isJobIsRelevantForPipelineModule(Job job){
 		return !(job == null ||
 				(job instanceof AbstractProject && ((AbstractProject) job).isDisabled()) ||
@@ -290,7 +299,8 @@ public class CIJenkinsServicesImpl extends CIPluginServices {
 			Run run = getRunByRefNames(jobId, buildId);
 			if (run != null) {
 				try {
-					result = new FileInputStream(run.getRootDir() + File.separator + TestListener.TEST_RESULT_FILE);
+					//SDK pushes the stream as XML, so compressed file is inflated on the fly
+					result = TestResultFile.openXml(new File(run.getRootDir(), TestListener.TEST_RESULT_FILE));
 				} catch (Exception fnfe) {
 					logger.error("'" + TestListener.TEST_RESULT_FILE + "' file no longer exists, test results of '" + jobId + " #" + buildId + "' won't be pushed to Octane", fnfe);
 				}
@@ -555,13 +565,14 @@ public class CIJenkinsServicesImpl extends CIPluginServices {
 		ImpersonationUtil.stopImpersonation(impersonatedContext);
 	}
 
-    private PipelineNode createPipelineNode(String name, Job job, boolean includeParameters) {
+    private PipelineNode createPipelineNode(JobsListIndex.Entry entry, boolean includeParameters) {
+        Job job = entry.getJob();
         PipelineNode tmpConfig = dtoFactory.newDTO(PipelineNode.class)
-                .setJobCiId(JobProcessorFactory.getFlowProcessor(job).getTranslatedJobName())
-                .setName(name);
+                .setJobCiId(entry.getJobCiId())
+                .setName(entry.getListName());
 
         if (includeParameters) {
-            tmpConfig.setParameters(ParameterProcessors.getConfigs(job));
+            tmpConfig.setParameters(entry.getParameters());
 
             //setIsTestRunner
             if (tmpConfig.getParameters() != null) {
@@ -586,25 +597,13 @@ public class CIJenkinsServicesImpl extends CIPluginServices {
 	}
 
 	private InputStream getOctaneLogFile(Run run) {
-		InputStream result = null;
-		String octaneLogFilePath = run.getRootDir() + File.separator + "octane_log";
-		File logFile = new File(octaneLogFilePath);
-		if (!logFile.exists()) {
-			try (FileOutputStream fileOutputStream = new FileOutputStream(logFile);
-			    InputStream logStream = run.getLogInputStream();
-			    PlainTextConsoleOutputStream out = new PlainTextConsoleOutputStream(fileOutputStream)) {
-				IOUtils.copy(logStream, out);
-				out.flush();
-			} catch (IOException ioe) {
-				logger.error("failed to transfer native log to Octane's one for " + run);
-			}
-		}
+		OctaneServerSettingsModel settings = ConfigurationService.getSettings(getInstanceId());
 		try {
-			result = new FileInputStream(octaneLogFilePath);
+			return settings == null ? BuildLogFile.open(run) : BuildLogFile.open(run, settings.getLogHeadLines(), settings.getLogTailLines());
 		} catch (IOException ioe) {
-			logger.error("failed to obtain log for " + run);
+			logger.error("failed to obtain log for " + run, ioe);
+			return null;
 		}
-		return result;
 	}
 
 	private Run getRunByRefNames(String jobId, String buildId) {
@@ -702,27 +701,31 @@ public class CIJenkinsServicesImpl extends CIPluginServices {
 	}
 
 	private Item getItemByRefId(String jobName) {
+		return CiIdItemIndex.getItem(jobName, CIJenkinsServicesImpl::getItemNamesByRefId);
+	}
+
+	//full name of the item and the de-duplicated one, if there is such
+	static List<String> getItemNamesByRefId(String jobName) {
+		List<String> names = new ArrayList<>(2);
 		String myJobName = BuildHandlerUtils.revertTranslateFolderJobName(jobName);
-		Item item = Jenkins.get().getItemByFullName(myJobName);
-		if (item == null) {
-			// defect #875099 : two jobs with the same name in folder - are not treated correctly
-			// PATCH UNTIL OCTANE SEND jobRefId correctly (fix in octane : pipeline-management-add-dialog-controller.js)
-			//bug in octane : duplicating parent prefix, for example job f1/f2/jobA , appear as f1/f2/f1/f2/jobA
-			//try to reduce duplication and find  job
-
-			int jobNameIndex = myJobName.lastIndexOf('/');
-			if (jobNameIndex > 0) {
-				String parentPrefix = myJobName.substring(0, jobNameIndex);
-				String notDuplicatedParentPrefix1 = myJobName.substring(0, parentPrefix.length() / 2);
-				String notDuplicatedParentPrefix2 = myJobName.substring((parentPrefix.length() / 2) + 1, jobNameIndex);
-				if (StringUtils.equals(notDuplicatedParentPrefix1, notDuplicatedParentPrefix2)) {
-					String alternativeJobName = notDuplicatedParentPrefix1 + myJobName.substring(jobNameIndex);
-					item = Jenkins.get().getItemByFullName(alternativeJobName);
-				}
+		names.add(myJobName);
+
+		// defect #875099 : two jobs with the same name in folder - are not treated correctly
+		// PATCH UNTIL OCTANE SEND jobRefId correctly (fix in octane : pipeline-management-add-dialog-controller.js)
+		//bug in octane : duplicating parent prefix, for example job f1/f2/jobA , appear as f1/f2/f1/f2/jobA
+		//try to reduce duplication and find  job
+		//the fallback is kept also when the name resolves, as the user may not be allowed to see that item
+		int jobNameIndex = myJobName.lastIndexOf('/');
+		if (jobNameIndex > 0) {
+			String parentPrefix = myJobName.substring(0, jobNameIndex);
+			String notDuplicatedParentPrefix1 = myJobName.substring(0, parentPrefix.length() / 2);
+			String notDuplicatedParentPrefix2 = myJobName.substring((parentPrefix.length() / 2) + 1, jobNameIndex);
+			if (StringUtils.equals(notDuplicatedParentPrefix1, notDuplicatedParentPrefix2)) {
+				names.add(notDuplicatedParentPrefix1 + myJobName.substring(jobNameIndex));
 			}
 		}
 
-		return item;
+		return names;
 	}
 
 	public static File getAllowedStorageFile() {
@@ -779,6 +782,6 @@ public class CIJenkinsServicesImpl extends CIPluginServices {
 	}
 
 	public static void publishEventToRelevantClients(CIEvent event) {
-		OctaneSDK.getClients().forEach(c->c.getEventsService().publishEvent(event));
+		CIEventsDispatcher.getInstance().publish(event);
 	}
 }
@@ -0,0 +1,159 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane;
+
+import hudson.Extension;
+import hudson.model.Item;
+import hudson.model.listeners.ItemListener;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import jenkins.model.Jenkins;
+import org.acegisecurity.AccessDeniedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Items resolved from job CI ids sent by Octane, so each task does not resolve the id (and its fallbacks) again.
+ * All candidate items of an id are resolved with full access and remembered; visibility is checked for the current
+ * user on every lookup, so a user who can't see the preferred item still gets the fallback one, as without the index.
+ * An item created, deleted or moved drops only the entries having it (or an item within it) among their candidates.
+ */
+final class CiIdItemIndex {
+	private static final Map<String, Entry> entriesByCiId = new ConcurrentHashMap<>();
+	private static long version;
+
+	private CiIdItemIndex() {
+	}
+
+	/**
+	 * @param candidates full names of the items the CI id may stand for, most preferred first
+	 * @return first existing item of the CI id the current user can see, null if there is none
+	 */
+	static Item getItem(String ciId, Function<String, List<String>> candidates) {
+		Entry entry = entriesByCiId.get(ciId);
+		if (entry == null) {
+			long resolvedVersion = getVersion();
+			entry = new Entry(candidates.apply(ciId));
+			synchronized (CiIdItemIndex.class) {
+				//items resolved before the last change may be wrong already
+				if (resolvedVersion == version) {
+					entriesByCiId.put(ciId, entry);
+				}
+			}
+		}
+		for (Item item : entry.items) {
+			if (isVisible(item)) {
+				return item;
+			}
+		}
+		return null;
+	}
+
+	static boolean isIndexed(String ciId) {
+		return entriesByCiId.containsKey(ciId);
+	}
+
+	private static synchronized long getVersion() {
+		return version;
+	}
+
+	private static synchronized void invalidate(String fullName) {
+		version++;
+		String descendantsPrefix = fullName + '/';
+		entriesByCiId.values().removeIf(entry -> {
+			for (String name : entry.names) {
+				if (name.equals(fullName) || name.startsWith(descendantsPrefix)) {
+					return true;
+				}
+			}
+			return false;
+		});
+	}
+
+	private static synchronized void invalidateAll() {
+		version++;
+		entriesByCiId.clear();
+	}
+
+	//same checks as resolving the item by its full name: each item on the path must be readable
+	private static boolean isVisible(Item item) {
+		for (Object current = item; current instanceof Item; current = ((Item) current).getParent()) {
+			Item currentItem = (Item) current;
+			if (!currentItem.hasPermission(Item.READ)) {
+				if (currentItem.hasPermission(Item.DISCOVER)) {
+					throw new AccessDeniedException("Please login to access job " + currentItem.getName());
+				}
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static final class Entry {
+		private final List<String> names;
+		private final List<Item> items = new ArrayList<>(2);
+
+		private Entry(List<String> names) {
+			this.names = names;
+			try (ACLContext ignored = ACL.as(ACL.SYSTEM)) {
+				for (String name : names) {
+					Item item = Jenkins.get().getItemByFullName(name);
+					if (item != null) {
+						items.add(item);
+					}
+				}
+			}
+		}
+	}
+
+	@Extension
+	public static final class Maintainer extends ItemListener {
+		@Override
+		public void onLoaded() {
+			invalidateAll();
+		}
+
+		@Override
+		public void onCreated(Item item) {
+			invalidate(item.getFullName());
+		}
+
+		@Override
+		public void onCopied(Item src, Item item) {
+			invalidate(item.getFullName());
+		}
+
+		@Override
+		public void onDeleted(Item item) {
+			invalidate(item.getFullName());
+		}
+
+		@Override
+		public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+			invalidate(oldFullName);
+			invalidate(newFullName);
+		}
+	}
+}
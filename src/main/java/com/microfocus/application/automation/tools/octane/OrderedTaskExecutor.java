@@ -0,0 +1,252 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane;
+
+import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
+import org.apache.logging.log4j.Logger;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded background executor that runs tasks submitted with the same key one after another, in submission order,
+ * while tasks of different keys run concurrently on a fixed number of threads.
+ * Submission never runs the task on the calling thread: when the executor already holds capacity pending tasks
+ * (after waiting for a free slot, if the caller asked for it), or is shut down, the task is rejected - it is not run at all,
+ * submit returns false and the rejection is counted in the metrics, so the caller decides how to degrade.
+ */
+public class OrderedTaskExecutor {
+	private static final Logger logger = SDKBasedLoggerProvider.getLogger(OrderedTaskExecutor.class);
+
+	private final String name;
+	private final int capacity;
+	private final ExecutorService executor;
+	private final Semaphore slots;
+	private final Map<String, Deque<Task>> pendingByKey = new HashMap<>();
+	private volatile boolean shutdown;
+
+	private final AtomicLong submitted = new AtomicLong();
+	private final AtomicLong completed = new AtomicLong();
+	private final AtomicLong failed = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong totalLatencyMillis = new AtomicLong();
+	private final AtomicLong maxLatencyMillis = new AtomicLong();
+	private final AtomicLong lastLatencyMillis = new AtomicLong();
+	private final AtomicLong totalProcessingMillis = new AtomicLong();
+
+	public OrderedTaskExecutor(String name, int threads, int capacity) {
+		this.name = name;
+		this.capacity = capacity;
+		this.slots = new Semaphore(capacity);
+		this.executor = Executors.newFixedThreadPool(threads, new NamingThreadFactory(new DaemonThreadFactory(), "octane-" + name));
+	}
+
+	/**
+	 * Schedules the task; tasks with equal keys never overlap and run in submission order.
+	 *
+	 * @return false if the task was rejected (executor is full or shut down) and will not run
+	 */
+	public boolean submit(String key, Runnable runnable) {
+		Task task = new Task(key, runnable);
+		submitted.incrementAndGet();
+		if (shutdown) {
+			reject(task, "executor is shut down");
+			return false;
+		}
+		if (!slots.tryAcquire()) {
+			reject(task, "executor is full (" + capacity + " pending tasks)");
+			return false;
+		}
+		enqueue(task);
+		return true;
+	}
+
+	/**
+	 * Schedules the task like {@link #submit(String, Runnable)}, but a full executor is waited for up to the timeout,
+	 * so a burst of work slows down its producer instead of being rejected right away.
+	 *
+	 * @return false if the task was rejected (executor stayed full or is shut down) and will not run
+	 */
+	public boolean submit(String key, Runnable runnable, long timeout, TimeUnit unit) throws InterruptedException {
+		Task task = new Task(key, runnable);
+		submitted.incrementAndGet();
+		if (shutdown) {
+			reject(task, "executor is shut down");
+			return false;
+		}
+		if (!slots.tryAcquire(timeout, unit)) {
+			reject(task, "executor stayed full (" + capacity + " pending tasks) for " + unit.toSeconds(timeout) + " sec");
+			return false;
+		}
+		enqueue(task);
+		return true;
+	}
+
+	private void enqueue(Task task) {
+		String key = task.key;
+		boolean startDrain;
+		synchronized (pendingByKey) {
+			Deque<Task> pending = pendingByKey.computeIfAbsent(key, k -> new ArrayDeque<>());
+			pending.addLast(task);
+			startDrain = pending.size() == 1;
+		}
+		if (startDrain) {
+			scheduleNext(key);
+		}
+	}
+
+	/**
+	 * Number of tasks accepted but not finished yet
+	 */
+	public int getQueueDepth() {
+		return capacity - slots.availablePermits();
+	}
+
+	/**
+	 * Waits until all accepted tasks are finished
+	 *
+	 * @return true if executor became idle within timeout
+	 */
+	public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+		if (!slots.tryAcquire(capacity, timeout, unit)) {
+			return false;
+		}
+		slots.release(capacity);
+		return true;
+	}
+
+	/**
+	 * Stops accepting new tasks (they are rejected from now on), lets pending ones finish within timeout.
+	 */
+	public void shutdown(long timeout, TimeUnit unit) {
+		shutdown = true;
+		try {
+			if (!awaitIdle(timeout, unit)) {
+				logger.warn(name + " executor did not drain within " + unit.toSeconds(timeout) + " sec, " + getQueueDepth() + " tasks are dropped");
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		}
+		executor.shutdownNow();
+	}
+
+	public Map<String, Object> getMetrics() {
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		long completedCount = completed.get();
+		metrics.put("queueDepth", getQueueDepth());
+		metrics.put("capacity", capacity);
+		metrics.put("submitted", submitted.get());
+		metrics.put("completed", completedCount);
+		metrics.put("failed", failed.get());
+		metrics.put("rejected", rejected.get());
+		metrics.put("lastLatencyMillis", lastLatencyMillis.get());
+		metrics.put("maxLatencyMillis", maxLatencyMillis.get());
+		metrics.put("avgLatencyMillis", completedCount == 0 ? 0 : totalLatencyMillis.get() / completedCount);
+		metrics.put("avgProcessingMillis", completedCount == 0 ? 0 : totalProcessingMillis.get() / completedCount);
+		return metrics;
+	}
+
+	private void scheduleNext(String key) {
+		try {
+			executor.execute(() -> drainOne(key));
+		} catch (RejectedExecutionException ree) {
+			//executor is already terminated, nothing will pick the pending tasks
+			Task task;
+			while ((task = pollFinished(key, null)) != null) {
+				reject(task, "executor is terminated");
+				slots.release();
+			}
+		}
+	}
+
+	private void drainOne(String key) {
+		Task task;
+		synchronized (pendingByKey) {
+			task = pendingByKey.get(key).peekFirst();
+		}
+		try {
+			run(task);
+		} finally {
+			slots.release();
+			if (pollFinished(key, task) != null) {
+				//let other keys get their turn before continuing with this one
+				scheduleNext(key);
+			}
+		}
+	}
+
+	//removes finished task from the key's queue and returns the next one, if any
+	private Task pollFinished(String key, Task finished) {
+		synchronized (pendingByKey) {
+			Deque<Task> pending = pendingByKey.get(key);
+			if (pending == null) {
+				return null;
+			}
+			if (finished != null) {
+				pending.removeFirst();
+			}
+			if (pending.isEmpty()) {
+				pendingByKey.remove(key);
+				return null;
+			}
+			return finished != null ? pending.peekFirst() : pending.removeFirst();
+		}
+	}
+
+	private void reject(Task task, String reason) {
+		logger.warn(name + " " + reason + ", task for '" + task.key + "' is rejected");
+		rejected.incrementAndGet();
+	}
+
+	private void run(Task task) {
+		long started = System.currentTimeMillis();
+		try (ACLContext ignored = ACL.as(ACL.SYSTEM)) {
+			task.runnable.run();
+		} catch (Throwable t) {
+			failed.incrementAndGet();
+			logger.error(name + " task for '" + task.key + "' failed", t);
+		} finally {
+			long finished = System.currentTimeMillis();
+			long latency = finished - task.enqueued;
+			completed.incrementAndGet();
+			totalProcessingMillis.addAndGet(finished - started);
+			totalLatencyMillis.addAndGet(latency);
+			lastLatencyMillis.set(latency);
+			maxLatencyMillis.accumulateAndGet(latency, Math::max);
+		}
+	}
+
+	private static final class Task {
+		private final String key;
+		private final Runnable runnable;
+		private final long enqueued = System.currentTimeMillis();
+
+		private Task(String key, Runnable runnable) {
+			this.key = key;
+			this.runnable = runnable;
+		}
+	}
+}
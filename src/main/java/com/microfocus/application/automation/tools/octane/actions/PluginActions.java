@@ -25,8 +25,13 @@ import com.hp.octane.integrations.OctaneSDK;
 import com.hp.octane.integrations.dto.general.CIServerInfo;
 import com.microfocus.application.automation.tools.octane.CIJenkinsServicesImpl;
 import com.microfocus.application.automation.tools.octane.configuration.ConfigurationService;
+import com.microfocus.application.automation.tools.octane.events.BuildLogFile;
+import com.microfocus.application.automation.tools.octane.events.SCMDataCollector;
+import com.microfocus.application.automation.tools.octane.events.CIEventsDispatcher;
+import com.microfocus.application.automation.tools.octane.tests.TestListener;
 import hudson.Extension;
 import hudson.model.RootAction;
+import jenkins.model.Jenkins;
 import net.sf.json.JSONObject;
 import org.apache.http.entity.ContentType;
 import org.kohsuke.stapler.StaplerRequest;
@@ -125,6 +130,13 @@ public class PluginActions implements RootAction {
                     }
             );
             result.put("metrics", allMetricsJson);
+
+            JSONObject pluginMetricsJson = new JSONObject();
+            addMetrics(Jenkins.get().getExtensionList(TestListener.class).get(0).getProcessingMetrics(), "testsProcessing", pluginMetricsJson);
+            addMetrics(CIEventsDispatcher.getInstance().getMetrics(), "eventsDispatch", pluginMetricsJson);
+            addMetrics(BuildLogFile.getPreparationMetrics(), "logsPreparation", pluginMetricsJson);
+            addMetrics(SCMDataCollector.getCollectionMetrics(), "scmCollection", pluginMetricsJson);
+            result.put("pluginMetrics", pluginMetricsJson);
         }
 
         return result;
@@ -26,26 +26,19 @@ import com.hp.octane.integrations.dto.DTOFactory;
 import com.hp.octane.integrations.dto.events.CIEvent;
 import com.hp.octane.integrations.dto.events.CIEventType;
 import com.hp.octane.integrations.dto.events.PhaseType;
-import com.hp.octane.integrations.dto.pipelines.PipelineNode;
-import com.hp.octane.integrations.dto.pipelines.PipelinePhase;
 import com.microfocus.application.automation.tools.octane.CIJenkinsServicesImpl;
 import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
-import com.microfocus.application.automation.tools.octane.model.CIEventCausesFactory;
-import com.microfocus.application.automation.tools.octane.model.processors.parameters.ParameterProcessors;
 import com.microfocus.application.automation.tools.octane.model.processors.projects.JobProcessorFactory;
 import com.microfocus.application.automation.tools.octane.model.processors.scm.CommonOriginRevision;
-import com.microfocus.application.automation.tools.octane.model.processors.scm.SCMProcessor;
-import com.microfocus.application.automation.tools.octane.model.processors.scm.SCMProcessors;
 import com.microfocus.application.automation.tools.octane.tests.TestListener;
-import com.microfocus.application.automation.tools.octane.tests.build.BuildHandlerUtils;
 import hudson.Extension;
+import hudson.Launcher;
 import hudson.model.*;
 import hudson.model.listeners.RunListener;
-import hudson.scm.SCM;
 import jenkins.model.Jenkins;
 import org.apache.logging.log4j.Logger;
 
-import java.util.List;
+import java.io.IOException;
 
 /**
  * Run Listener that handles basic CI events and dispatches notifications to the Octane server
@@ -73,16 +66,17 @@ public final class AbstractBuildListenerOctaneImpl extends RunListener<AbstractB
 
 	private void publishStartEvent(AbstractBuild build) {
 		try {
+			RunEventContext context = RunEventContext.of(build);
 			CIEvent event = dtoFactory.newDTO(CIEvent.class)
 					.setEventType(CIEventType.STARTED)
-					.setProject(BuildHandlerUtils.getJobCiId(build))
-					.setProjectDisplayName(BuildHandlerUtils.translateFullDisplayName(build.getParent().getFullDisplayName()))
-					.setBuildCiId(BuildHandlerUtils.getBuildCiId(build))
+					.setProject(context.getJobCiId())
+					.setProjectDisplayName(context.getProjectDisplayName())
+					.setBuildCiId(context.getBuildCiId())
 					.setNumber(String.valueOf(build.getNumber()))
 					.setStartTime(build.getStartTimeInMillis())
 					.setEstimatedDuration(build.getEstimatedDuration())
-					.setCauses(CIEventCausesFactory.processCauses(build))
-					.setParameters(ParameterProcessors.getInstances(build));
+					.setCauses(context.getCauses())
+					.setParameters(context.getParameters());
 			if (isInternal(build)) {
 				event.setPhaseType(PhaseType.INTERNAL);
 			} else {
@@ -94,32 +88,59 @@ public final class AbstractBuildListenerOctaneImpl extends RunListener<AbstractB
 		}
 	}
 
+	@Override
+	public Environment setUpEnvironment(AbstractBuild build, Launcher launcher, BuildListener listener) throws IOException, InterruptedException {
+		if (!OctaneSDK.hasClients()) {
+			return super.setUpEnvironment(build, launcher, listener);
+		}
+		return new Environment() {
+			@Override
+			public boolean tearDown(AbstractBuild build, BuildListener listener) throws InterruptedException {
+				//SCM data extraction reads the workspace, the build keeps it until the extraction is done
+				SCMDataCollector.awaitExtraction(build);
+				return true;
+			}
+		};
+	}
+
+	@Override
+	public void onCompleted(AbstractBuild build, TaskListener listener) {
+		//for builds that do not tear down their environments
+		try {
+			SCMDataCollector.awaitExtraction(build);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
 	@Override
 	public void onFinalized(AbstractBuild build) {
 		if(!OctaneSDK.hasClients()){
 			return;
 		}
-		publishFinishEvent(build);
-		BuildLogHelper.enqueueBuildLog(build);
+		testListener.processBuildAsync(build, hasTests -> {
+			publishFinishEvent(build, hasTests);
+			BuildLogHelper.enqueueBuildLog(build);
+		});
 	}
 
-	private void publishFinishEvent(AbstractBuild build) {
+	private void publishFinishEvent(AbstractBuild build, boolean hasTests) {
 		try {
-			boolean hasTests = testListener.processBuild(build);
+			RunEventContext context = RunEventContext.of(build);
 			CIEvent event = dtoFactory.newDTO(CIEvent.class)
 					.setEventType(CIEventType.FINISHED)
-					.setProject(BuildHandlerUtils.getJobCiId(build))
-					.setProjectDisplayName((BuildHandlerUtils.translateFullDisplayName(build.getParent().getFullDisplayName())))
-					.setBuildCiId(BuildHandlerUtils.getBuildCiId(build))
+					.setProject(context.getJobCiId())
+					.setProjectDisplayName(context.getProjectDisplayName())
+					.setBuildCiId(context.getBuildCiId())
 					.setNumber(String.valueOf(build.getNumber()))
 					.setStartTime(build.getStartTimeInMillis())
 					.setEstimatedDuration(build.getEstimatedDuration())
-					.setCauses(CIEventCausesFactory.processCauses(build))
-					.setParameters(ParameterProcessors.getInstances(build))
+					.setCauses(context.getCauses())
+					.setParameters(context.getParameters())
 					.setResult(BuildHandlerUtils.translateRunResult(build))
 					.setDuration(build.getDuration())
 					.setTestResultExpected(hasTests);
-			CommonOriginRevision commonOriginRevision = getCommonOriginRevision(build);
+			CommonOriginRevision commonOriginRevision = context.getCommonOriginRevision();
 			if (commonOriginRevision != null) {
 				event
 						.setCommonHashId(commonOriginRevision.revision)
@@ -131,18 +152,6 @@ public final class AbstractBuildListenerOctaneImpl extends RunListener<AbstractB
 		}
 	}
 
-	private CommonOriginRevision getCommonOriginRevision(AbstractBuild build) {
-		CommonOriginRevision commonOriginRevision = null;
-		SCM scm = build.getProject().getScm();
-		if (scm != null) {
-			SCMProcessor scmProcessor = SCMProcessors.getAppropriate(scm.getClass().getName());
-			if (scmProcessor != null) {
-				commonOriginRevision = scmProcessor.getCommonOriginRevision(build);
-			}
-		}
-		return commonOriginRevision;
-	}
-
 	//  TODO: https://issues.jenkins-ci.org/browse/JENKINS-53410
 	private boolean isInternal(Run r) {
 		boolean result = false;
@@ -165,15 +174,7 @@ public final class AbstractBuildListenerOctaneImpl extends RunListener<AbstractB
 				if (parent.getClass().getName().equals(JobProcessorFactory.WORKFLOW_JOB_NAME)) {
 					result = true;
 				} else {
-					List<PipelinePhase> phases = JobProcessorFactory.getFlowProcessor((Job) parent).getInternals();
-					for (PipelinePhase p : phases) {
-						for (PipelineNode n : p.getJobs()) {
-							if (n != null && n.getName().equals(r.getParent().getName())) {
-								return true;
-							}
-						}
-					}
-					return false;
+					return InternalJobsIndex.isInvokedBy((Job) parent, r.getParent().getName());
 				}
 			}
 		}
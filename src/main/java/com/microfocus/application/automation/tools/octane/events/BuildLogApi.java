@@ -0,0 +1,115 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+
+package com.microfocus.application.automation.tools.octane.events;
+
+import hudson.model.Item;
+import hudson.model.Run;
+import org.apache.commons.io.IOUtils;
+import org.kohsuke.stapler.StaplerRequest;
+import org.kohsuke.stapler.StaplerResponse;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Build log as it is pushed to Octane, served over HTTP; a single byte range (RFC 7233) may be requested,
+ * so an interrupted download resumes where it stopped
+ */
+public class BuildLogApi {
+	static final long[] UNSATISFIABLE = new long[0];
+
+	private final Run run;
+
+	public BuildLogApi(Run run) {
+		this.run = run;
+	}
+
+	public void doIndex(StaplerRequest req, StaplerResponse res) throws IOException {
+		run.getACL().checkPermission(Item.READ);
+		long length = BuildLogFile.length(run);
+		long[] range = parseRange(req.getHeader("Range"), length);
+		res.setContentType("text/plain;charset=UTF-8");
+		res.setHeader("Accept-Ranges", "bytes");
+		if (range == UNSATISFIABLE) {
+			res.setHeader("Content-Range", "bytes */" + length);
+			res.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+			return;
+		}
+
+		long first = 0;
+		long count = length;
+		if (range == null) {
+			res.setStatus(HttpServletResponse.SC_OK);
+		} else {
+			first = range[0];
+			count = range[1] - range[0] + 1;
+			res.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+			res.setHeader("Content-Range", "bytes " + range[0] + "-" + range[1] + "/" + length);
+		}
+		res.setHeader("Content-Length", String.valueOf(count));
+		try (InputStream log = BuildLogFile.open(run)) {
+			IOUtils.copyLarge(log, res.getOutputStream(), first, count);
+		}
+	}
+
+	/**
+	 * @param rangeHeader Range header value, null if there is none
+	 * @param length      length of the log
+	 * @return first and last byte positions of the range; null to serve the whole log, as for a missing, malformed or
+	 * multiple ranges header; UNSATISFIABLE when the range starts beyond the end of the log
+	 */
+	static long[] parseRange(String rangeHeader, long length) {
+		if (rangeHeader == null || !rangeHeader.startsWith("bytes=") || rangeHeader.indexOf(',') >= 0) {
+			return null;
+		}
+		String spec = rangeHeader.substring("bytes=".length()).trim();
+		int dash = spec.indexOf('-');
+		if (dash < 0) {
+			return null;
+		}
+		try {
+			String firstPart = spec.substring(0, dash).trim();
+			String lastPart = spec.substring(dash + 1).trim();
+			long first;
+			long last;
+			if (firstPart.isEmpty()) {
+				//suffix range: the last N bytes
+				long suffix = Long.parseLong(lastPart);
+				if (suffix <= 0) {
+					return suffix == 0 ? UNSATISFIABLE : null;
+				}
+				first = Math.max(0, length - suffix);
+				last = length - 1;
+			} else {
+				first = Long.parseLong(firstPart);
+				last = lastPart.isEmpty() ? length - 1 : Math.min(Long.parseLong(lastPart), length - 1);
+				if (first < 0 || (!lastPart.isEmpty() && Long.parseLong(lastPart) < first)) {
+					return null;
+				}
+			}
+			return first >= length ? UNSATISFIABLE : new long[]{first, last};
+		} catch (NumberFormatException nfe) {
+			return null;
+		}
+	}
+}
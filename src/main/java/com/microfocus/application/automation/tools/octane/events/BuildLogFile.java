@@ -0,0 +1,167 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.events;
+
+import com.microfocus.application.automation.tools.octane.OrderedTaskExecutor;
+import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
+import hudson.console.PlainTextConsoleOutputStream;
+import hudson.model.Run;
+import org.apache.commons.io.IOUtils;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Build log as it is pushed to Octane: console annotations stripped, stored gzip-compressed next to the build.
+ * The file is prepared in background once the run is finalized and its log is no longer written to,
+ * so the SDK worker only streams it; over HTTP it is served by {@link BuildLogApi}, byte ranges included.
+ * Logs prepared by older plugin versions are stored as plain text and are served as is.
+ */
+public final class BuildLogFile {
+	private static final Logger logger = SDKBasedLoggerProvider.getLogger(BuildLogFile.class);
+
+	static final String LOG_FILE_NAME = "octane_log.gz";
+	private static final String PLAIN_LOG_FILE_NAME = "octane_log";
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final int PREPARATION_THREADS = Integer.getInteger("octane.logs.preparation.threads", 2);
+	private static final int PREPARATION_CAPACITY = Integer.getInteger("octane.logs.preparation.capacity", 500);
+
+	private static final OrderedTaskExecutor preparationExecutor = new OrderedTaskExecutor("logs-preparation",
+			Math.max(1, PREPARATION_THREADS), Math.max(1, PREPARATION_CAPACITY));
+
+	private BuildLogFile() {
+		//for code climate
+	}
+
+	/**
+	 * Prepares the log in background; onPrepared runs afterwards, also when preparation failed
+	 * or was rejected by the full executor (the log is then prepared on first read)
+	 */
+	public static void prepareAsync(Run run, Runnable onPrepared) {
+		boolean accepted = preparationExecutor.submit(run.getParent().getFullName(), () -> {
+			try {
+				prepare(run);
+			} catch (IOException ioe) {
+				logger.error("failed to prepare log of " + run + " for Octane", ioe);
+			}
+			onPrepared.run();
+		});
+		if (!accepted) {
+			onPrepared.run();
+		}
+	}
+
+	/**
+	 * @return plain text log; prepared now if it is not prepared yet
+	 */
+	public static InputStream open(Run run) throws IOException {
+		File plainLog = new File(run.getRootDir(), PLAIN_LOG_FILE_NAME);
+		File log = new File(run.getRootDir(), LOG_FILE_NAME);
+		if (!log.exists() && plainLog.exists()) {
+			return new BufferedInputStream(new FileInputStream(plainLog), BUFFER_SIZE);
+		}
+		if (!log.exists()) {
+			prepare(run);
+		}
+		return openCompressed(log);
+	}
+
+	/**
+	 * @return length of the plain text log; a compressed log is read through to count it
+	 */
+	public static long length(Run run) throws IOException {
+		File plainLog = new File(run.getRootDir(), PLAIN_LOG_FILE_NAME);
+		if (!new File(run.getRootDir(), LOG_FILE_NAME).exists() && plainLog.exists()) {
+			return plainLog.length();
+		}
+		try (InputStream log = open(run)) {
+			return IOUtils.skip(log, Long.MAX_VALUE);
+		}
+	}
+
+	/**
+	 * @param headLines number of first lines of the log to keep, 0 for none
+	 * @param tailLines number of last lines of the log to keep, 0 for none; when both are 0 the whole log is kept
+	 * @return plain text log truncated to its first and last lines, with a marker in place of the omitted ones
+	 */
+	public static InputStream open(Run run, int headLines, int tailLines) throws IOException {
+		return truncate(open(run), headLines, tailLines);
+	}
+
+	static InputStream truncate(InputStream log, int headLines, int tailLines) {
+		if (headLines <= 0 && tailLines <= 0) {
+			return log;
+		}
+		return new HeadTailLogInputStream(log, Math.max(0, headLines), Math.max(0, tailLines));
+	}
+
+	public static Map<String, Object> getPreparationMetrics() {
+		return preparationExecutor.getMetrics();
+	}
+
+	public static void shutdownPreparation() {
+		preparationExecutor.shutdown(60, TimeUnit.SECONDS);
+	}
+
+	static void prepare(Run run) throws IOException {
+		File log = new File(run.getRootDir(), LOG_FILE_NAME);
+		//concurrent preparations write own files, whichever is moved last wins - they are equal
+		File tmp = File.createTempFile(LOG_FILE_NAME, ".tmp", run.getRootDir());
+		try {
+			try (InputStream logStream = run.getLogInputStream()) {
+				write(logStream, tmp);
+			}
+			Files.move(tmp.toPath(), log.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(tmp.toPath());
+		}
+	}
+
+	static void write(InputStream consoleLog, File target) throws IOException {
+		try (OutputStream fileStream = new FileOutputStream(target);
+		     GZIPOutputStream gzipStream = new GZIPOutputStream(fileStream, BUFFER_SIZE);
+		     PlainTextConsoleOutputStream out = new PlainTextConsoleOutputStream(gzipStream)) {
+			byte[] buffer = new byte[BUFFER_SIZE];
+			int read;
+			while ((read = consoleLog.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+			}
+			out.flush();
+		}
+	}
+
+	static InputStream openCompressed(File log) throws IOException {
+		InputStream fileStream = new FileInputStream(log);
+		try {
+			return new GZIPInputStream(fileStream, BUFFER_SIZE);
+		} catch (IOException ioe) {
+			fileStream.close();
+			throw ioe;
+		}
+	}
+}
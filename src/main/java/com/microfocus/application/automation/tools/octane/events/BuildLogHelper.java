@@ -22,7 +22,6 @@ package com.microfocus.application.automation.tools.octane.events;
 
 import com.hp.octane.integrations.OctaneSDK;
 import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
-import com.microfocus.application.automation.tools.octane.tests.build.BuildHandlerUtils;
 import hudson.model.Run;
 import org.apache.logging.log4j.Logger;
 
@@ -38,13 +37,17 @@ public class BuildLogHelper {
 			return;
 		}
 		try {
-			String jobCiId = BuildHandlerUtils.getJobCiId(run);
-			String buildCiId = BuildHandlerUtils.getBuildCiId(run);
-			String parents = BuildHandlerUtils.getRootJobCiIds(run);
+			RunEventContext context = RunEventContext.of(run);
+			String jobCiId = context.getJobCiId();
+			String buildCiId = context.getBuildCiId();
+			String parents = context.getRootJobCiIds();
 
-			logger.debug("enqueued build '" + jobCiId + " #" + buildCiId + "' for log submission");
-			OctaneSDK.getClients().forEach(octaneClient -> {
-				octaneClient.getLogsService().enqueuePushBuildLog(jobCiId, buildCiId, parents);
+			//log is handed to the SDK once it is prepared, so SDK worker does not wait for it
+			BuildLogFile.prepareAsync(run, () -> {
+				logger.debug("enqueued build '" + jobCiId + " #" + buildCiId + "' for log submission");
+				OctaneSDK.getClients().forEach(octaneClient -> {
+					octaneClient.getLogsService().enqueuePushBuildLog(jobCiId, buildCiId, parents);
+				});
 			});
 		} catch (Exception t) {
 			logger.error("failed to enqueue " + run + " for logs push to Octane", t);
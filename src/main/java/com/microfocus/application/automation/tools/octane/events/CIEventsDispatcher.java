@@ -0,0 +1,179 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.events;
+
+import com.hp.octane.integrations.OctaneClient;
+import com.hp.octane.integrations.OctaneSDK;
+import com.hp.octane.integrations.dto.events.CIEvent;
+import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
+import org.apache.logging.log4j.Logger;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Collects CI events published within a short window and hands them to the clients as one batch.
+ * Events are delivered in exactly the order they were published, so events of the same run keep their order.
+ * Events carry no flow node id to tell a repeated event from one of another node, so none of them is dropped.
+ * Window of 0 (system property octane.events.batching.window) delivers every event on the publishing thread.
+ */
+public class CIEventsDispatcher {
+	private static final Logger logger = SDKBasedLoggerProvider.getLogger(CIEventsDispatcher.class);
+
+	private static final long BATCHING_WINDOW_MILLIS = Long.getLong("octane.events.batching.window", 100);
+	private static final int MAX_BATCH_SIZE = Integer.getInteger("octane.events.batch.size", 500);
+
+	private static final CIEventsDispatcher instance = new CIEventsDispatcher("events-dispatch",
+			BATCHING_WINDOW_MILLIS, Math.max(1, MAX_BATCH_SIZE), CIEventsDispatcher::publishToClients);
+
+	private final String name;
+	private final long windowMillis;
+	private final int maxBatchSize;
+	private final Consumer<List<CIEvent>> delivery;
+	private final Object deliveryLock = new Object();
+	private final List<CIEvent> pending = new ArrayList<>();
+	private Thread flusher;
+
+	private final AtomicLong published = new AtomicLong();
+	private final AtomicLong delivered = new AtomicLong();
+	private final AtomicLong batches = new AtomicLong();
+	private final AtomicLong failedBatches = new AtomicLong();
+	private final AtomicLong maxDeliveredBatchSize = new AtomicLong();
+
+	CIEventsDispatcher(String name, long windowMillis, int maxBatchSize, Consumer<List<CIEvent>> delivery) {
+		this.name = name;
+		this.windowMillis = windowMillis;
+		this.maxBatchSize = maxBatchSize;
+		this.delivery = delivery;
+	}
+
+	public static CIEventsDispatcher getInstance() {
+		return instance;
+	}
+
+	public void publish(CIEvent event) {
+		published.incrementAndGet();
+		if (windowMillis <= 0) {
+			synchronized (deliveryLock) {
+				deliver(Collections.singletonList(event));
+			}
+			return;
+		}
+
+		synchronized (pending) {
+			pending.add(event);
+			if (flusher == null) {
+				flusher = new Thread(this::flushPeriodically, "octane-" + name);
+				flusher.setDaemon(true);
+				flusher.start();
+			}
+			if (pending.size() == 1 || pending.size() >= maxBatchSize) {
+				pending.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Delivers all events published so far on the calling thread
+	 */
+	public void flush() {
+		synchronized (deliveryLock) {
+			List<CIEvent> batch;
+			synchronized (pending) {
+				if (pending.isEmpty()) {
+					return;
+				}
+				batch = new ArrayList<>(pending);
+				pending.clear();
+			}
+			deliver(batch);
+		}
+	}
+
+	public int getQueueDepth() {
+		synchronized (pending) {
+			return pending.size();
+		}
+	}
+
+	public Map<String, Object> getMetrics() {
+		Map<String, Object> metrics = new LinkedHashMap<>();
+		long batchesCount = batches.get();
+		metrics.put("windowMillis", windowMillis);
+		metrics.put("queueDepth", getQueueDepth());
+		metrics.put("published", published.get());
+		metrics.put("delivered", delivered.get());
+		metrics.put("batches", batchesCount);
+		metrics.put("failedBatches", failedBatches.get());
+		metrics.put("maxBatchSize", maxDeliveredBatchSize.get());
+		metrics.put("avgBatchSize", batchesCount == 0 ? 0 : delivered.get() / batchesCount);
+		return metrics;
+	}
+
+	private void flushPeriodically() {
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				synchronized (pending) {
+					while (pending.isEmpty()) {
+						pending.wait();
+					}
+					//let the window fill up, unless it is already large enough for a batch
+					long windowEnd = System.currentTimeMillis() + windowMillis;
+					long remaining = windowMillis;
+					while (remaining > 0 && pending.size() < maxBatchSize) {
+						pending.wait(remaining);
+						remaining = windowEnd - System.currentTimeMillis();
+					}
+				}
+				flush();
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		} finally {
+			synchronized (pending) {
+				flusher = null;
+			}
+		}
+	}
+
+	private void deliver(List<CIEvent> batch) {
+		batches.incrementAndGet();
+		maxDeliveredBatchSize.accumulateAndGet(batch.size(), Math::max);
+		try {
+			delivery.accept(batch);
+			delivered.addAndGet(batch.size());
+		} catch (RuntimeException e) {
+			failedBatches.incrementAndGet();
+			logger.error(name + " failed to deliver batch of " + batch.size() + " events", e);
+		}
+	}
+
+	private static void publishToClients(List<CIEvent> events) {
+		for (OctaneClient client : OctaneSDK.getClients()) {
+			try {
+				events.forEach(event -> client.getEventsService().publishEvent(event));
+			} catch (RuntimeException e) {
+				logger.error("failed to publish events to " + client.getConfigurationService().getConfiguration().geLocationForLog(), e);
+			}
+		}
+	}
+}
@@ -30,6 +30,7 @@ import com.microfocus.application.automation.tools.octane.configuration.Configur
 import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
 import com.microfocus.application.automation.tools.octane.executor.UftTestDiscoveryDispatcher;
 import com.microfocus.application.automation.tools.octane.model.processors.projects.JobProcessorFactory;
+import com.microfocus.application.automation.tools.octane.tests.TestListener;
 import com.microfocus.application.automation.tools.octane.tests.build.BuildHandlerUtils;
 import com.microfocus.application.automation.tools.settings.OctaneServerSettingsBuilder;
 import hudson.Extension;
@@ -62,6 +63,7 @@ public class GlobalEventsListenerOctaneImpl extends ItemListener {
 		logger.info("CI SDK version " + OctaneSDK.SDK_VERSION);
 
 		OctaneServerSettingsBuilder.getOctaneSettingsManager().initOctaneClients();
+		SCMDataCollector.resumePending();
 	}
 
 	@Override
@@ -85,6 +87,11 @@ public class GlobalEventsListenerOctaneImpl extends ItemListener {
 
 	@Override
 	public void onBeforeShutdown() {
+		//let already finished builds publish their tests before clients are gone
+		Jenkins.get().getExtensionList(TestListener.class).get(0).shutdownProcessing();
+		BuildLogFile.shutdownPreparation();
+		SCMDataCollector.shutdownCollection();
+		CIEventsDispatcher.getInstance().flush();
 		OctaneSDK.getClients().forEach(OctaneSDK::removeClient);
 		UftTestDiscoveryDispatcher dispatcher = Jenkins.get().getExtensionList(UftTestDiscoveryDispatcher.class).get(0);
 		dispatcher.close();
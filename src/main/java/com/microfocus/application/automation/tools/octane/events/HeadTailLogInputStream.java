@@ -0,0 +1,176 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.events;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Log stream that keeps only the first and the last lines of the source, with a marker line in place of the omitted ones.
+ * Head lines are passed through as they are read, only the tail lines are held in memory, each of them cut
+ * to at most octane.logs.tail.line.max.bytes bytes (system property, 64KB by default). All of them together take
+ * at most octane.logs.tail.max.bytes bytes (8MB by default), older tail lines beyond it are omitted as well,
+ * though the last line is always kept. Omitted lines are only counted.
+ */
+final class HeadTailLogInputStream extends InputStream {
+	static final String OMITTED_LINES_MARKER = "[ALM Octane] ... %d lines omitted ...\n";
+	private static final int MAX_LINE_BYTES = Integer.getInteger("octane.logs.tail.line.max.bytes", 64 * 1024);
+	private static final long MAX_TAIL_BYTES = Long.getLong("octane.logs.tail.max.bytes", 8 * 1024 * 1024);
+
+	private final InputStream source;
+	private final int headLines;
+	private final int tailLines;
+	private final int maxLineBytes;
+	private final long maxTailBytes;
+	private long headLinesRead;
+	private long tailBytes;
+	private InputStream tail;
+
+	/**
+	 * @param headLines number of first lines to keep, 0 for none
+	 * @param tailLines number of last lines to keep, 0 for none
+	 */
+	HeadTailLogInputStream(InputStream source, int headLines, int tailLines) {
+		this(source, headLines, tailLines, MAX_LINE_BYTES, MAX_TAIL_BYTES);
+	}
+
+	HeadTailLogInputStream(InputStream source, int headLines, int tailLines, int maxLineBytes, long maxTailBytes) {
+		this.source = source;
+		this.headLines = headLines;
+		this.tailLines = tailLines;
+		this.maxLineBytes = Math.max(1, maxLineBytes);
+		this.maxTailBytes = Math.max(1, maxTailBytes);
+	}
+
+	@Override
+	public int read() throws IOException {
+		byte[] single = new byte[1];
+		int read = read(single, 0, 1);
+		return read == -1 ? -1 : single[0] & 0xFF;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+		if (tail != null) {
+			return tail.read(b, off, len);
+		}
+		if (headLinesRead >= headLines) {
+			tail = collectTail(new byte[0], 0, 0);
+			return tail.read(b, off, len);
+		}
+
+		int read = source.read(b, off, len);
+		if (read == -1) {
+			tail = new ByteArrayInputStream(new byte[0]);
+			return -1;
+		}
+		for (int i = off; i < off + read; i++) {
+			if (b[i] == '\n' && ++headLinesRead == headLines) {
+				//rest of the chunk already belongs to the tail part
+				tail = collectTail(b, i + 1, off + read - i - 1);
+				return i + 1 - off;
+			}
+		}
+		return read;
+	}
+
+	@Override
+	public void close() throws IOException {
+		source.close();
+	}
+
+	//reads the source to its end keeping the last lines only
+	private InputStream collectTail(byte[] pending, int pendingOff, int pendingLen) throws IOException {
+		Deque<byte[]> lines = new ArrayDeque<>();
+		ByteArrayOutputStream line = new ByteArrayOutputStream();
+		boolean lineStarted = false;
+		long omitted = 0;
+
+		byte[] buffer = pending;
+		int off = pendingOff;
+		int len = pendingLen;
+		byte[] readBuffer = new byte[64 * 1024];
+		while (len != -1) {
+			int lineStart = off;
+			for (int i = off; i < off + len; i++) {
+				if (buffer[i] == '\n') {
+					append(line, buffer, lineStart, i - lineStart);
+					line.write('\n');
+					lineStart = i + 1;
+					omitted += keepLine(lines, line);
+					lineStarted = false;
+				}
+			}
+			if (lineStart < off + len) {
+				append(line, buffer, lineStart, off + len - lineStart);
+				lineStarted = true;
+			}
+
+			buffer = readBuffer;
+			off = 0;
+			len = source.read(readBuffer, 0, readBuffer.length);
+		}
+		if (lineStarted) {
+			omitted += keepLine(lines, line);
+		}
+
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		if (omitted > 0) {
+			result.write(String.format(OMITTED_LINES_MARKER, omitted).getBytes(StandardCharsets.UTF_8));
+		}
+		for (byte[] kept : lines) {
+			result.write(kept);
+		}
+		return new ByteArrayInputStream(result.toByteArray());
+	}
+
+	//buffers line content up to the line limit, the rest of the line is discarded; nothing is buffered with no tail to keep
+	private void append(ByteArrayOutputStream line, byte[] buffer, int off, int len) {
+		if (tailLines > 0) {
+			line.write(buffer, off, Math.min(len, maxLineBytes - line.size()));
+		}
+	}
+
+	//adds completed line to the tail, returns number of lines dropped from it
+	private int keepLine(Deque<byte[]> lines, ByteArrayOutputStream line) {
+		int dropped = 0;
+		if (tailLines > 0) {
+			lines.addLast(line.toByteArray());
+			tailBytes += line.size();
+			while (lines.size() > tailLines || (tailBytes > maxTailBytes && lines.size() > 1)) {
+				tailBytes -= lines.removeFirst().length;
+				dropped++;
+			}
+		} else {
+			dropped = 1;
+		}
+		line.reset();
+		return dropped;
+	}
+}
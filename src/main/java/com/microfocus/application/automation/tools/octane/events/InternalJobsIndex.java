@@ -0,0 +1,165 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.events;
+
+import com.hp.octane.integrations.dto.pipelines.PipelineNode;
+import com.hp.octane.integrations.dto.pipelines.PipelinePhase;
+import com.microfocus.application.automation.tools.octane.model.processors.projects.JobProcessorFactory;
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.Item;
+import hudson.model.Job;
+import hudson.model.Saveable;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.SaveableListener;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reverse index from an invoked job name to the jobs invoking it from their phases and builders,
+ * so an upstream triggered build is classified as internal without rebuilding the upstream job's structure.
+ * Invoking jobs are indexed the first time one of their builds triggers another job, and indexed again once saved.
+ * Invoked jobs are resolved by name, so when jobs are created or renamed a job indexed earlier may invoke one
+ * more of them: such a job is indexed again the first time it is asked about a job it does not invoke.
+ */
+final class InternalJobsIndex {
+	private static final Map<String, Set<String>> parentsByChild = new HashMap<>();
+	private static final Map<String, IndexedParent> indexedParents = new HashMap<>();
+	private static long jobsVersion;
+
+	private InternalJobsIndex() {
+	}
+
+	static synchronized boolean isInvokedBy(Job parent, String childName) {
+		String parentName = parent.getFullName();
+		IndexedParent indexed = indexedParents.get(parentName);
+		if (indexed == null) {
+			indexed = index(parent);
+		}
+		if (!getInvokingJobs(childName).contains(parentName) && indexed.jobsVersion != jobsVersion) {
+			unindex(parentName);
+			index(parent);
+		}
+		return getInvokingJobs(childName).contains(parentName);
+	}
+
+	static synchronized Set<String> getInvokingJobs(String childName) {
+		Set<String> parents = parentsByChild.get(childName);
+		return parents == null ? Collections.emptySet() : Collections.unmodifiableSet(parents);
+	}
+
+	private static IndexedParent index(Job parent) {
+		IndexedParent indexed = new IndexedParent(collectInternalJobs(parent), jobsVersion);
+		indexedParents.put(parent.getFullName(), indexed);
+		for (String child : indexed.children) {
+			parentsByChild.computeIfAbsent(child, k -> new HashSet<>()).add(parent.getFullName());
+		}
+		return indexed;
+	}
+
+	private static Set<String> collectInternalJobs(Job parent) {
+		Set<String> result = new HashSet<>();
+		for (PipelinePhase phase : JobProcessorFactory.getFlowProcessor(parent).getInternals()) {
+			for (PipelineNode node : phase.getJobs()) {
+				if (node != null) {
+					result.add(node.getName());
+				}
+			}
+		}
+		return result;
+	}
+
+	static synchronized void unindex(String parentName) {
+		IndexedParent indexed = indexedParents.remove(parentName);
+		if (indexed != null) {
+			for (String child : indexed.children) {
+				Set<String> parents = parentsByChild.get(child);
+				if (parents != null) {
+					parents.remove(parentName);
+					if (parents.isEmpty()) {
+						parentsByChild.remove(child);
+					}
+				}
+			}
+		}
+	}
+
+	static synchronized void jobsChanged() {
+		jobsVersion++;
+	}
+
+	private static final class IndexedParent {
+		private final Set<String> children;
+		private final long jobsVersion;
+
+		private IndexedParent(Set<String> children, long jobsVersion) {
+			this.children = children;
+			this.jobsVersion = jobsVersion;
+		}
+	}
+
+	@Extension
+	public static final class Invalidator extends ItemListener {
+		@Override
+		public void onUpdated(Item item) {
+			unindex(item.getFullName());
+		}
+
+		@Override
+		public void onCreated(Item item) {
+			jobsChanged();
+		}
+
+		@Override
+		public void onCopied(Item src, Item item) {
+			jobsChanged();
+		}
+
+		@Override
+		public void onDeleted(Item item) {
+			unindex(item.getFullName());
+			jobsChanged();
+		}
+
+		@Override
+		public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+			unindex(oldFullName);
+			jobsChanged();
+		}
+	}
+
+	/**
+	 * Jobs are saved on configuration changes made without the configuration page as well, e.g. by scripts
+	 */
+	@Extension
+	public static final class ConfigurationWatcher extends SaveableListener {
+		@Override
+		public void onChange(Saveable o, XmlFile file) {
+			if (o instanceof Job) {
+				unindex(((Job) o).getFullName());
+			}
+		}
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.events;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Thread safe set of run keys whose entries expire after a time to live and whose size is bounded;
+ * when full, expired entries are purged first and then the oldest ones
+ */
+class RecentRunKeys {
+	private final Map<String, Long> addedAt = new ConcurrentHashMap<>();
+	private final long ttlMillis;
+	private final int maxSize;
+	private final LongSupplier clock;
+
+	RecentRunKeys(long ttlMillis, int maxSize) {
+		this(ttlMillis, maxSize, System::currentTimeMillis);
+	}
+
+	RecentRunKeys(long ttlMillis, int maxSize, LongSupplier clock) {
+		this.ttlMillis = ttlMillis;
+		this.maxSize = maxSize;
+		this.clock = clock;
+	}
+
+	/**
+	 * @return true if the key was not present (or its entry has expired) and is added now
+	 */
+	boolean add(String key) {
+		long now = clock.getAsLong();
+		boolean[] added = new boolean[1];
+		addedAt.compute(key, (k, time) -> {
+			if (time != null && now - time < ttlMillis) {
+				return time;
+			}
+			added[0] = true;
+			return now;
+		});
+		if (added[0] && addedAt.size() > maxSize) {
+			evict(now);
+		}
+		return added[0];
+	}
+
+	void remove(String key) {
+		addedAt.remove(key);
+	}
+
+	int size() {
+		return addedAt.size();
+	}
+
+	private synchronized void evict(long now) {
+		addedAt.values().removeIf(time -> now - time >= ttlMillis);
+		int excess = addedAt.size() - maxSize;
+		if (excess <= 0) {
+			return;
+		}
+		List<Map.Entry<String, Long>> entries = new ArrayList<>(addedAt.entrySet());
+		entries.sort(Map.Entry.comparingByValue());
+		for (int i = 0; i < excess; i++) {
+			addedAt.remove(entries.get(i).getKey(), entries.get(i).getValue());
+		}
+	}
+}
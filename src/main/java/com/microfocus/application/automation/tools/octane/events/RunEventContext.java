@@ -0,0 +1,157 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.events;
+
+import com.hp.octane.integrations.dto.causes.CIEventCause;
+import com.hp.octane.integrations.dto.parameters.CIParameter;
+import com.microfocus.application.automation.tools.octane.model.CIEventCausesFactory;
+import com.microfocus.application.automation.tools.octane.model.processors.parameters.ParameterProcessors;
+import com.microfocus.application.automation.tools.octane.model.processors.scm.CommonOriginRevision;
+import com.microfocus.application.automation.tools.octane.model.processors.scm.SCMProcessor;
+import com.microfocus.application.automation.tools.octane.model.processors.scm.SCMProcessors;
+import com.microfocus.application.automation.tools.octane.tests.build.BuildHandlerUtils;
+import hudson.model.AbstractBuild;
+import hudson.model.Run;
+import hudson.scm.SCM;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Run values carried by every CI event of the run (and by tests and logs submissions), computed on first use
+ * instead of once per event. Values do not change during the run with the exception of the SCM revision,
+ * which is reset whenever a changelog is parsed.
+ */
+public final class RunEventContext {
+	//  values must not reference the run, or the weak key would never be released
+	private static final Map<Run<?, ?>, Values> runValues = Collections.synchronizedMap(new WeakHashMap<>());
+
+	private final Run<?, ?> run;
+	private final Values values;
+
+	private RunEventContext(Run<?, ?> run, Values values) {
+		this.run = run;
+		this.values = values;
+	}
+
+	public static RunEventContext of(Run<?, ?> run) {
+		return new RunEventContext(run, runValues.computeIfAbsent(run, r -> new Values()));
+	}
+
+	public String getJobCiId() {
+		synchronized (values) {
+			if (values.jobCiId == null) {
+				values.jobCiId = BuildHandlerUtils.getJobCiId(run);
+			}
+			return values.jobCiId;
+		}
+	}
+
+	public String getBuildCiId() {
+		synchronized (values) {
+			if (values.buildCiId == null) {
+				values.buildCiId = BuildHandlerUtils.getBuildCiId(run);
+			}
+			return values.buildCiId;
+		}
+	}
+
+	public String getProjectDisplayName() {
+		synchronized (values) {
+			if (values.projectDisplayName == null) {
+				values.projectDisplayName = BuildHandlerUtils.translateFullDisplayName(run.getParent().getFullDisplayName());
+			}
+			return values.projectDisplayName;
+		}
+	}
+
+	public List<CIParameter> getParameters() {
+		synchronized (values) {
+			if (values.parameters == null) {
+				values.parameters = ParameterProcessors.getInstances(run);
+			}
+			return values.parameters;
+		}
+	}
+
+	/**
+	 * causes chain is memoized by the factory itself, as long as it is fully resolved
+	 */
+	public List<CIEventCause> getCauses() {
+		return CIEventCausesFactory.processCauses(run);
+	}
+
+	public String getRootJobCiIds() {
+		synchronized (values) {
+			if (values.rootJobCiIds != null) {
+				return values.rootJobCiIds;
+			}
+			String result = BuildHandlerUtils.getRootJobCiIds(run);
+			if (CIEventCausesFactory.hasResolvedCauses(run)) {
+				values.rootJobCiIds = result;
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * @return common origin revision of the build's SCM, null if there is none or it is not known
+	 */
+	public CommonOriginRevision getCommonOriginRevision() {
+		synchronized (values) {
+			if (!values.commonOriginRevisionResolved) {
+				if (run instanceof AbstractBuild) {
+					SCM scm = ((AbstractBuild<?, ?>) run).getProject().getScm();
+					if (scm != null) {
+						SCMProcessor scmProcessor = SCMProcessors.getAppropriate(scm.getClass().getName());
+						if (scmProcessor != null) {
+							values.commonOriginRevision = scmProcessor.getCommonOriginRevision(run);
+						}
+					}
+				}
+				values.commonOriginRevisionResolved = true;
+			}
+			return values.commonOriginRevision;
+		}
+	}
+
+	/**
+	 * to be called once SCM data of the run changes, e.g. after checkout
+	 */
+	public void invalidateScm() {
+		synchronized (values) {
+			values.commonOriginRevision = null;
+			values.commonOriginRevisionResolved = false;
+		}
+	}
+
+	private static final class Values {
+		private String jobCiId;
+		private String buildCiId;
+		private String projectDisplayName;
+		private List<CIParameter> parameters;
+		private String rootJobCiIds;
+		private CommonOriginRevision commonOriginRevision;
+		private boolean commonOriginRevisionResolved;
+	}
+}
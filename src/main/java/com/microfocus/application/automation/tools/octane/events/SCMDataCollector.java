@@ -0,0 +1,349 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.events;
+
+import com.hp.octane.integrations.OctaneSDK;
+import com.hp.octane.integrations.dto.scm.SCMData;
+import com.microfocus.application.automation.tools.octane.OrderedTaskExecutor;
+import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
+import com.microfocus.application.automation.tools.octane.model.processors.scm.SCMProcessor;
+import com.microfocus.application.automation.tools.octane.model.processors.scm.SCMProcessors;
+import com.microfocus.application.automation.tools.octane.model.processors.scm.SCMUtils;
+import hudson.model.AbstractBuild;
+import hudson.model.Run;
+import hudson.scm.SCM;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import jenkins.model.Jenkins;
+import jenkins.util.Timer;
+import org.apache.logging.log4j.Logger;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Collects SCM data of a run in background once its changelog is parsed, so checkout does not wait for history and blame analysis.
+ * SCM data of a build is extracted while the build runs, on a thread of the build started at checkout, as line enrichment
+ * reads its workspace on the agent; the build awaits the extraction, up to a timeout, before it ends.
+ * Only persisting and enqueueing the data are left to the collection executor, a collection it rejects as full is retried.
+ * Until the data is persisted and handed to the SDK, the run keeps a pending marker (key of the SCM) in its directory
+ * and is listed in the pending index in Jenkins home; pending collections are started again after restart,
+ * without line enrichment since the builds no longer own their workspaces.
+ */
+public final class SCMDataCollector {
+	private static final Logger logger = SDKBasedLoggerProvider.getLogger(SCMDataCollector.class);
+
+	static final String PENDING_FILE_NAME = "scmdata.pending";
+	static final String PENDING_INDEX_FILE_NAME = "octane-scm-pending.txt";
+
+	private static final int COLLECTION_THREADS = Integer.getInteger("octane.scm.collection.threads", 2);
+	private static final int COLLECTION_CAPACITY = Integer.getInteger("octane.scm.collection.capacity", 500);
+	private static final long COLLECTION_RETRY_SECONDS = Long.getLong("octane.scm.collection.retry.seconds", 10);
+	//line enrichment time budget and the history analysis before it
+	private static final long EXTRACTION_AWAIT_SECONDS = Long.getLong("octane.scm.extraction.await.seconds", 360);
+
+	private static final OrderedTaskExecutor collectionExecutor = new OrderedTaskExecutor("scm-collection",
+			Math.max(1, COLLECTION_THREADS), Math.max(1, COLLECTION_CAPACITY));
+	private static volatile boolean shutdown = false;
+
+	//extractions of running builds, awaited before the builds end
+	private static final Map<Run, List<Future<?>>> extractions = Collections.synchronizedMap(new WeakHashMap<>());
+
+	//externalizable ids of runs with pending collection, guarded by itself
+	private static final Set<String> pendingRuns = new LinkedHashSet<>();
+	private static boolean pendingRunsLoaded = false;
+
+	private SCMDataCollector() {
+		//for code climate
+	}
+
+	/**
+	 * Records the pending marker of the run and schedules the collection
+	 */
+	public static void collectAsync(Run run, SCM scm) throws IOException {
+		if (SCMProcessors.getAppropriate(scm.getClass().getName()) == null) {
+			//nothing to analyze (no SCM configured)
+			collect(run, scm);
+			return;
+		}
+		markPending(run, scm);
+		if (run instanceof AbstractBuild) {
+			if (shutdown) {
+				logger.error("SCM data extraction is shut down, collection of " + run + " stays pending until restart");
+				return;
+			}
+			//line enrichment reads the workspace of the build, the build awaits the extraction;
+			//a thread per build, so extractions of concurrent builds never queue behind each other
+			FutureTask<Void> extraction = new FutureTask<>(() -> {
+				Runnable persisting = extract(run, scm);
+				if (persisting != null) {
+					submit(run, persisting);
+				}
+			}, null);
+			synchronized (extractions) {
+				extractions.computeIfAbsent(run, r -> new ArrayList<>()).add(extraction);
+			}
+			Thread thread = new Thread(extraction, "octane-scm-extraction " + run.getExternalizableId());
+			thread.setDaemon(true);
+			thread.start();
+		} else {
+			submit(run, scm);
+		}
+	}
+
+	/**
+	 * Waits for SCM data extractions of the build, so its workspace is not released while they read it.
+	 * Extractions still running after the timeout are interrupted, the build does not wait for them any longer.
+	 */
+	public static void awaitExtraction(Run run) throws InterruptedException {
+		List<Future<?>> runExtractions = extractions.remove(run);
+		if (runExtractions == null) {
+			return;
+		}
+		long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(EXTRACTION_AWAIT_SECONDS);
+		for (Future<?> extraction : runExtractions) {
+			try {
+				extraction.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+			} catch (ExecutionException e) {
+				logger.error("failed to extract SCM data of " + run, e);
+			} catch (TimeoutException e) {
+				logger.warn("SCM data extraction of " + run + " did not complete in " + EXTRACTION_AWAIT_SECONDS + " seconds, it is interrupted");
+				extraction.cancel(true);
+			}
+		}
+	}
+
+	static boolean isExtracting(Run run) {
+		return extractions.containsKey(run);
+	}
+
+	/**
+	 * Schedules collections that were pending when Jenkins stopped, their builds are over so they are done without line enrichment
+	 */
+	public static void resumePending() {
+		List<String> runIds;
+		synchronized (pendingRuns) {
+			runIds = new ArrayList<>(loadPendingRuns());
+		}
+		if (runIds.isEmpty()) {
+			return;
+		}
+
+		logger.info("resuming SCM data collection of " + runIds.size() + " runs");
+		try (ACLContext ignored = ACL.as(ACL.SYSTEM)) {
+			for (String runId : runIds) {
+				Run run = Run.fromExternalizableId(runId);
+				SCM scm = run != null ? findPendingScm(run) : null;
+				if (scm != null) {
+					submit(run, scm);
+				} else {
+					logger.warn("SCM data collection of " + runId + " can not be resumed, run or its SCM no longer exists");
+					removePendingRun(runId);
+				}
+			}
+		} catch (RuntimeException e) {
+			logger.error("failed to resume pending SCM data collections", e);
+		}
+	}
+
+	public static Map<String, Object> getCollectionMetrics() {
+		return collectionExecutor.getMetrics();
+	}
+
+	/**
+	 * Collections not finished within the timeout stay pending and are resumed after restart
+	 */
+	public static void shutdownCollection() {
+		shutdown = true;
+		List<Future<?>> running = new ArrayList<>();
+		synchronized (extractions) {
+			extractions.values().forEach(running::addAll);
+		}
+		running.forEach(extraction -> extraction.cancel(true));
+		collectionExecutor.shutdown(60, TimeUnit.SECONDS);
+	}
+
+	private static void submit(Run run, SCM scm) {
+		submit(run, () -> collect(run, scm));
+	}
+
+	/**
+	 * A collection rejected by the full executor is submitted again later, until it is accepted or the executor shuts down
+	 */
+	private static void submit(Run run, Runnable collection) {
+		if (collectionExecutor.submit(run.getParent().getFullName(), collection)) {
+			return;
+		}
+		if (shutdown) {
+			logger.error("SCM data collection is shut down, collection of " + run + " stays pending until restart");
+			return;
+		}
+		logger.warn("SCM data collection is overloaded, collection of " + run + " is retried in " + COLLECTION_RETRY_SECONDS + " seconds");
+		Timer.get().schedule(() -> submit(run, collection), COLLECTION_RETRY_SECONDS, TimeUnit.SECONDS);
+	}
+
+	private static void collect(Run run, SCM scm) {
+		Runnable persisting = extract(run, scm);
+		if (persisting != null) {
+			persisting.run();
+		}
+	}
+
+	/**
+	 * @return persisting of the extracted SCM data, null if the extraction failed
+	 */
+	private static Runnable extract(Run run, SCM scm) {
+		SCMProcessor scmProcessor = SCMProcessors.getAppropriate(scm.getClass().getName());
+		SCMData scmData;
+		try {
+			scmData = SCMUtils.extractSCMData(run, scm, scmProcessor);
+		} catch (RuntimeException e) {
+			logger.error("failed to collect SCM data of " + run, e);
+			clearPending(run, scm);
+			return null;
+		}
+		boolean truncated = scmProcessor != null && scmProcessor.isTruncated();
+		return () -> persist(run, scm, scmData, truncated);
+	}
+
+	private static void persist(Run run, SCM scm, SCMData scmData, boolean truncated) {
+		try {
+			RunEventContext context = RunEventContext.of(run);
+			String jobCiId = context.getJobCiId();
+			String buildCiId = context.getBuildCiId();
+
+			SCMUtils.persistSCMData(run, jobCiId, buildCiId, scmData, truncated);
+
+			if (scmData != null) {
+				OctaneSDK.getClients().forEach(octaneClient ->
+						octaneClient.getSCMDataService().enqueueSCMData(jobCiId, buildCiId, scmData));
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			logger.warn("SCM data collection of " + run + " interrupted, it will be resumed after restart");
+			return;
+		} catch (IOException | RuntimeException e) {
+			logger.error("failed to collect SCM data of " + run, e);
+		}
+		clearPending(run, scm);
+	}
+
+	static void markPending(Run run, SCM scm) throws IOException {
+		//marker is written first, so a listed run always has it
+		Files.write(new File(run.getRootDir(), PENDING_FILE_NAME).toPath(), scm.getKey().getBytes(StandardCharsets.UTF_8));
+		synchronized (pendingRuns) {
+			if (loadPendingRuns().add(run.getExternalizableId())) {
+				savePendingRuns();
+			}
+		}
+	}
+
+	private static void clearPending(Run run, SCM scm) {
+		File marker = new File(run.getRootDir(), PENDING_FILE_NAME);
+		try {
+			//another checkout of the run may have replaced the marker, its collection clears it
+			if (marker.exists() && !scm.getKey().equals(new String(Files.readAllBytes(marker.toPath()), StandardCharsets.UTF_8))) {
+				return;
+			}
+			Files.deleteIfExists(marker.toPath());
+		} catch (IOException e) {
+			logger.error("failed to clear SCM data pending marker of " + run, e);
+		}
+		removePendingRun(run.getExternalizableId());
+	}
+
+	private static SCM findPendingScm(Run run) {
+		File marker = new File(run.getRootDir(), PENDING_FILE_NAME);
+		if (!marker.exists()) {
+			return null;
+		}
+
+		String scmKey;
+		try {
+			scmKey = new String(Files.readAllBytes(marker.toPath()), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			logger.error("failed to read SCM data pending marker of " + run, e);
+			return null;
+		}
+
+		Collection<? extends SCM> scms = Collections.emptyList();
+		if (run instanceof AbstractBuild) {
+			scms = Collections.singletonList(((AbstractBuild) run).getProject().getScm());
+		} else if (run instanceof WorkflowRun) {
+			scms = ((WorkflowRun) run).getSCMs();
+		}
+		return scms.stream().filter(scm -> scmKey.equals(scm.getKey())).findFirst().orElse(null);
+	}
+
+	private static void removePendingRun(String runId) {
+		synchronized (pendingRuns) {
+			if (loadPendingRuns().remove(runId)) {
+				savePendingRuns();
+			}
+		}
+	}
+
+	private static Set<String> loadPendingRuns() {
+		if (!pendingRunsLoaded) {
+			File index = getPendingIndexFile();
+			if (index.exists()) {
+				try {
+					Files.readAllLines(index.toPath(), StandardCharsets.UTF_8).stream()
+							.filter(line -> !line.isEmpty())
+							.forEach(pendingRuns::add);
+				} catch (IOException e) {
+					logger.error("failed to read SCM data pending index " + index, e);
+				}
+			}
+			pendingRunsLoaded = true;
+		}
+		return pendingRuns;
+	}
+
+	private static void savePendingRuns() {
+		File index = getPendingIndexFile();
+		try {
+			File tmp = File.createTempFile(PENDING_INDEX_FILE_NAME, ".tmp", index.getParentFile());
+			try {
+				Files.write(tmp.toPath(), pendingRuns, StandardCharsets.UTF_8);
+				Files.move(tmp.toPath(), index.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} finally {
+				Files.deleteIfExists(tmp.toPath());
+			}
+		} catch (IOException e) {
+			logger.error("failed to save SCM data pending index " + index, e);
+		}
+	}
+
+	private static File getPendingIndexFile() {
+		return new File(Jenkins.get().getRootDir(), PENDING_INDEX_FILE_NAME);
+	}
+}
@@ -21,10 +21,6 @@
 package com.microfocus.application.automation.tools.octane.events;
 
 import com.hp.octane.integrations.OctaneSDK;
-import com.hp.octane.integrations.dto.scm.SCMData;
-import com.microfocus.application.automation.tools.octane.model.processors.scm.SCMProcessors;
-import com.microfocus.application.automation.tools.octane.model.processors.scm.SCMUtils;
-import com.microfocus.application.automation.tools.octane.tests.build.BuildHandlerUtils;
 import hudson.Extension;
 import hudson.model.Run;
 import hudson.model.TaskListener;
@@ -32,10 +28,6 @@ import hudson.model.listeners.SCMListener;
 import hudson.scm.ChangeLogSet;
 import hudson.scm.SCM;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
-
 /**
  * Run Listener that handles SCM CI events and dispatches notifications to the Octane server
  * Created by gullery on 10/07/2016.
@@ -51,15 +43,9 @@ public class SCMListenerOctaneImpl extends SCMListener {
         }
         super.onChangeLogParsed(run, scm, listener, changelog);
 
-        String jobCiId = BuildHandlerUtils.getJobCiId(run);
-        String buildCiId = BuildHandlerUtils.getBuildCiId(run);
-
-        SCMData scmData = SCMUtils.extractSCMData(run, scm, SCMProcessors.getAppropriate(scm.getClass().getName()));
-        SCMUtils.persistSCMData(run, jobCiId, buildCiId, scmData);
+        RunEventContext.of(run).invalidateScm();
 
-        if (scmData != null) {
-            OctaneSDK.getClients().forEach(octaneClient ->
-                    octaneClient.getSCMDataService().enqueueSCMData(jobCiId, buildCiId, scmData));
-        }
+        //history and blame analysis is done in background, checkout does not wait for it
+        SCMDataCollector.collectAsync(run, scm);
     }
 }
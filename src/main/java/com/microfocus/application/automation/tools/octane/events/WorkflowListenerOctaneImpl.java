@@ -33,11 +33,12 @@ import com.hp.octane.integrations.dto.snapshots.CIBuildResult;
 import com.microfocus.application.automation.tools.octane.CIJenkinsServicesImpl;
 import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
 import com.microfocus.application.automation.tools.octane.model.CIEventCausesFactory;
-import com.microfocus.application.automation.tools.octane.model.processors.parameters.ParameterProcessors;
 import com.microfocus.application.automation.tools.octane.model.processors.projects.JobProcessorFactory;
 import com.microfocus.application.automation.tools.octane.tests.TestListener;
 import com.microfocus.application.automation.tools.octane.tests.build.BuildHandlerUtils;
 import hudson.Extension;
+import hudson.model.Run;
+import hudson.model.listeners.RunListener;
 import org.apache.logging.log4j.Logger;
 import org.jenkinsci.plugins.workflow.actions.ErrorAction;
 import org.jenkinsci.plugins.workflow.actions.TimingAction;
@@ -47,9 +48,8 @@ import org.jenkinsci.plugins.workflow.flow.GraphListener;
 import org.jenkinsci.plugins.workflow.graph.FlowNode;
 import org.jenkinsci.plugins.workflow.job.WorkflowRun;
 
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Octane's listener for WorkflowRun events
@@ -68,8 +68,11 @@ public class WorkflowListenerOctaneImpl implements GraphListener {
 
 	//After upgrading Pipeline:Groovy plugin to Version 2.64: receive two start events, therefore
 	// pipeline job shows 2 bars for a single pipeline run.
-	// Here we add job key during start event and remove key in finished event
-	private static Set<String> workflowJobStarted = new HashSet<>();
+	// Here we add run key during start event and remove key when run completes or is deleted;
+	// keys of runs that never complete (e.g. controller restarted meanwhile) expire
+	private static final long STARTED_RUNS_TTL_MILLIS = TimeUnit.HOURS.toMillis(Long.getLong("octane.events.started.runs.ttl.hours", 48));
+	private static final int STARTED_RUNS_MAX_SIZE = Integer.getInteger("octane.events.started.runs.max", 10000);
+	private static final RecentRunKeys workflowJobStarted = new RecentRunKeys(STARTED_RUNS_TTL_MILLIS, STARTED_RUNS_MAX_SIZE);
 	@Inject
 	private TestListener testListener;
 
@@ -83,8 +86,9 @@ public class WorkflowListenerOctaneImpl implements GraphListener {
 				sendPipelineStartedEvent(flowNode);
 			} else if (BuildHandlerUtils.isWorkflowEndNode(flowNode)) {
 				WorkflowRun parentRun = BuildHandlerUtils.extractParentRun(flowNode);
-				sendPipelineFinishedEvent(parentRun);
-				BuildLogHelper.enqueueBuildLog(parentRun);
+				workflowJobStarted.remove(getBuildKey(parentRun));
+				CIEventCausesFactory.releaseFlowCauses(flowNode.getExecution());
+				testListener.processBuildAsync(parentRun, hasTests -> sendPipelineFinishedEvent(parentRun, hasTests));
 			} else if (BuildHandlerUtils.isStageStartNode(flowNode)) {
 				sendStageStartedEvent((StepStartNode) flowNode);
 			} else if (BuildHandlerUtils.isStageEndNode(flowNode)) {
@@ -99,23 +103,21 @@ public class WorkflowListenerOctaneImpl implements GraphListener {
 		WorkflowRun parentRun = BuildHandlerUtils.extractParentRun(flowNode);
 
 		//Avoid duplicate start events
-		String buildKey = getBuildKey(parentRun);
-		if (workflowJobStarted.contains(buildKey)) {
+		if (!workflowJobStarted.add(getBuildKey(parentRun))) {
 			return;
-		} else {
-			workflowJobStarted.add(buildKey);
 		}
 
+		RunEventContext context = RunEventContext.of(parentRun);
 		CIEvent event = dtoFactory.newDTO(CIEvent.class)
 				.setEventType(CIEventType.STARTED)
-				.setProjectDisplayName(BuildHandlerUtils.translateFullDisplayName(parentRun.getParent().getFullDisplayName()))
-				.setProject(BuildHandlerUtils.getJobCiId(parentRun))
-				.setBuildCiId(BuildHandlerUtils.getBuildCiId(parentRun))
+				.setProjectDisplayName(context.getProjectDisplayName())
+				.setProject(context.getJobCiId())
+				.setBuildCiId(context.getBuildCiId())
 				.setNumber(String.valueOf(parentRun.getNumber()))
-				.setParameters(ParameterProcessors.getInstances(parentRun))
+				.setParameters(context.getParameters())
 				.setStartTime(parentRun.getStartTimeInMillis())
 				.setEstimatedDuration(parentRun.getEstimatedDuration())
-				.setCauses(CIEventCausesFactory.processCauses(parentRun));
+				.setCauses(context.getCauses());
 
 		if(isInternal(event.getCauses())){
 			event.setPhaseType(PhaseType.INTERNAL);
@@ -124,7 +126,7 @@ public class WorkflowListenerOctaneImpl implements GraphListener {
 			event
 					.setParentCiId(BuildHandlerUtils.translateFolderJobName(parentRun.getParent().getParent().getFullName()))
 					.setMultiBranchType(MultiBranchType.MULTI_BRANCH_CHILD)
-					.setProjectDisplayName(BuildHandlerUtils.translateFullDisplayName(parentRun.getParent().getFullDisplayName()));
+					.setProjectDisplayName(context.getProjectDisplayName());
 		}
 
 		CIJenkinsServicesImpl.publishEventToRelevantClients(event);
@@ -141,25 +143,23 @@ public class WorkflowListenerOctaneImpl implements GraphListener {
 		return false;
 	}
 
-	private String getBuildKey(WorkflowRun run){
-		return run.getFullDisplayName();
+	private static String getBuildKey(Run run) {
+		return run.getExternalizableId();
 	}
 
-	private void sendPipelineFinishedEvent(WorkflowRun parentRun) {
-		workflowJobStarted.remove(getBuildKey(parentRun));
-		boolean hasTests = testListener.processBuild(parentRun);
-
+	private void sendPipelineFinishedEvent(WorkflowRun parentRun, boolean hasTests) {
+		RunEventContext context = RunEventContext.of(parentRun);
 		CIEvent event = dtoFactory.newDTO(CIEvent.class)
 				.setEventType(CIEventType.FINISHED)
-				.setProject(BuildHandlerUtils.getJobCiId(parentRun))
-				.setBuildCiId(BuildHandlerUtils.getBuildCiId(parentRun))
+				.setProject(context.getJobCiId())
+				.setBuildCiId(context.getBuildCiId())
 				.setNumber(String.valueOf(parentRun.getNumber()))
-				.setParameters(ParameterProcessors.getInstances(parentRun))
+				.setParameters(context.getParameters())
 				.setStartTime(parentRun.getStartTimeInMillis())
 				.setEstimatedDuration(parentRun.getEstimatedDuration())
 				.setDuration(parentRun.getDuration())
 				.setResult(BuildHandlerUtils.translateRunResult(parentRun))
-				.setCauses(CIEventCausesFactory.processCauses(parentRun))
+				.setCauses(context.getCauses())
 				.setTestResultExpected(hasTests);
 		CIJenkinsServicesImpl.publishEventToRelevantClients(event);
 	}
@@ -172,7 +172,7 @@ public class WorkflowListenerOctaneImpl implements GraphListener {
 				.setEventType(CIEventType.STARTED)
 				.setPhaseType(PhaseType.INTERNAL)
 				.setProject(stepStartNode.getDisplayName())
-				.setBuildCiId(BuildHandlerUtils.getBuildCiId(parentRun))
+				.setBuildCiId(RunEventContext.of(parentRun).getBuildCiId())
 				.setNumber(String.valueOf(parentRun.getNumber()))
 				.setStartTime(TimingAction.getStartTime(stepStartNode))
 				.setCauses(CIEventCausesFactory.processCauses(stepStartNode));
@@ -187,7 +187,7 @@ public class WorkflowListenerOctaneImpl implements GraphListener {
 				.setEventType(CIEventType.FINISHED)
 				.setPhaseType(PhaseType.INTERNAL)
 				.setProject(stepStartNode.getDisplayName())
-				.setBuildCiId(BuildHandlerUtils.getBuildCiId(parentRun))
+				.setBuildCiId(RunEventContext.of(parentRun).getBuildCiId())
 				.setNumber(String.valueOf(parentRun.getNumber()))
 				.setStartTime(TimingAction.getStartTime(stepStartNode))
 				.setDuration(TimingAction.getStartTime(stepEndNode) - TimingAction.getStartTime(stepStartNode))
@@ -199,4 +199,31 @@ public class WorkflowListenerOctaneImpl implements GraphListener {
 	private CIBuildResult extractFlowNodeResult(FlowNode node) {
 		return node.getAction(ErrorAction.class) != null ? CIBuildResult.FAILURE : CIBuildResult.SUCCESS;
 	}
+
+	/**
+	 * Forgets started pipeline runs that are over or gone, also when their end node was never seen
+	 */
+	@Extension
+	public static final class StartedRunsCleaner extends RunListener<WorkflowRun> {
+		@Override
+		public void onFinalized(WorkflowRun run) {
+			workflowJobStarted.remove(getBuildKey(run));
+		}
+
+		@Override
+		public void onDeleted(WorkflowRun run) {
+			workflowJobStarted.remove(getBuildKey(run));
+		}
+	}
+
+	/**
+	 * Pipeline log is still written to when the end node is reached, it is handed over once the run is finalized
+	 */
+	@Extension
+	public static final class BuildLogEnqueuer extends RunListener<WorkflowRun> {
+		@Override
+		public void onFinalized(WorkflowRun run) {
+			BuildLogHelper.enqueueBuildLog(run);
+		}
+	}
 }
\ No newline at end of file
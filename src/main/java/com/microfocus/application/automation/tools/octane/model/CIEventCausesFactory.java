@@ -35,12 +35,14 @@ import org.apache.logging.log4j.Logger;
 import org.jenkinsci.plugins.workflow.actions.LabelAction;
 import org.jenkinsci.plugins.workflow.cps.nodes.StepAtomNode;
 import org.jenkinsci.plugins.workflow.cps.nodes.StepEndNode;
+import org.jenkinsci.plugins.workflow.flow.FlowExecution;
 import org.jenkinsci.plugins.workflow.graph.FlowNode;
 import org.jenkinsci.plugins.workflow.job.WorkflowRun;
 import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Causes Factory is a collection of static stateless methods to extract/traverse/transform causes chains of the runs
@@ -52,6 +54,11 @@ public final class CIEventCausesFactory {
 	private static final Logger logger = SDKBasedLoggerProvider.getLogger(CIEventCausesFactory.class);
 	private static final DTOFactory dtoFactory = DTOFactory.getInstance();
 
+	//  causes chain of a run does not change once resolved - it is computed once per run
+	private static final Map<Run<?, ?>, List<CIEventCause>> runCausesCache = Collections.synchronizedMap(new WeakHashMap<>());
+	//  flow graph is append only - walk results of nodes entered with no stage to skip are kept per execution
+	private static final Map<FlowExecution, Map<String, FlowWalkResult>> flowWalkCache = Collections.synchronizedMap(new WeakHashMap<>());
+
 	private CIEventCausesFactory() {
 	}
 
@@ -60,6 +67,34 @@ public final class CIEventCausesFactory {
 			throw new IllegalArgumentException("run MUST NOT be null");
 		}
 
+		List<CIEventCause> cached = runCausesCache.get(run);
+		if (cached == null) {
+			boolean[] resolved = {true};
+			cached = processRunCauses(run, resolved);
+			if (resolved[0]) {
+				runCausesCache.put(run, cached);
+			}
+		}
+		return copyOf(cached);
+	}
+
+	/**
+	 * @return true if causes chain of the run is fully resolved and will not change any more
+	 */
+	public static boolean hasResolvedCauses(Run<?, ?> run) {
+		return runCausesCache.containsKey(run);
+	}
+
+	/**
+	 * forgets flow walk results of the execution, to be called once the flow has ended
+	 */
+	public static void releaseFlowCauses(FlowExecution execution) {
+		if (execution != null) {
+			flowWalkCache.remove(execution);
+		}
+	}
+
+	private static List<CIEventCause> processRunCauses(Run<?, ?> run, boolean[] resolved) {
 		Map<String, CIEventCause> result = new LinkedHashMap();//LinkedHashMap - save order of insertion
 		List<Cause> causes = run.getCauses();
 		CIEventCause tmpResultCause;
@@ -94,8 +129,11 @@ public final class CIEventCausesFactory {
 							List<CIEventCause> flowCauses = processCauses(enclosingNode);
 							flowCauses.forEach(fc -> result.put(fc.generateKey(), fc));
 							succeededToBuildFlowCauses = true;
+							resolved[0] &= runCausesCache.containsKey(rootWFRun);
 						}
 					}
+					//  enclosing node may be found later on, do not remember the fallback
+					resolved[0] &= succeededToBuildFlowCauses;
 				}
 
 				if (!succeededToBuildFlowCauses) {
@@ -105,6 +143,7 @@ public final class CIEventCausesFactory {
 					tmpResultCause.setProject(resolveJobCiId(tmpUpstreamCause.getUpstreamProject()));
 					tmpResultCause.setBuildCiId(String.valueOf(tmpUpstreamCause.getUpstreamBuild()));
 					tmpResultCause.setCauses(processCauses(upstreamRun));
+					resolved[0] &= runCausesCache.containsKey(upstreamRun);
 					result.put(tmpResultCause.generateKey(), tmpResultCause);
 				}
 			} else { //  TODO: add support to Cause.RemoteCause execution in SDK/DTOs/Octane
@@ -117,11 +156,68 @@ public final class CIEventCausesFactory {
 
 	public static List<CIEventCause> processCauses(FlowNode flowNode) {
 		List<CIEventCause> causes = new LinkedList<>();
-		processCauses(flowNode, causes, new LinkedHashSet<>());
+		Map<String, FlowWalkResult> walkCache = flowWalkCache.computeIfAbsent(flowNode.getExecution(), e -> new ConcurrentHashMap<>());
+		processCauses(flowNode, causes, walkCache);
 		return causes;
 	}
 
-	private static void processCauses(FlowNode flowNode, List<CIEventCause> causes, Set<FlowNode> startStagesToSkip) {
+	/**
+	 * walks the flow graph from the node back to the start of the flow, collecting causes of not yet ended stages;
+	 * iterative equivalent of depth first recursion over the parents, so deep graphs do not exhaust the stack
+	 */
+	private static void processCauses(FlowNode flowNode, List<CIEventCause> causes, Map<String, FlowWalkResult> walkCache) {
+		Set<String> startStagesToSkip = new HashSet<>();
+		Deque<FlowWalkFrame> frames = new ArrayDeque<>();
+		enterNode(flowNode, causes, startStagesToSkip, frames, walkCache);
+
+		while (!frames.isEmpty()) {
+			FlowWalkFrame frame = frames.peek();
+			if (frame.nextParent == frame.parents.size()) {
+				frames.pop();
+				if (frame.cacheable) {
+					walkCache.put(frame.node.getId(), new FlowWalkResult(
+							copyOf(frame.causes.subList(frame.causesStart, frame.causes.size())),
+							new HashSet<>(startStagesToSkip)));
+				}
+				continue;
+			}
+
+			FlowNode parent = frame.parents.get(frame.nextParent++);
+			if (BuildHandlerUtils.isStageEndNode(parent)) {
+				startStagesToSkip.add(((StepEndNode) parent).getStartNode().getId());
+				enterNode(parent, frame.causes, startStagesToSkip, frames, walkCache);
+			} else if (BuildHandlerUtils.isStageStartNode(parent)) {
+				if (!startStagesToSkip.contains(parent.getId())) {
+					CIEventCause cause = dtoFactory.newDTO(CIEventCause.class)
+							.setType(CIEventCauseType.UPSTREAM)
+							.setProject(parent.getDisplayName())
+							.setBuildCiId(String.valueOf(BuildHandlerUtils.extractParentRun(parent).getNumber()));
+					frame.causes.add(cause);
+					enterNode(parent, cause.getCauses(), startStagesToSkip, frames, walkCache);
+				} else {
+					startStagesToSkip.remove(parent.getId());
+					enterNode(parent, frame.causes, startStagesToSkip, frames, walkCache);
+				}
+			} else {
+				enterNode(parent, frame.causes, startStagesToSkip, frames, walkCache);
+			}
+		}
+	}
+
+	private static void enterNode(FlowNode flowNode, List<CIEventCause> causes, Set<String> startStagesToSkip,
+	                              Deque<FlowWalkFrame> frames, Map<String, FlowWalkResult> walkCache) {
+		//  result of a walk depends on the stages to skip only, with none of them it is the same every time
+		boolean cacheable = startStagesToSkip.isEmpty();
+		if (cacheable) {
+			FlowWalkResult cached = walkCache.get(flowNode.getId());
+			if (cached != null) {
+				causes.addAll(copyOf(cached.causes));
+				startStagesToSkip.addAll(cached.startStagesToSkip);
+				return;
+			}
+		}
+		int causesStart = causes.size();
+
 		//  we reached the start of the flow - add WorkflowRun as an initial UPSTREAM cause
 		if (flowNode.getParents().isEmpty()) {
 			WorkflowRun parentRun = BuildHandlerUtils.extractParentRun(flowNode);
@@ -135,29 +231,24 @@ public final class CIEventCausesFactory {
 
 		//  if we are calculating causes for the END STEP - exclude it's own START STEP from calculation
 		if (BuildHandlerUtils.isStageEndNode(flowNode)) {
-			startStagesToSkip.add(((StepEndNode) flowNode).getStartNode());
+			startStagesToSkip.add(((StepEndNode) flowNode).getStartNode().getId());
 		}
 
-		for (FlowNode parent : flowNode.getParents()) {
-			if (BuildHandlerUtils.isStageEndNode(parent)) {
-				startStagesToSkip.add(((StepEndNode) parent).getStartNode());
-				processCauses(parent, causes, startStagesToSkip);
-			} else if (BuildHandlerUtils.isStageStartNode(parent)) {
-				if (!startStagesToSkip.contains(parent)) {
-					CIEventCause cause = dtoFactory.newDTO(CIEventCause.class)
-							.setType(CIEventCauseType.UPSTREAM)
-							.setProject(parent.getDisplayName())
-							.setBuildCiId(String.valueOf(BuildHandlerUtils.extractParentRun(parent).getNumber()));
-					causes.add(cause);
-					processCauses(parent, cause.getCauses(), startStagesToSkip);
-				} else {
-					startStagesToSkip.remove(parent);
-					processCauses(parent, causes, startStagesToSkip);
-				}
-			} else {
-				processCauses(parent, causes, startStagesToSkip);
-			}
+		frames.push(new FlowWalkFrame(flowNode, causes, causesStart, cacheable));
+	}
+
+	//  cached causes are never handed out, every event gets its own copies to set up
+	private static List<CIEventCause> copyOf(List<CIEventCause> causes) {
+		List<CIEventCause> copies = new ArrayList<>(causes.size());
+		for (CIEventCause cause : causes) {
+			copies.add(dtoFactory.newDTO(CIEventCause.class)
+					.setType(cause.getType())
+					.setUser(cause.getUser())
+					.setProject(cause.getProject())
+					.setBuildCiId(cause.getBuildCiId())
+					.setCauses(cause.getCauses() != null ? copyOf(cause.getCauses()) : null));
 		}
+		return copies;
 	}
 
 	private static String resolveJobCiId(String jobPlainName) {
@@ -206,6 +297,33 @@ public final class CIEventCausesFactory {
 		return result;
 	}
 
+	private static final class FlowWalkFrame {
+		private final FlowNode node;
+		private final List<FlowNode> parents;
+		private final List<CIEventCause> causes;
+		private final int causesStart;
+		private final boolean cacheable;
+		private int nextParent;
+
+		private FlowWalkFrame(FlowNode node, List<CIEventCause> causes, int causesStart, boolean cacheable) {
+			this.node = node;
+			this.parents = node.getParents();
+			this.causes = causes;
+			this.causesStart = causesStart;
+			this.cacheable = cacheable;
+		}
+	}
+
+	private static final class FlowWalkResult {
+		private final List<CIEventCause> causes;
+		private final Set<String> startStagesToSkip;
+
+		private FlowWalkResult(List<CIEventCause> causes, Set<String> startStagesToSkip) {
+			this.causes = causes;
+			this.startStagesToSkip = startStagesToSkip;
+		}
+	}
+
 	private final static class OctaneParentNodeAction extends InvisibleAction {
 		private final String parentFlowNodeId;
 
@@ -0,0 +1,214 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.model;
+
+import com.hp.octane.integrations.dto.parameters.CIParameter;
+import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
+import com.microfocus.application.automation.tools.octane.model.processors.parameters.ParameterProcessors;
+import com.microfocus.application.automation.tools.octane.model.processors.projects.JobProcessorFactory;
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.Item;
+import hudson.model.ItemGroup;
+import hudson.model.Items;
+import hudson.model.Job;
+import hudson.model.Saveable;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.SaveableListener;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import jenkins.model.Jenkins;
+import org.apache.logging.log4j.Logger;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * All jobs of the controller ordered by full name ignoring case, kept up to date by item listener callbacks,
+ * so the jobs list requested by Octane is served without traversing all items and resolving each of them by name.
+ * Per job values needed for the list (CI id, parameters) are computed once and dropped when the job changes.
+ * Permissions are not part of the index, they are checked by the caller for the current user.
+ */
+public final class JobsListIndex {
+	private static final Logger logger = SDKBasedLoggerProvider.getLogger(JobsListIndex.class);
+	private static final JobsListIndex instance = new JobsListIndex();
+
+	//  same order as Jenkins.getJobNames() used to give the jobs list
+	private final NavigableMap<String, Entry> entries = new ConcurrentSkipListMap<>(
+			String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder()));
+	private boolean initialized;
+
+	private JobsListIndex() {
+	}
+
+	public static JobsListIndex getInstance() {
+		return instance;
+	}
+
+	/**
+	 * @return entries in the order of job full names
+	 */
+	public Collection<Entry> getEntries() {
+		ensureInitialized();
+		return Collections.unmodifiableCollection(entries.values());
+	}
+
+	private synchronized void ensureInitialized() {
+		if (!initialized) {
+			long started = System.currentTimeMillis();
+			try (ACLContext ignored = ACL.as(ACL.SYSTEM)) {
+				entries.clear();
+				for (Job job : Jenkins.get().allItems(Job.class)) {
+					entries.put(job.getFullName(), new Entry(job));
+				}
+			}
+			initialized = true;
+			logger.info("jobs list index of " + entries.size() + " jobs built in " + (System.currentTimeMillis() - started) + " ms");
+		}
+	}
+
+	private synchronized void reset() {
+		initialized = false;
+		entries.clear();
+	}
+
+	private synchronized void add(Item item) {
+		if (!initialized) {
+			return;
+		}
+		if (item instanceof Job) {
+			entries.put(item.getFullName(), new Entry((Job) item));
+		}
+		if (item instanceof ItemGroup) {
+			for (Job child : Items.allItems(ACL.SYSTEM, (ItemGroup) item, Job.class)) {
+				entries.put(child.getFullName(), new Entry(child));
+			}
+		}
+	}
+
+	private synchronized void remove(String fullName) {
+		if (!initialized) {
+			return;
+		}
+		entries.remove(fullName);
+		entries.subMap(fullName + "/", true, fullName + "0", false).clear();
+	}
+
+	private synchronized void refresh(Item item) {
+		if (initialized && item instanceof Job) {
+			entries.put(item.getFullName(), new Entry((Job) item));
+		}
+	}
+
+	/**
+	 * Job with the values the jobs list is built of
+	 */
+	public static final class Entry {
+		private final Job job;
+		private final String listName;
+		private final boolean multiBranchChild;
+		private volatile String jobCiId;
+		private volatile List<CIParameter> parameters;
+
+		private Entry(Job job) {
+			this.job = job;
+			this.multiBranchChild = JobProcessorFactory.WORKFLOW_MULTI_BRANCH_JOB_NAME.equals(job.getParent().getClass().getName());
+			this.listName = multiBranchChild ? job.getParent().getFullName() : job.getFullName();
+		}
+
+		public Job getJob() {
+			return job;
+		}
+
+		/**
+		 * @return name of the job in the list, branches of multibranch pipeline are listed by the multibranch name
+		 */
+		public String getListName() {
+			return listName;
+		}
+
+		public boolean isMultiBranchChild() {
+			return multiBranchChild;
+		}
+
+		public String getJobCiId() {
+			if (jobCiId == null) {
+				jobCiId = JobProcessorFactory.getFlowProcessor(job).getTranslatedJobName();
+			}
+			return jobCiId;
+		}
+
+		public List<CIParameter> getParameters() {
+			if (parameters == null) {
+				parameters = ParameterProcessors.getConfigs(job);
+			}
+			return parameters;
+		}
+	}
+
+	@Extension
+	public static final class Maintainer extends ItemListener {
+		@Override
+		public void onLoaded() {
+			getInstance().reset();
+		}
+
+		@Override
+		public void onCreated(Item item) {
+			getInstance().add(item);
+		}
+
+		@Override
+		public void onCopied(Item src, Item item) {
+			getInstance().add(item);
+		}
+
+		@Override
+		public void onUpdated(Item item) {
+			getInstance().refresh(item);
+		}
+
+		@Override
+		public void onDeleted(Item item) {
+			getInstance().remove(item.getFullName());
+		}
+
+		//fired for the moved item and for each of its descendants
+		@Override
+		public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+			getInstance().remove(oldFullName);
+			getInstance().add(item);
+		}
+	}
+
+	/**
+	 * Job configuration changed without an update event (e.g. property added through API)
+	 */
+	@Extension
+	public static final class ConfigurationWatcher extends SaveableListener {
+		@Override
+		public void onChange(Saveable o, XmlFile file) {
+			if (o instanceof Job) {
+				getInstance().refresh((Job) o);
+			}
+		}
+	}
+}
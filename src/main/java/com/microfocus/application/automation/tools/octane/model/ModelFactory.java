@@ -43,7 +43,7 @@ public class ModelFactory {
 	private static final DTOFactory dtoFactory = DTOFactory.getInstance();
 
 	public static PipelineNode createStructureItem(Job job) {
-		return createStructureItem(job, new HashSet<>());
+		return PipelineStructureCache.get(job, j -> createStructureItem(j, new HashSet<>()));
 	}
 
 	public static PipelinePhase createStructurePhase(String name, boolean blocking, List<AbstractProject> items, Set<Job> processedJobs) {
@@ -67,6 +67,7 @@ public class ModelFactory {
 	}
 
 	private static PipelineNode createStructureItem(Job job, Set<Job> processedJobs) {
+		PipelineStructureCache.included(job);
 		AbstractProjectProcessor projectProcessor = JobProcessorFactory.getFlowProcessor(job);
 		projectProcessor.buildStructure(processedJobs);
 		PipelineNode pipelineNode = dtoFactory.newDTO(PipelineNode.class);
@@ -0,0 +1,197 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.model;
+
+import com.hp.octane.integrations.dto.DTOFactory;
+import com.hp.octane.integrations.dto.pipelines.PipelineNode;
+import hudson.Extension;
+import hudson.XmlFile;
+import hudson.model.Item;
+import hudson.model.Job;
+import hudson.model.Saveable;
+import hudson.model.listeners.ItemListener;
+import hudson.model.listeners.SaveableListener;
+import jenkins.model.Jenkins;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Pipeline structures built for Octane, kept until configuration of a job they include changes.
+ * Structure of a job includes its downstream jobs and is resolved with permissions of the current user,
+ * so entries are per job and user, and an entry is dropped when any of the jobs it includes (or their folders)
+ * is saved, moved or deleted. Jobs are referenced by name, so a created job may appear in any structure:
+ * creating a job, as well as saving global configuration (permissions), drops all entries.
+ * Entries are stored serialized, every caller gets its own structure to modify.
+ * Entries also expire after octane.structure.cache.ttl.seconds, to cover changes no listener reports; 0 disables caching.
+ */
+final class PipelineStructureCache {
+	private static final DTOFactory dtoFactory = DTOFactory.getInstance();
+	private static final long TTL_MILLIS = TimeUnit.SECONDS.toMillis(Long.getLong("octane.structure.cache.ttl.seconds", 300));
+	private static final int MAX_SIZE = Integer.getInteger("octane.structure.cache.size", 1000);
+
+	private static final AtomicLong configurationVersion = new AtomicLong();
+	private static final ThreadLocal<Set<String>> includedJobs = new ThreadLocal<>();
+	private static final Map<String, Entry> structures = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+			return size() > MAX_SIZE;
+		}
+	};
+
+	private PipelineStructureCache() {
+	}
+
+	static PipelineNode get(Job job, Function<Job, PipelineNode> builder) {
+		if (TTL_MILLIS <= 0) {
+			return builder.apply(job);
+		}
+		String key = job.getFullName() + '\n' + Jenkins.getAuthentication().getName();
+		long version = configurationVersion.get();
+		long now = System.currentTimeMillis();
+		synchronized (structures) {
+			Entry entry = structures.get(key);
+			if (entry != null && entry.job == job && now - entry.created < TTL_MILLIS) {
+				return dtoFactory.dtoFromJson(entry.structure, PipelineNode.class);
+			}
+		}
+
+		Set<String> included = new HashSet<>();
+		Set<String> outerIncluded = includedJobs.get();
+		includedJobs.set(included);
+		PipelineNode structure;
+		try {
+			structure = builder.apply(job);
+		} finally {
+			includedJobs.set(outerIncluded);
+		}
+		String serialized = dtoFactory.dtoToJson(structure);
+		synchronized (structures) {
+			//configuration changed while building, the structure may be outdated already
+			if (configurationVersion.get() == version) {
+				structures.put(key, new Entry(job, now, included, serialized));
+			}
+		}
+		return structure;
+	}
+
+	/**
+	 * to be called for every job the structure being built includes
+	 */
+	static void included(Job job) {
+		Set<String> included = includedJobs.get();
+		if (included != null) {
+			included.add(job.getFullName());
+		}
+	}
+
+	/**
+	 * drops structures including the item, or any job within it when it is a folder
+	 */
+	static void invalidate(String itemFullName) {
+		configurationVersion.incrementAndGet();
+		String descendantsPrefix = itemFullName + '/';
+		synchronized (structures) {
+			structures.values().removeIf(entry -> {
+				for (String jobName : entry.includedJobs) {
+					if (jobName.equals(itemFullName) || jobName.startsWith(descendantsPrefix)) {
+						return true;
+					}
+				}
+				return false;
+			});
+		}
+	}
+
+	static void invalidateAll() {
+		configurationVersion.incrementAndGet();
+		synchronized (structures) {
+			structures.clear();
+		}
+	}
+
+	private static final class Entry {
+		private final Job job;
+		private final long created;
+		private final Set<String> includedJobs;
+		private final String structure;
+
+		private Entry(Job job, long created, Set<String> includedJobs, String structure) {
+			this.job = job;
+			this.created = created;
+			this.includedJobs = includedJobs;
+			this.structure = structure;
+		}
+	}
+
+	@Extension
+	public static final class ItemsWatcher extends ItemListener {
+		@Override
+		public void onLoaded() {
+			invalidateAll();
+		}
+
+		@Override
+		public void onCreated(Item item) {
+			invalidateAll();
+		}
+
+		@Override
+		public void onCopied(Item src, Item item) {
+			invalidateAll();
+		}
+
+		@Override
+		public void onUpdated(Item item) {
+			invalidate(item.getFullName());
+		}
+
+		@Override
+		public void onDeleted(Item item) {
+			invalidate(item.getFullName());
+		}
+
+		@Override
+		public void onLocationChanged(Item item, String oldFullName, String newFullName) {
+			invalidate(oldFullName);
+		}
+	}
+
+	/**
+	 * Configuration saved without an item event, e.g. through API, or permissions changed in global configuration
+	 */
+	@Extension
+	public static final class ConfigurationWatcher extends SaveableListener {
+		@Override
+		public void onChange(Saveable o, XmlFile file) {
+			if (o instanceof Item) {
+				invalidate(((Item) o).getFullName());
+			} else if (o instanceof Jenkins) {
+				invalidateAll();
+			}
+		}
+	}
+}
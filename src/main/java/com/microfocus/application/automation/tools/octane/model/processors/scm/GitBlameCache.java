@@ -0,0 +1,300 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.model.processors.scm;
+
+import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
+import org.apache.logging.log4j.Logger;
+import org.eclipse.jgit.blame.BlameResult;
+import org.eclipse.jgit.diff.*;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectLoader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.PathFilter;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Blame results kept in the .git directory of the workspace, on the node where the line enricher runs.
+ * An entry is keyed by the file path, the last commit that modified the file and the blob id of the file in that commit:
+ * blame of a file from HEAD equals the blame from that commit, so the entry stays valid until the file changes again.
+ * Once it does, the new blame is derived from the entry of the previous version and the diff of the two versions,
+ * see {@link #getFromParent(Key)}.
+ */
+final class GitBlameCache {
+	private static final Logger logger = SDKBasedLoggerProvider.getLogger(GitBlameCache.class);
+
+	static final String CACHE_DIR_NAME = "octane-blame-cache";
+	private static final String FORMAT_VERSION = "v2";
+	private static final int MAX_ENTRIES = Integer.getInteger("octane.scm.blame.cache.size", 20000);
+
+	//the algorithm blame diffs a commit against its parent with
+	private static final DiffAlgorithm DIFF_ALGORITHM = new HistogramDiff();
+
+	private final Repository repo;
+	private final File cacheDir;
+	private final int maxEntries;
+	private volatile boolean written;
+
+	private GitBlameCache(Repository repo, int maxEntries) {
+		this.repo = repo;
+		this.cacheDir = new File(repo.getDirectory(), CACHE_DIR_NAME);
+		this.maxEntries = maxEntries;
+	}
+
+	static GitBlameCache of(Repository repo) {
+		return new GitBlameCache(repo, MAX_ENTRIES);
+	}
+
+	static GitBlameCache of(Repository repo, int maxEntries) {
+		return new GitBlameCache(repo, maxEntries);
+	}
+
+	/**
+	 * @return key of the file as seen from the start commit, null if the file does not exist there
+	 */
+	Key keyOf(ObjectId startCommit, String filePath) throws IOException {
+		try (RevWalk walk = new RevWalk(repo)) {
+			walk.setTreeFilter(AndTreeFilter.create(PathFilter.create(filePath), TreeFilter.ANY_DIFF));
+			walk.markStart(walk.parseCommit(startCommit));
+			RevCommit lastModified = walk.next();
+			if (lastModified == null) {
+				return null;
+			}
+			try (TreeWalk treeWalk = TreeWalk.forPath(repo, filePath, lastModified.getTree())) {
+				if (treeWalk == null) {
+					return null;
+				}
+				return new Key(filePath, lastModified.getId(), treeWalk.getObjectId(0));
+			}
+		}
+	}
+
+	/**
+	 * @return cached blame ranges, null if the key is not cached
+	 */
+	List<BlameRange> get(Key key) {
+		File entry = new File(cacheDir, key.getEntryName());
+		if (!entry.isFile()) {
+			return null;
+		}
+		try (BufferedReader reader = Files.newBufferedReader(entry.toPath(), StandardCharsets.UTF_8)) {
+			if (!FORMAT_VERSION.equals(reader.readLine()) || !key.path.equals(reader.readLine())) {
+				return null;
+			}
+			List<BlameRange> ranges = new ArrayList<>();
+			String line;
+			while ((line = reader.readLine()) != null) {
+				String[] parts = line.split(" ");
+				ranges.add(new BlameRange(parts[0], Integer.parseInt(parts[1]), Integer.parseInt(parts[2])));
+			}
+			if (!entry.setLastModified(System.currentTimeMillis())) {
+				logger.debug("failed to touch blame cache entry " + entry);
+			}
+			return ranges;
+		} catch (IOException | RuntimeException e) {
+			logger.warn("failed to read blame cache entry " + entry + ", entry will be recalculated: " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * derives the blame of a file modified by a single parent commit from the cached blame of the file in the parent:
+	 * lines out of the diff of the two versions keep the revision of the parent line, the rest belong to the commit.
+	 * This is what blame does on such a commit, with the same diff algorithm.
+	 *
+	 * @return blame ranges of the key, null if the commit is a merge or the root, the file is missing in the parent
+	 * (added or renamed) or the blame of the parent is not cached
+	 */
+	List<BlameRange> getFromParent(Key key) throws IOException {
+		RevCommit commit;
+		try (RevWalk walk = new RevWalk(repo)) {
+			commit = walk.parseCommit(key.commitId);
+		}
+		if (commit.getParentCount() != 1) {
+			return null;
+		}
+		Key parentKey = keyOf(commit.getParent(0), key.path);
+		List<BlameRange> parentRanges = parentKey != null ? get(parentKey) : null;
+		if (parentRanges == null) {
+			return null;
+		}
+		RawText parentText = readText(parentKey.blobId);
+		RawText text = readText(key.blobId);
+		String[] parentRevisions = parentText != null ? toLineRevisions(parentRanges, parentText.size()) : null;
+		if (parentRevisions == null || text == null) {
+			return null;
+		}
+
+		String[] revisions = new String[text.size()];
+		int line = 0;
+		int parentLine = 0;
+		for (Edit edit : DIFF_ALGORITHM.diff(RawTextComparator.DEFAULT, parentText, text)) {
+			while (line < edit.getBeginB()) {
+				revisions[line++] = parentRevisions[parentLine++];
+			}
+			while (line < edit.getEndB()) {
+				revisions[line++] = commit.getName();
+			}
+			parentLine = edit.getEndA();
+		}
+		while (line < revisions.length) {
+			revisions[line++] = parentRevisions[parentLine++];
+		}
+		return toRanges(revisions);
+	}
+
+	private RawText readText(ObjectId blobId) throws IOException {
+		ObjectLoader loader = repo.open(blobId, Constants.OBJ_BLOB);
+		return loader.isLarge() ? null : new RawText(loader.getCachedBytes());
+	}
+
+	/**
+	 * @return ranges of the consecutive lines of the same revision, covering the whole file
+	 */
+	static List<BlameRange> toRanges(BlameResult blameResult) {
+		String[] revisions = new String[blameResult.getResultContents().size()];
+		for (int i = 0; i < revisions.length; i++) {
+			revisions[i] = blameResult.getSourceCommit(i).getName();
+		}
+		return toRanges(revisions);
+	}
+
+	private static List<BlameRange> toRanges(String[] lineRevisions) {
+		List<BlameRange> ranges = new ArrayList<>();
+		int start = 0;
+		for (int i = 1; i <= lineRevisions.length; i++) {
+			if (i == lineRevisions.length || !lineRevisions[i].equals(lineRevisions[start])) {
+				ranges.add(new BlameRange(lineRevisions[start], start + 1, i));//line numbers starting from 1 not from 0.
+				start = i;
+			}
+		}
+		return ranges;
+	}
+
+	/**
+	 * @return revision of each line, null if the ranges do not cover exactly the given number of lines
+	 */
+	private static String[] toLineRevisions(List<BlameRange> ranges, int lines) {
+		String[] revisions = new String[lines];
+		int line = 0;
+		for (BlameRange range : ranges) {
+			if (range.start != line + 1 || range.end < range.start || range.end > lines) {
+				return null;
+			}
+			while (line < range.end) {
+				revisions[line++] = range.revision;
+			}
+		}
+		return line == lines ? revisions : null;
+	}
+
+	void put(Key key, List<BlameRange> ranges) {
+		File tmp = null;
+		try {
+			Files.createDirectories(cacheDir.toPath());
+			tmp = File.createTempFile(key.getEntryName(), ".tmp", cacheDir);
+			try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8))) {
+				writer.write(FORMAT_VERSION + "\n");
+				writer.write(key.path + "\n");
+				for (BlameRange range : ranges) {
+					writer.write(range.revision + " " + range.start + " " + range.end + "\n");
+				}
+			}
+			Files.move(tmp.toPath(), new File(cacheDir, key.getEntryName()).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			written = true;
+		} catch (IOException e) {
+			logger.warn("failed to store blame cache entry of " + key.path + ": " + e.getMessage());
+		} finally {
+			if (tmp != null && tmp.exists() && !tmp.delete()) {
+				logger.debug("failed to delete " + tmp);
+			}
+		}
+	}
+
+	/**
+	 * removes the least recently used entries above the size limit; the cache only grows by put, so without it
+	 * there is nothing to do
+	 */
+	void prune() {
+		if (!written) {
+			return;
+		}
+		File[] entries = cacheDir.listFiles();
+		if (entries == null || entries.length <= maxEntries) {
+			return;
+		}
+		//each timestamp is read once, a comparator reading them would stat every file on every comparison
+		List<AbstractMap.SimpleImmutableEntry<File, Long>> byAge = new ArrayList<>(entries.length);
+		for (File entry : entries) {
+			byAge.add(new AbstractMap.SimpleImmutableEntry<>(entry, entry.lastModified()));
+		}
+		byAge.sort(Map.Entry.comparingByValue());
+		for (int i = 0; i < byAge.size() - maxEntries; i++) {
+			File entry = byAge.get(i).getKey();
+			if (!entry.delete()) {
+				logger.debug("failed to delete blame cache entry " + entry);
+			}
+		}
+	}
+
+	static final class Key {
+		private final String path;
+		private final ObjectId commitId;
+		private final ObjectId blobId;
+
+		Key(String path, ObjectId commitId, ObjectId blobId) {
+			this.path = path;
+			this.commitId = commitId;
+			this.blobId = blobId;
+		}
+
+		ObjectId getBlobId() {
+			return blobId;
+		}
+
+		String getEntryName() {
+			byte[] pathHash = Constants.newMessageDigest().digest(path.getBytes(StandardCharsets.UTF_8));
+			return ObjectId.fromRaw(pathHash).getName() + "-" + commitId.getName() + "-" + blobId.getName();
+		}
+	}
+
+	static final class BlameRange {
+		final String revision;
+		final int start;
+		final int end;
+
+		BlameRange(String revision, int start, int end) {
+			this.revision = revision;
+			this.start = start;
+			this.end = end;
+		}
+	}
+}
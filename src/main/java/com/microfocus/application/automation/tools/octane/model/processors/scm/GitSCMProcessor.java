@@ -45,15 +45,15 @@ import jenkins.MasterToSlaveFileCallable;
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.reflect.FieldUtils;
 import org.apache.logging.log4j.Logger;
-import org.eclipse.jgit.api.BlameCommand;
 import org.eclipse.jgit.api.Git;
-import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.blame.BlameGenerator;
 import org.eclipse.jgit.blame.BlameResult;
 import org.eclipse.jgit.diff.*;
 import org.eclipse.jgit.errors.NoMergeBaseException;
 import org.eclipse.jgit.internal.JGitText;
 import org.eclipse.jgit.lib.Constants;
 import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectLoader;
 import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevWalk;
@@ -63,8 +63,12 @@ import org.jenkinsci.plugins.workflow.job.WorkflowRun;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Serializable;
 import java.text.MessageFormat;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Created by gullery on 31/03/2015.
@@ -74,6 +78,22 @@ class GitSCMProcessor implements SCMProcessor {
 	private static final Logger logger = SDKBasedLoggerProvider.getLogger(GitSCMProcessor.class);
 	private static final DTOFactory dtoFactory = DTOFactory.getInstance();
 	private static final String MASTER = "refs/remotes/origin/master";
+	private static final SCMFileBlame SKIPPED_BLAME = new SCMFileBlameImpl(null, null);
+	private static final int LINE_ENRICHER_THREADS = Integer.getInteger("octane.scm.enrichment.threads", 4);
+	private static final long LINE_ENRICHER_TIME_BUDGET_SECONDS = Long.getLong("octane.scm.enrichment.timeout.seconds", 300);
+	private static final long LINE_ENRICHER_TERMINATION_GRACE_SECONDS = 5;
+	private final int maxCommits;
+	private final int maxFilesPerCommit;
+	private boolean truncated = false;
+
+	GitSCMProcessor() {
+		this(SCMDataLimits.MAX_COMMITS, SCMDataLimits.MAX_FILES_PER_COMMIT);
+	}
+
+	GitSCMProcessor(int maxCommits, int maxFilesPerCommit) {
+		this.maxCommits = maxCommits;
+		this.maxFilesPerCommit = maxFilesPerCommit;
+	}
 
 	@Override
 	public SCMData getSCMData(AbstractBuild build, SCM scm) {
@@ -93,11 +113,23 @@ class GitSCMProcessor implements SCMProcessor {
 	 * @param build   build context
 	 */
 	private SCMData enrichLinesOnSCMData(SCMData scmData, AbstractBuild build) {
+		if (!build.isBuilding()) {
+			//workspace of a finished build may be used by another build or its node may be gone
+			logger.warn("Line enricher: skipped, " + build + " no longer owns its workspace");
+			return scmData;
+		}
 		long startTime = System.currentTimeMillis();
 		try {
 			FilePath workspace = build.getWorkspace();
 			if (workspace != null) {
-				scmData = workspace.act(new LineEnricherCallable(getCheckoutDir(build), scmData));
+				LineEnrichment enrichment = workspace.act(new LineEnricherCallable(getCheckoutDir(build), scmData,
+						LINE_ENRICHER_THREADS, TimeUnit.SECONDS.toMillis(LINE_ENRICHER_TIME_BUDGET_SECONDS), SCMDataLimits.MAX_LINES_PER_FILE));
+				if (enrichment != null) {
+					scmData = enrichment.scmData;
+					truncated |= enrichment.truncated;
+				} else {
+					scmData = null;
+				}
 				logger.info("Line enricher: process took: " + ((System.currentTimeMillis() - startTime) / 1000) + " seconds");
 			} else {
 				logger.warn("Line enricher: workspace is null");
@@ -113,6 +145,11 @@ class GitSCMProcessor implements SCMProcessor {
 		return extractSCMData(run, scm, run.getChangeSets());
 	}
 
+	@Override
+	public boolean isTruncated() {
+		return truncated;
+	}
+
 	@Override
 	public CommonOriginRevision getCommonOriginRevision(final Run run) {
 		//for phase 1 this is hard coded since its not possible to calculate it, and configuration from outside will complicate the feature
@@ -218,14 +255,23 @@ class GitSCMProcessor implements SCMProcessor {
 		return result;
 	}
 
-	private List<SCMCommit> extractCommits(List<ChangeLogSet<? extends ChangeLogSet.Entry>> changes) {
+	List<SCMCommit> extractCommits(List<ChangeLogSet<? extends ChangeLogSet.Entry>> changes) {
 		List<SCMCommit> commits = new LinkedList<>();
 		for (ChangeLogSet<? extends ChangeLogSet.Entry> set : changes) {
 			for (ChangeLogSet.Entry change : set) {
 				if (change instanceof GitChangeSet) {
+					if (SCMDataLimits.isReached(commits.size(), maxCommits)) {
+						logger.warn("SCM data limited to " + maxCommits + " commits");
+						truncated = true;
+						return commits;
+					}
 					GitChangeSet commit = (GitChangeSet) change;
 					List<SCMChange> tmpChanges = new ArrayList<>();
 					for (GitChangeSet.Path item : commit.getAffectedFiles()) {
+						if (SCMDataLimits.isReached(tmpChanges.size(), maxFilesPerCommit)) {
+							truncated = true;
+							break;
+						}
 						SCMChange tmpChange = dtoFactory.newDTO(SCMChange.class)
 								.setType(item.getEditType().getName())
 								.setFile(item.getPath());
@@ -338,81 +384,240 @@ class GitSCMProcessor implements SCMProcessor {
 		}
 	}
 
-	/*line enricher running on the same jenkins node that the job is running in it*/
-	private static final class LineEnricherCallable extends MasterToSlaveFileCallable<SCMData> {
+	/*line enricher running on the same jenkins node that the job is running in it;
+	blame of each file and diff of each commit run in parallel, within the time budget*/
+	static final class LineEnricherCallable extends MasterToSlaveFileCallable<LineEnrichment> {
 		private final String checkoutDir;
 		private final SCMData scmData;
+		private final int threads;
+		private final long timeBudgetMillis;
+		private final int maxLinesPerFile;
 
-		private LineEnricherCallable(String checkoutDir, SCMData scmData) {
+		LineEnricherCallable(String checkoutDir, SCMData scmData, int threads, long timeBudgetMillis, int maxLinesPerFile) {
 			this.checkoutDir = checkoutDir;
 			this.scmData = scmData;
+			this.threads = Math.max(1, threads);
+			this.timeBudgetMillis = timeBudgetMillis;
+			this.maxLinesPerFile = maxLinesPerFile;
 		}
 
 		@Override
-		public SCMData invoke(File rootDir, VirtualChannel channel) throws IOException {
+		public LineEnrichment invoke(File rootDir, VirtualChannel channel) throws IOException {
 			File repoDir = new File(rootDir, checkoutDir + File.separator + ".git");
-			try (Git git = Git.open(repoDir);
-			     Repository repo = git.getRepository()) {
-				if (repo == null) {
-					return null;
+			Git git = Git.open(repoDir);
+			Repository repo = git.getRepository();
+			long deadline = timeBudgetMillis > 0 ? System.currentTimeMillis() + timeBudgetMillis : Long.MAX_VALUE;
+			ExecutorService executor = Executors.newFixedThreadPool(threads, LineEnricherCallable::newThread);
+			GitBlameCache blameCache = GitBlameCache.of(repo);
+			AtomicBoolean truncated = new AtomicBoolean(false);
+			try {
+				List<Future<List<FileDiff>>> commitsDiffs = new ArrayList<>();
+				for (SCMCommit curCommit : scmData.getCommits()) {
+					commitsDiffs.add(executor.submit(() -> getDiffs(repo, curCommit.getRevId())));
+				}
+
+				//built revision rather than HEAD, as the workspace may have moved on since checkout
+				ObjectId blameStartId = repo.resolve(scmData.getBuiltRevId() != null ? scmData.getBuiltRevId() : Constants.HEAD);
+				List<Future<SCMFileBlame>> filesBlames = new ArrayList<>();
+				if (blameStartId != null) {
+					for (String filePath : new TreeSet<>(getAddedOrEditedFiles(scmData))) {
+						filesBlames.add(executor.submit(() -> getBlameData(repo, blameCache, blameStartId, filePath, maxLinesPerFile, truncated)));
+					}
+				} else {
+					logger.error("failed to resolve built revision " + scmData.getBuiltRevId());
 				}
 
-				try (RevWalk rw = new RevWalk(repo);
-				     DiffFormatter df = new DiffFormatter(DisabledOutputStream.INSTANCE)) {
-					df.setDiffComparator(RawTextComparator.DEFAULT);
-					df.setRepository(repo);
-					df.setDetectRenames(true);
-
-					//add blame data to scm data
-					Set<String> committedFiles = getAddedOrEditedFiles(scmData);
-					List<SCMFileBlame> fileBlameList = getBlameData(repo, committedFiles);
-					scmData.setFileBlameList(fileBlameList);
-
-					for (SCMCommit curCommit : scmData.getCommits()) {
-						Map<String, SCMChange> fileChanges = new HashMap<>();
-						curCommit.getChanges().forEach(change -> fileChanges.put(change.getFile(), change));
-						RevCommit commit = rw.parseCommit(repo.resolve(curCommit.getRevId())); // Any ref will work here (HEAD, a sha1, tag, branch)
-						RevCommit parent = rw.parseCommit(commit.getParent(0).getId());
-
-						List<DiffEntry> diffs = df.scan(parent.getTree(), commit.getTree());
-						// FOR EACH FILE
-						for (DiffEntry diff : diffs) { // each file change will be in seperate diff
-							EditList fileEdits = df.toFileHeader(diff).toEditList();
-							switch (diff.getChangeType()) {
-								case ADD:
-									// old path == null, need to use new path
-									handleAddLinesDiff(fileEdits, fileChanges.get(diff.getNewPath()));
-									break;
-								case COPY:
-									// need to validate this type
-									handleModifyDiff(fileEdits, fileChanges.get(diff.getNewPath()));
-									break;
-								case DELETE:
-									// new path == null, need to use old path
-									handleDeleteLinesDiff(fileEdits, fileChanges.get(diff.getOldPath()));
-									break;
-								case MODIFY:
-									handleModifyDiff(fileEdits, fileChanges.get(diff.getNewPath()));
-									break;
-								case RENAME:
-									// enrich delete event with 'rename to' data
-									SCMChange deletedChange = fileChanges.get(diff.getOldPath());
-									SCMChange newRenamedFile = fileChanges.get(diff.getNewPath());
-									deletedChange.setRenamedToFile(newRenamedFile.getFile());
-									// handle changes
-									handleModifyDiff(fileEdits, fileChanges.get(diff.getNewPath()));
-									break;
-								default:
-									break;
-							}
+				//results are merged in commits and files order, whatever order the tasks completed in
+				int skipped = 0;
+				for (int i = 0; i < commitsDiffs.size(); i++) {
+					List<FileDiff> diffs = await(commitsDiffs.get(i), deadline);
+					if (diffs != null) {
+						if (applyDiffs(scmData.getCommits().get(i), diffs, maxLinesPerFile)) {
+							truncated.set(true);
 						}
+					} else {
+						skipped++;
 					}
-					return scmData;
 				}
+
+				//add blame data to scm data
+				List<SCMFileBlame> fileBlameList = new ArrayList<>();
+				for (Future<SCMFileBlame> fileBlame : filesBlames) {
+					SCMFileBlame blame = await(fileBlame, deadline);
+					if (blame == SKIPPED_BLAME) {
+						continue;
+					}
+					if (blame != null) {
+						fileBlameList.add(blame);
+					} else {
+						skipped++;
+					}
+				}
+				scmData.setFileBlameList(fileBlameList);
+
+				if (skipped > 0) {
+					logger.warn("Line enricher: " + skipped + " out of " + (commitsDiffs.size() + filesBlames.size()) +
+							" commit diffs and file blames are missing, failed or did not complete in " + timeBudgetMillis + " ms");
+				}
+				if (truncated.get()) {
+					logger.warn("Line enricher: line data limited to " + maxLinesPerFile + " lines per file");
+				}
+				return new LineEnrichment(scmData, truncated.get());
+			} finally {
+				//cancelled tasks stop between two files or commits, yet still use the repository and the cache until then:
+				//both are closed and pruned only once the tasks are gone
+				executor.shutdownNow();
+				if (awaitTermination(executor, LINE_ENRICHER_TERMINATION_GRACE_SECONDS)) {
+					release(git, blameCache);
+				} else {
+					logger.warn("Line enricher: cancelled tasks did not stop within " + LINE_ENRICHER_TERMINATION_GRACE_SECONDS +
+							" seconds, repository is closed once they stop");
+					Thread releaser = newThread(() -> {
+						awaitTermination(executor, Long.MAX_VALUE);
+						release(git, blameCache);
+					});
+					releaser.start();
+				}
+			}
+		}
+
+		private static boolean awaitTermination(ExecutorService executor, long seconds) {
+			try {
+				return executor.awaitTermination(seconds, TimeUnit.SECONDS);
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+
+		private static void release(Git git, GitBlameCache blameCache) {
+			blameCache.prune();
+			git.close();
+		}
+
+		private static Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "Octane line enricher");
+			thread.setDaemon(true);
+			return thread;
+		}
+
+		/**
+		 * @return task result, null if the task failed or did not complete before the deadline (it is then cancelled)
+		 */
+		static <T> T await(Future<T> task, long deadline) throws InterruptedIOException {
+			try {
+				return task.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+			} catch (TimeoutException te) {
+				task.cancel(true);
+				return null;
+			} catch (ExecutionException ee) {
+				logger.error("Line enricher: task failed", ee.getCause());
+				return null;
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("line enrichment interrupted");
+			}
+		}
+	}
+
+	static final class LineEnrichment implements Serializable {
+		final SCMData scmData;
+		final boolean truncated;
+
+		private LineEnrichment(SCMData scmData, boolean truncated) {
+			this.scmData = scmData;
+			this.truncated = truncated;
+		}
+	}
+
+	private static final class FileDiff {
+		private final DiffEntry entry;
+		private final EditList edits;
+
+		private FileDiff(DiffEntry entry, EditList edits) {
+			this.entry = entry;
+			this.edits = edits;
+		}
+	}
+
+	private static List<FileDiff> getDiffs(Repository repo, String revId) throws IOException {
+		try (RevWalk rw = new RevWalk(repo);
+		     DiffFormatter df = new DiffFormatter(DisabledOutputStream.INSTANCE)) {
+			df.setDiffComparator(RawTextComparator.DEFAULT);
+			df.setRepository(repo);
+			df.setDetectRenames(true);
+
+			RevCommit commit = rw.parseCommit(repo.resolve(revId)); // Any ref will work here (HEAD, a sha1, tag, branch)
+			RevCommit parent = rw.parseCommit(commit.getParent(0).getId());
+
+			List<FileDiff> fileDiffs = new ArrayList<>();
+			for (DiffEntry diff : df.scan(parent.getTree(), commit.getTree())) { // each file change will be in seperate diff
+				checkCancelled();
+				fileDiffs.add(new FileDiff(diff, df.toFileHeader(diff).toEditList()));
 			}
+			return fileDiffs;
 		}
 	}
 
+	/**
+	 * @return true if line data of some file was cut at the lines limit
+	 */
+	private static boolean applyDiffs(SCMCommit curCommit, List<FileDiff> fileDiffs, int maxLinesPerFile) {
+		boolean truncated = false;
+		Map<String, SCMChange> fileChanges = new HashMap<>();
+		curCommit.getChanges().forEach(change -> fileChanges.put(change.getFile(), change));
+		// FOR EACH FILE
+		for (FileDiff fileDiff : fileDiffs) {
+			DiffEntry diff = fileDiff.entry;
+			EditList fileEdits = limitEdits(fileDiff.edits, maxLinesPerFile);
+			truncated |= fileEdits.size() < fileDiff.edits.size();
+			switch (diff.getChangeType()) {
+				case ADD:
+					// old path == null, need to use new path
+					handleAddLinesDiff(fileEdits, fileChanges.get(diff.getNewPath()));
+					break;
+				case COPY:
+					// need to validate this type
+					handleModifyDiff(fileEdits, fileChanges.get(diff.getNewPath()));
+					break;
+				case DELETE:
+					// new path == null, need to use old path
+					handleDeleteLinesDiff(fileEdits, fileChanges.get(diff.getOldPath()));
+					break;
+				case MODIFY:
+					handleModifyDiff(fileEdits, fileChanges.get(diff.getNewPath()));
+					break;
+				case RENAME:
+					// enrich delete event with 'rename to' data
+					SCMChange deletedChange = fileChanges.get(diff.getOldPath());
+					SCMChange newRenamedFile = fileChanges.get(diff.getNewPath());
+					deletedChange.setRenamedToFile(newRenamedFile.getFile());
+					// handle changes
+					handleModifyDiff(fileEdits, fileChanges.get(diff.getNewPath()));
+					break;
+				default:
+					break;
+			}
+		}
+		return truncated;
+	}
+
+	static EditList limitEdits(EditList edits, int maxLines) {
+		if (maxLines <= 0) {
+			return edits;
+		}
+		EditList limited = new EditList();
+		int lines = 0;
+		for (Edit edit : edits) {
+			lines += edit.getLengthA() + edit.getLengthB();
+			if (lines > maxLines) {
+				break;
+			}
+			limited.add(edit);
+		}
+		return limited;
+	}
+
 	private static Set<String> getAddedOrEditedFiles(SCMData scmData) {
 		Set<String> filesCommittedInPPR = new HashSet<>();
 		for (SCMCommit curCommit : scmData.getCommits()) {
@@ -421,45 +626,65 @@ class GitSCMProcessor implements SCMProcessor {
 		return filesCommittedInPPR;
 	}
 
-	private static List<SCMFileBlame> getBlameData(Repository repo, Set<String> files) {
-		BlameCommand blamer = new BlameCommand(repo);
-		List<SCMFileBlame> fileBlameList = new ArrayList<>();
-		ObjectId commitID;
-		try {
-			commitID = repo.resolve(Constants.HEAD);
-			for (String filePath : files) {
-				blamer.setStartCommit(commitID);
-				blamer.setFilePath(filePath);
-				BlameResult blameResult = blamer.call();
+	/**
+	 * @return blame of the file, SKIPPED_BLAME if there is none to report: the file is longer than the lines limit
+	 * (truncated flag is set then) or blame did not find it
+	 */
+	static SCMFileBlame getBlameData(Repository repo, GitBlameCache blameCache, ObjectId commitID, String filePath,
+	                                 int maxLinesPerFile, AtomicBoolean truncated) throws IOException {
+		checkCancelled();
+		GitBlameCache.Key cacheKey = blameCache.keyOf(commitID, filePath);
+		if (cacheKey != null && maxLinesPerFile > 0 && !hasLinesWithin(repo, cacheKey.getBlobId(), maxLinesPerFile)) {
+			truncated.set(true);
+			return SKIPPED_BLAME;
+		}
+		List<GitBlameCache.BlameRange> ranges = cacheKey != null ? blameCache.get(cacheKey) : null;
+		if (ranges == null && cacheKey != null) {
+			ranges = blameCache.getFromParent(cacheKey);
+			if (ranges != null) {
+				blameCache.put(cacheKey, ranges);
+			}
+		}
+		if (ranges == null) {
+			try (BlameGenerator generator = new BlameGenerator(repo, filePath)) {
+				generator.push(null, commitID);
+				BlameResult blameResult = BlameResult.create(generator);
 				if (blameResult == null) {
-					continue;
+					return SKIPPED_BLAME;
 				}
-				RawText rawText = blameResult.getResultContents();
-				int fileSize = rawText.size();
-
-				RevisionsMap revisionsMap = new RevisionsMap();
-
-				if (fileSize > 0) {
-					String startRangeRevision = blameResult.getSourceCommit(0).getName();
-					int startRange = 1;
-					for (int i = 1; i < fileSize; i++) {
-						String currentRevision = blameResult.getSourceCommit(i).getName();
-						if (!currentRevision.equals(startRangeRevision)) {
-							LineRange range = new LineRange(startRange, i);//line numbers starting from 1 not from 0.
-							revisionsMap.addRangeToRevision(startRangeRevision, range);
-							startRange = i + 1;
-							startRangeRevision = currentRevision;
-						}
-					}
+				//blame walks the history of the file one commit at a time, a cancelled task stops in between
+				while (blameResult.computeNext() != -1) {
+					checkCancelled();
 				}
-				fileBlameList.add(new SCMFileBlameImpl(filePath, revisionsMap));
+				ranges = GitBlameCache.toRanges(blameResult);
+			}
+			if (cacheKey != null) {
+				blameCache.put(cacheKey, ranges);
 			}
-		} catch (IOException e) {
-			logger.error("failed to resolve repo head", e);
-		} catch (GitAPIException e) {
-			logger.error("failed to get blame result from git", e);
 		}
-		return fileBlameList;
+
+		RevisionsMap revisionsMap = new RevisionsMap();
+		for (GitBlameCache.BlameRange range : ranges) {
+			revisionsMap.addRangeToRevision(range.revision, new LineRange(range.start, range.end));
+		}
+		return new SCMFileBlameImpl(filePath, revisionsMap);
+	}
+
+	/**
+	 * JGit does not check for interruption, so the tasks a deadline or a shutdown cancelled check it themselves
+	 */
+	private static void checkCancelled() throws InterruptedIOException {
+		if (Thread.currentThread().isInterrupted()) {
+			throw new InterruptedIOException("line enrichment task cancelled");
+		}
+	}
+
+	static boolean hasLinesWithin(Repository repo, ObjectId blobId, int maxLines) throws IOException {
+		ObjectLoader loader = repo.open(blobId, Constants.OBJ_BLOB);
+		if (loader.isLarge()) {
+			return false;
+		}
+		return new RawText(loader.getCachedBytes()).size() <= maxLines;
 	}
 
 	private static void handleModifyDiff(EditList fileEdits, SCMChange scmChange) {
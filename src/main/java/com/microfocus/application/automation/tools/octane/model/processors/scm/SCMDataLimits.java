@@ -0,0 +1,39 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.model.processors.scm;
+
+/**
+ * Upper bounds of SCM data sent to Octane, so a merge of a long-lived branch does not produce unbounded payload and blame work;
+ * 0 or less means no limit
+ */
+final class SCMDataLimits {
+	static final int MAX_COMMITS = Integer.getInteger("octane.scm.max.commits", 1000);
+	static final int MAX_FILES_PER_COMMIT = Integer.getInteger("octane.scm.max.files.per.commit", 1000);
+	static final int MAX_LINES_PER_FILE = Integer.getInteger("octane.scm.max.lines.per.file", 10000);
+
+	private SCMDataLimits() {
+		//for code climate
+	}
+
+	static boolean isReached(int count, int limit) {
+		return limit > 0 && count >= limit;
+	}
+}
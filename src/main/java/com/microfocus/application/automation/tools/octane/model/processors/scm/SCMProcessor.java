@@ -37,4 +37,11 @@ public interface SCMProcessor {
     SCMData getSCMData(WorkflowRun run, SCM scm);
 
     CommonOriginRevision getCommonOriginRevision(Run run);
+
+    /**
+     * @return true if SCM data extracted by this processor instance was cut at one of the SCM data limits
+     */
+    default boolean isTruncated() {
+        return false;
+    }
 }
@@ -1,5 +1,8 @@
 package com.microfocus.application.automation.tools.octane.model.processors.scm;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.hp.octane.integrations.dto.DTOFactory;
 import com.hp.octane.integrations.dto.scm.SCMData;
 import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
@@ -20,6 +23,7 @@ public class SCMUtils {
     private static final Logger logger = SDKBasedLoggerProvider.getLogger(SCMUtils.class);
 
     private static final String SCM_DATA_FILE = "scmdata.json";
+    private static final String TRUNCATED_FIELD = "truncated";
     private static final DTOFactory dtoFactory = DTOFactory.getInstance();
 
     private SCMUtils() {
@@ -42,11 +46,12 @@ public class SCMUtils {
         return result;
     }
 
-    public static void persistSCMData(Run run, String jobCiId, String buildCiId, SCMData scmData) throws IOException, InterruptedException {
+    /**
+     * @param truncated true if SCM data was cut at the SCM data limits, it is then marked as such in the persisted content
+     */
+    public static void persistSCMData(Run run, String jobCiId, String buildCiId, SCMData scmData, boolean truncated) throws IOException, InterruptedException {
         FilePath resultFile = new FilePath(run.getRootDir()).child(SCM_DATA_FILE);
-        List<SCMData> scmDataList = new ArrayList<>();
-        scmDataList.add(scmData);
-        String scmDataContent = dtoFactory.dtoCollectionToJson(scmDataList);
+        String scmDataContent = toJson(scmData, truncated);
 
         try {
             resultFile.write(scmDataContent, "UTF-8");
@@ -56,6 +61,23 @@ public class SCMUtils {
         }
     }
 
+    /**
+     * SCM data DTO has no such attribute, so the truncated flag is added to its JSON;
+     * this content is what CIJenkinsServicesImpl.getSCMData serves when SCM data is pushed to Octane
+     */
+    static String toJson(SCMData scmData, boolean truncated) throws IOException {
+        List<SCMData> scmDataList = new ArrayList<>();
+        scmDataList.add(scmData);
+        String scmDataContent = dtoFactory.dtoCollectionToJson(scmDataList);
+        if (truncated && scmData != null) {
+            ObjectMapper mapper = new ObjectMapper();
+            ArrayNode content = (ArrayNode) mapper.readTree(scmDataContent);
+            ((ObjectNode) content.get(0)).put(TRUNCATED_FIELD, true);
+            scmDataContent = mapper.writeValueAsString(content);
+        }
+        return scmDataContent;
+    }
+
     public static InputStream getSCMData(Run run) throws IOException, InterruptedException {
         FilePath resultFile = new FilePath(run.getRootDir()).child(SCM_DATA_FILE);
         return resultFile.read();
@@ -50,6 +50,18 @@ class SvnSCMProcessor implements SCMProcessor {
 	private static final Logger logger = SDKBasedLoggerProvider.getLogger(SvnSCMProcessor.class);
 	private static final DTOFactory dtoFactory = DTOFactory.getInstance();
 	private static final int PARENT_COMMIT_INDEX = 1;
+	private final int maxCommits;
+	private final int maxFilesPerCommit;
+	private boolean truncated = false;
+
+	SvnSCMProcessor() {
+		this(SCMDataLimits.MAX_COMMITS, SCMDataLimits.MAX_FILES_PER_COMMIT);
+	}
+
+	SvnSCMProcessor(int maxCommits, int maxFilesPerCommit) {
+		this.maxCommits = maxCommits;
+		this.maxFilesPerCommit = maxFilesPerCommit;
+	}
 
 	@Override
 	public SCMData getSCMData(AbstractBuild build, SCM scm) {
@@ -68,6 +80,11 @@ class SvnSCMProcessor implements SCMProcessor {
 		return null;
 	}
 
+	@Override
+	public boolean isTruncated() {
+		return truncated;
+	}
+
 	private SCMData extractSCMData(Run run, SCM scm, List<ChangeLogSet<? extends ChangeLogSet.Entry>> changes) {
 		if (!(scm instanceof SubversionSCM)) {
 			throw new IllegalArgumentException("SubversionSCM type of SCM was expected here, found '" + scm.getClass().getName() + "'");
@@ -88,7 +105,7 @@ class SvnSCMProcessor implements SCMProcessor {
 				.setCommits(tmpCommits);
 	}
 
-	private List<SCMCommit> extractCommits(List<ChangeLogSet<? extends ChangeLogSet.Entry>> changes) {
+	List<SCMCommit> extractCommits(List<ChangeLogSet<? extends ChangeLogSet.Entry>> changes) {
 		List<SCMCommit> tmpCommits;
 		List<SCMChange> tmpChanges;
 		SCMChange tmpChange;
@@ -96,12 +113,21 @@ class SvnSCMProcessor implements SCMProcessor {
 		for (ChangeLogSet<? extends ChangeLogSet.Entry> set : changes) {
 			for (ChangeLogSet.Entry change : set) {
 				if (change instanceof SubversionChangeLogSet.LogEntry) {
+					if (SCMDataLimits.isReached(tmpCommits.size(), maxCommits)) {
+						logger.warn("SCM data limited to " + maxCommits + " commits");
+						truncated = true;
+						return tmpCommits;
+					}
 					SubversionChangeLogSet.LogEntry commit = (SubversionChangeLogSet.LogEntry) change;
 					User user = commit.getAuthor();
 					String userEmail = null;
 
 					tmpChanges = new ArrayList<>();
 					for (SubversionChangeLogSet.Path item : commit.getAffectedFiles()) {
+						if (SCMDataLimits.isReached(tmpChanges.size(), maxFilesPerCommit)) {
+							truncated = true;
+							break;
+						}
 						tmpChange = dtoFactory.newDTO(SCMChange.class)
 								.setType(item.getEditType().getName())
 								.setFile(item.getValue());
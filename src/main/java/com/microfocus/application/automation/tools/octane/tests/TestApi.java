@@ -20,7 +20,7 @@
 
 package com.microfocus.application.automation.tools.octane.tests;
 
-import hudson.FilePath;
+import com.microfocus.application.automation.tools.octane.tests.xml.TestResultFile;
 import hudson.model.AbstractBuild;
 import hudson.model.Item;
 import org.apache.commons.io.IOUtils;
@@ -29,6 +29,7 @@ import org.kohsuke.stapler.StaplerResponse;
 import org.kohsuke.stapler.export.Flavor;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -43,19 +44,66 @@ public class TestApi {
 
 	public void doXml(StaplerRequest req, StaplerResponse res) throws IOException, InterruptedException {
 		build.getACL().checkPermission(Item.READ);
-		serveFile(res, TestListener.TEST_RESULT_FILE, Flavor.XML);
+		serveFile(req, res, TestListener.TEST_RESULT_FILE, Flavor.XML);
 	}
 
-	private void serveFile(StaplerResponse res, String relativePath, Flavor flavor) throws IOException, InterruptedException {
-		FilePath file = new FilePath(new File(build.getRootDir(), relativePath));
+	private void serveFile(StaplerRequest req, StaplerResponse res, String relativePath, Flavor flavor) throws IOException, InterruptedException {
+		File file = new File(build.getRootDir(), relativePath);
 		if (!file.exists()) {
 			res.sendError(404, "Information not available");
 			return;
 		}
 		res.setStatus(200);
 		res.setContentType(flavor.contentType);
-		InputStream is = file.read();
-		IOUtils.copy(is, res.getOutputStream());
-		IOUtils.closeQuietly(is);
+		res.addHeader("Vary", "Accept-Encoding");
+		InputStream is;
+		if (TestResultFile.isCompressed(file) && acceptsGzip(req.getHeader("Accept-Encoding"))) {
+			//stored bytes are sent as is, client inflates them
+			res.setHeader("Content-Encoding", "gzip");
+			is = new FileInputStream(file);
+		} else {
+			is = TestResultFile.openXml(file);
+		}
+		try {
+			IOUtils.copy(is, res.getOutputStream());
+		} finally {
+			IOUtils.closeQuietly(is);
+		}
+	}
+
+	/**
+	 * @param acceptEncoding Accept-Encoding header value, null if there is none
+	 * @return true if gzip (or any coding via '*') is listed with non-zero quality value
+	 */
+	static boolean acceptsGzip(String acceptEncoding) {
+		if (acceptEncoding == null) {
+			return false;
+		}
+		Float gzipQuality = null;
+		Float anyQuality = null;
+		for (String element : acceptEncoding.split(",")) {
+			String[] parts = element.split(";");
+			String coding = parts[0].trim().toLowerCase();
+			float quality = 1;
+			for (int i = 1; i < parts.length; i++) {
+				String param = parts[i].trim().toLowerCase();
+				if (param.startsWith("q=")) {
+					try {
+						quality = Float.parseFloat(param.substring(2).trim());
+					} catch (NumberFormatException nfe) {
+						quality = 0;
+					}
+				}
+			}
+			if ("gzip".equals(coding) || "x-gzip".equals(coding)) {
+				gzipQuality = quality;
+			} else if ("*".equals(coding)) {
+				anyQuality = quality;
+			}
+		}
+		if (gzipQuality != null) {
+			return gzipQuality > 0;
+		}
+		return anyQuality != null && anyQuality > 0;
 	}
 }
@@ -21,19 +21,27 @@
 package com.microfocus.application.automation.tools.octane.tests;
 
 import com.hp.octane.integrations.OctaneSDK;
+import com.microfocus.application.automation.tools.octane.OrderedTaskExecutor;
 import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
-import com.microfocus.application.automation.tools.octane.tests.build.BuildHandlerUtils;
+import com.microfocus.application.automation.tools.octane.events.RunEventContext;
 import com.microfocus.application.automation.tools.octane.tests.xml.TestResultXmlWriter;
 import hudson.Extension;
 import hudson.FilePath;
 import hudson.model.Run;
 import jenkins.model.Jenkins;
+import org.apache.commons.io.IOUtils;
 import org.apache.logging.log4j.Logger;
 
 import javax.xml.stream.XMLStreamException;
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
- * Jenkins events life cycle listener for processing test results on build completed
+ * Jenkins events life cycle listener for processing test results on build completed.
+ * Processing runs on a bounded background executor; when it is full, the submitting thread waits for a free slot
+ * and, if none frees up in time, processes the tests itself, so tests of a build are never dropped.
  */
 @Extension
 @SuppressWarnings({"squid:S2699", "squid:S3658", "squid:S2259", "squid:S1872"})
@@ -42,6 +50,53 @@ public class TestListener {
 
 	public static final String TEST_RESULT_FILE = "mqmTests.xml";
 
+	//tests processing is heavy (parsing of reports, writing of mqmTests.xml), so it is done off the listener threads
+	private static final int PROCESSING_THREADS = Integer.getInteger("octane.tests.processing.threads", Math.min(4, Runtime.getRuntime().availableProcessors()));
+	private static final int PROCESSING_CAPACITY = Integer.getInteger("octane.tests.processing.capacity", 500);
+	private static final long PROCESSING_SUBMIT_TIMEOUT_SECONDS = Long.getLong("octane.tests.processing.submit.timeout.seconds", 30);
+	private static final long PROCESSING_DRAIN_TIMEOUT_SECONDS = 60;
+
+	private final OrderedTaskExecutor processingExecutor = new OrderedTaskExecutor("tests-processing",
+			Math.max(1, PROCESSING_THREADS), Math.max(1, PROCESSING_CAPACITY));
+
+	/**
+	 * Processes tests of the build in background; builds of the same job are processed in the order they were submitted
+	 *
+	 * @param onProcessed receives result of {@link #processBuild(Run)} once processing is done
+	 */
+	public void processBuildAsync(Run run, Consumer<Boolean> onProcessed) {
+		boolean submitted = false;
+		try {
+			submitted = processingExecutor.submit(run.getParent().getFullName(), () -> onProcessed.accept(processBuild(run)),
+					PROCESSING_SUBMIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		}
+		if (!submitted) {
+			logger.warn("tests processing is overloaded, tests of " + run + " are processed on the calling thread");
+			onProcessed.accept(processBuild(run));
+		}
+	}
+
+	public Map<String, Object> getProcessingMetrics() {
+		return processingExecutor.getMetrics();
+	}
+
+	public boolean awaitProcessing(long timeout, TimeUnit unit) throws InterruptedException {
+		return processingExecutor.awaitIdle(timeout, unit);
+	}
+
+	public void shutdownProcessing() {
+		processingExecutor.shutdown(PROCESSING_DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+	}
+
+
+	//streaming results iterators hold open files until they are exhausted
+	private static void closeResults(TestResultContainer testResultContainer) {
+		if (testResultContainer != null && testResultContainer.getIterator() instanceof Closeable) {
+			IOUtils.closeQuietly((Closeable) testResultContainer.getIterator());
+		}
+	}
 
 	public boolean processBuild(Run run) {
 		FilePath resultPath = new FilePath(new FilePath(run.getRootDir()), TEST_RESULT_FILE);
@@ -54,9 +109,13 @@ public class TestListener {
 			for (OctaneTestsExtension ext : OctaneTestsExtension.all()) {
 				if (ext.supports(run)) {
 					TestResultContainer testResultContainer = ext.getTestResults(run, jenkinsRootUrl);
-					if (testResultContainer != null && testResultContainer.getIterator().hasNext()) {
-						resultWriter.writeResults(testResultContainer);
-						hasTests = true;
+					try {
+						if (testResultContainer != null && testResultContainer.getIterator().hasNext()) {
+							resultWriter.writeResults(testResultContainer);
+							hasTests = true;
+						}
+					} finally {
+						closeResults(testResultContainer);
 					}
 				}
 			}
@@ -70,8 +129,9 @@ public class TestListener {
 				// we don't push individual maven module results (although we create the file for future use)
 				if (!"hudson.maven.MavenBuild".equals(run.getClass().getName())) {
 					if (success && hasTests) {
-						String projectFullName = BuildHandlerUtils.getJobCiId(run);
-						String parents = BuildHandlerUtils.getRootJobCiIds(run);
+						RunEventContext context = RunEventContext.of(run);
+						String projectFullName = context.getJobCiId();
+						String parents = context.getRootJobCiIds();
 						logger.info("enqueued build '" + projectFullName + " #" + run.getNumber() + "' for test result submission");
 						if (projectFullName != null) {
 							OctaneSDK.getClients().forEach(octaneClient ->
@@ -41,15 +41,18 @@ import org.jenkinsci.plugins.workflow.cps.nodes.StepEndNode;
 import org.jenkinsci.plugins.workflow.cps.nodes.StepStartNode;
 import org.jenkinsci.plugins.workflow.flow.FlowExecution;
 import org.jenkinsci.plugins.workflow.graph.FlowEndNode;
-import org.jenkinsci.plugins.workflow.graph.FlowGraphWalker;
 import org.jenkinsci.plugins.workflow.graph.FlowNode;
 import org.jenkinsci.plugins.workflow.graph.FlowStartNode;
 import org.jenkinsci.plugins.workflow.job.WorkflowRun;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -93,16 +96,13 @@ public class BuildHandlerUtils {
 		if (run instanceof WorkflowRun) {
 			FlowExecution fe = ((WorkflowRun) run).getExecution();
 			if (fe != null) {
-				FlowGraphWalker w = new FlowGraphWalker(fe);
-				for (FlowNode n : w) {
-					WorkspaceAction action = n.getAction(WorkspaceAction.class);
-					if (action != null) {
-						FilePath workspace = action.getWorkspace();
-						if (workspace == null) {
-							workspace = handleWorkspaceActionWithoutWorkspace(action);
-						}
-						return workspace;
+				WorkspaceAction action = WorkspaceNodesIndex.findWorkspaceAction((WorkflowRun) run, fe);
+				if (action != null) {
+					FilePath workspace = action.getWorkspace();
+					if (workspace == null) {
+						workspace = handleWorkspaceActionWithoutWorkspace(action);
 					}
+					return workspace;
 				}
 			}
 		}
@@ -198,21 +198,21 @@ public class BuildHandlerUtils {
 
 	public static String getRootJobCiIds(Run<?, ?> run) {
 		Set<String> parents = new HashSet<>();
-		getRootJobCiIds(CIEventCausesFactory.processCauses(run), BuildHandlerUtils.getJobCiId(run), parents);
-		return String.join(";", parents);
-	}
-
-	private static void getRootJobCiIds(List<CIEventCause> causes, String prevUpstream, Set<String> parents) {
-		if (causes != null) {
-			for (CIEventCause cause : causes) {
-				if (CIEventCauseType.UPSTREAM.equals(cause.getType())) {
-					getRootJobCiIds(cause.getCauses(), cause.getProject(), parents);
-				} else {
-					if (prevUpstream != null && !prevUpstream.isEmpty()) {
+		Deque<Map.Entry<String, List<CIEventCause>>> pending = new ArrayDeque<>();
+		pending.push(new AbstractMap.SimpleEntry<>(BuildHandlerUtils.getJobCiId(run), CIEventCausesFactory.processCauses(run)));
+		while (!pending.isEmpty()) {
+			Map.Entry<String, List<CIEventCause>> entry = pending.pop();
+			String prevUpstream = entry.getKey();
+			if (entry.getValue() != null) {
+				for (CIEventCause cause : entry.getValue()) {
+					if (CIEventCauseType.UPSTREAM.equals(cause.getType())) {
+						pending.push(new AbstractMap.SimpleEntry<>(cause.getProject(), cause.getCauses()));
+					} else if (prevUpstream != null && !prevUpstream.isEmpty()) {
 						parents.add(prevUpstream);
 					}
 				}
 			}
 		}
+		return String.join(";", parents);
 	}
 }
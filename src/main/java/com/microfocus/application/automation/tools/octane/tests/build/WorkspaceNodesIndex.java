@@ -0,0 +1,139 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.tests.build;
+
+import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
+import hudson.Extension;
+import org.apache.logging.log4j.Logger;
+import org.jenkinsci.plugins.workflow.actions.WorkspaceAction;
+import org.jenkinsci.plugins.workflow.cps.nodes.StepStartNode;
+import org.jenkinsci.plugins.workflow.flow.FlowExecution;
+import org.jenkinsci.plugins.workflow.flow.GraphListener;
+import org.jenkinsci.plugins.workflow.graph.FlowGraphWalker;
+import org.jenkinsci.plugins.workflow.graph.FlowNode;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.jenkinsci.plugins.workflow.steps.StepDescriptor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Ids of the pipeline run's 'node' and 'ws' step nodes (the ones that get a WorkspaceAction), recorded as the flow graph
+ * grows, so the workspace of the run is found without walking the whole graph.
+ * A run loaded again has its graph walked once, and recording continues from there.
+ */
+public class WorkspaceNodesIndex {
+	private static final Logger logger = SDKBasedLoggerProvider.getLogger(WorkspaceNodesIndex.class);
+	private static final Set<String> WORKSPACE_STEP_FUNCTIONS = new HashSet<>(Arrays.asList("node", "ws"));
+	private static final Map<WorkflowRun, WorkspaceNodesIndex> indexes = Collections.synchronizedMap(new WeakHashMap<>());
+
+	//oldest first
+	private final LinkedList<String> nodeIds = new LinkedList<>();
+	private boolean complete;
+
+	private WorkspaceNodesIndex() {
+	}
+
+	/**
+	 * @return the workspace action of the most recently started 'node' or 'ws' step of the run, null if there is none
+	 */
+	static WorkspaceAction findWorkspaceAction(WorkflowRun run, FlowExecution execution) {
+		WorkspaceNodesIndex index = of(run);
+		List<String> candidates;
+		synchronized (index) {
+			if (!index.complete) {
+				index.fillFromGraph(execution);
+			}
+			candidates = new ArrayList<>(index.nodeIds);
+		}
+		for (int i = candidates.size() - 1; i >= 0; i--) {
+			try {
+				FlowNode node = execution.getNode(candidates.get(i));
+				WorkspaceAction action = node == null ? null : node.getAction(WorkspaceAction.class);
+				if (action != null) {
+					return action;
+				}
+			} catch (IOException ioe) {
+				logger.warn("failed to load flow node " + candidates.get(i) + " of " + run, ioe);
+			}
+		}
+		return null;
+	}
+
+	private static WorkspaceNodesIndex of(WorkflowRun run) {
+		return indexes.computeIfAbsent(run, r -> new WorkspaceNodesIndex());
+	}
+
+	private static boolean isWorkspaceNode(FlowNode node) {
+		if (node.getAction(WorkspaceAction.class) != null) {
+			return true;
+		}
+		if (node instanceof StepStartNode && !((StepStartNode) node).isBody()) {
+			StepDescriptor descriptor = ((StepStartNode) node).getDescriptor();
+			return descriptor != null && WORKSPACE_STEP_FUNCTIONS.contains(descriptor.getFunctionName());
+		}
+		return false;
+	}
+
+	//walker visits the latest nodes first, the index keeps them last; nodes recorded so far are part of the graph as well
+	private void fillFromGraph(FlowExecution execution) {
+		nodeIds.clear();
+		for (FlowNode node : new FlowGraphWalker(execution)) {
+			if (isWorkspaceNode(node)) {
+				nodeIds.addFirst(node.getId());
+			}
+		}
+		complete = true;
+	}
+
+	private synchronized void record(String nodeId, boolean runStart) {
+		if (runStart && nodeIds.isEmpty()) {
+			complete = true;
+		}
+		if (nodeId != null) {
+			nodeIds.addLast(nodeId);
+		}
+	}
+
+	@Extension
+	public static final class Recorder implements GraphListener {
+		@Override
+		public void onNewHead(FlowNode flowNode) {
+			try {
+				boolean runStart = BuildHandlerUtils.isWorkflowStartNode(flowNode);
+				boolean workspaceNode = isWorkspaceNode(flowNode);
+				if (runStart || workspaceNode) {
+					of(BuildHandlerUtils.extractParentRun(flowNode)).record(workspaceNode ? flowNode.getId() : null, runStart);
+				}
+			} catch (RuntimeException e) {
+				logger.warn("failed to index workspace node " + flowNode, e);
+			}
+		}
+	}
+}
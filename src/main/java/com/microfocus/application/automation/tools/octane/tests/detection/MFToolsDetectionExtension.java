@@ -74,6 +74,18 @@ public class MFToolsDetectionExtension extends ResultFieldsDetectionExtension {
      * @return
      */
     public static HPRunnerType getRunnerType(Run run) {
+        TestDetection detection = TestDetection.of(run);
+        HPRunnerType hpRunnerType = detection != null ? detection.getRunnerType() : null;
+        if (hpRunnerType == null) {
+            hpRunnerType = detectRunnerType(run);
+            if (detection != null) {
+                detection.setRunnerType(hpRunnerType);
+            }
+        }
+        return hpRunnerType;
+    }
+
+    private static HPRunnerType detectRunnerType(Run run) {
         HPRunnerType hpRunnerType = HPRunnerType.NONE;
         if (JobProcessorFactory.WORKFLOW_RUN_NAME.equals(run.getClass().getName())) {
             ParametersAction parameterAction = run.getAction(ParametersAction.class);
@@ -31,6 +31,18 @@ public class ResultFieldsDetectionService {
 	private static Logger logger = SDKBasedLoggerProvider.getLogger(ResultFieldsDetectionService.class);
 
 	public ResultFields getDetectedFields(Run<?,?> build) throws InterruptedException {
+		TestDetection detection = TestDetection.of(build);
+		if (detection != null && detection.isResultFieldsDetected()) {
+			return detection.getResultFields();
+		}
+		ResultFields fields = detectFields(build);
+		if (detection != null) {
+			detection.setResultFields(fields);
+		}
+		return fields;
+	}
+
+	private ResultFields detectFields(Run<?,?> build) throws InterruptedException {
 		for (ResultFieldsDetectionExtension ext : ResultFieldsDetectionExtension.all()) {
 			try {
 				ResultFields fields = ext.detect(build);
@@ -0,0 +1,88 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.tests.detection;
+
+import com.microfocus.application.automation.tools.octane.tests.HPRunnerType;
+import hudson.model.Run;
+import org.jenkinsci.plugins.workflow.flow.FlowExecution;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Test framework and runner detected for a finished build, so detection is not repeated by every consumer.
+ * Detection is cheap compared to tests processing, so it is not persisted.
+ */
+final class TestDetection {
+	private static final Map<Run<?, ?>, TestDetection> detections = Collections.synchronizedMap(new WeakHashMap<>());
+
+	private HPRunnerType runnerType;
+	private ResultFields resultFields;
+	private boolean resultFieldsDetected;
+
+	private TestDetection() {
+	}
+
+	/**
+	 * @return detection of the build, null while the build may still produce results
+	 */
+	static TestDetection of(Run<?, ?> run) {
+		if (!isDone(run)) {
+			return null;
+		}
+		return detections.computeIfAbsent(run, r -> new TestDetection());
+	}
+
+	//pipeline results are processed at the end of the flow, while the run itself is still completing
+	private static boolean isDone(Run<?, ?> run) {
+		if (!run.isBuilding()) {
+			return true;
+		}
+		if (run instanceof WorkflowRun) {
+			FlowExecution execution = ((WorkflowRun) run).getExecution();
+			return execution != null && execution.isComplete();
+		}
+		return false;
+	}
+
+	synchronized HPRunnerType getRunnerType() {
+		return runnerType;
+	}
+
+	synchronized void setRunnerType(HPRunnerType runnerType) {
+		this.runnerType = runnerType;
+	}
+
+	synchronized boolean isResultFieldsDetected() {
+		return resultFieldsDetected;
+	}
+
+	synchronized ResultFields getResultFields() {
+		return resultFields;
+	}
+
+	synchronized void setResultFields(ResultFields resultFields) {
+		this.resultFields = resultFields;
+		this.resultFieldsDetected = true;
+	}
+}
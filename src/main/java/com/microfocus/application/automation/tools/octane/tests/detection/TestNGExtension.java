@@ -21,6 +21,8 @@
 package com.microfocus.application.automation.tools.octane.tests.detection;
 
 import com.microfocus.application.automation.tools.octane.tests.build.BuildHandlerUtils;
+import com.microfocus.application.automation.tools.octane.tests.junit.JUnitExtension;
+import com.microfocus.application.automation.tools.octane.tests.junit.ResultFileIterator;
 import hudson.Extension;
 import hudson.FilePath;
 import hudson.Util;
@@ -40,6 +42,7 @@ import org.jenkinsci.remoting.RoleChecker;
 import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -61,8 +64,17 @@ public class TestNGExtension extends ResultFieldsDetectionExtension {
 		}
 
 		final List<Object> publishers = ((AbstractBuild) build).getProject().getPublishersList().toList();
+		FilePath junitResultXml = new FilePath(build.getRootDir()).child(JUnitExtension.JUNIT_RESULT_XML);
 		for (Object publisher : publishers) {
 			if ("hudson.tasks.junit.JUnitResultArchiver".equals(publisher.getClass().getName())) {
+				if (junitResultXml.exists()) {
+					//report files were already resolved by the archiver, no need to scan the workspace again
+					Set<String> resultFiles = ResultFileIterator.readResultFiles(junitResultXml);
+					if (!resultFiles.isEmpty() && BuildHandlerUtils.getWorkspace(build).act(new TestNgResultsFileFinder(resultFiles))) {
+						return new ResultFields(TESTNG, null, null);
+					}
+					break;
+				}
 				JUnitResultArchiver junit = (JUnitResultArchiver) publisher;
 				String testResultsPattern = junit.getTestResults();
 				if (BuildHandlerUtils.getWorkspace(build).act(new TestNgResultsFileFinder(testResultsPattern))) {
@@ -98,13 +110,21 @@ public class TestNGExtension extends ResultFieldsDetectionExtension {
 	public static class TestNgResultsFileFinder implements FilePath.FileCallable<Boolean> {
 
 		private String testResultsPattern;
+		private String[] resultFiles;
 
 		public TestNgResultsFileFinder(String testResultsPattern) {
 			this.testResultsPattern = testResultsPattern;
 		}
 
+		public TestNgResultsFileFinder(Collection<String> resultFiles) {
+			this.resultFiles = resultFiles.toArray(new String[0]);
+		}
+
 		@Override
 		public Boolean invoke(File workspace, VirtualChannel virtualChannel) throws IOException, InterruptedException {
+			if (resultFiles != null) {
+				return findTestNgResultsFile(workspace, resultFiles);
+			}
 			FileSet fs = Util.createFileSet(workspace, testResultsPattern);
 			DirectoryScanner ds = fs.getDirectoryScanner();
 			String[] includedFiles = ds.getIncludedFiles();
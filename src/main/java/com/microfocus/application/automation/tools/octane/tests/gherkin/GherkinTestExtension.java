@@ -31,7 +31,7 @@ import hudson.model.Run;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
-import java.util.List;
+import java.util.Iterator;
 
 @Extension
 public class GherkinTestExtension extends OctaneTestsExtension {
@@ -52,8 +52,8 @@ public class GherkinTestExtension extends OctaneTestsExtension {
 	public TestResultContainer getTestResults(Run<?, ?> build, String jenkinsRootUrl) throws
 			TestProcessingException, IOException, InterruptedException {
 		try {
-			List<TestResult> testResults = GherkinTestResultsCollector.collectGherkinTestsResults(build.getRootDir());
-			return new TestResultContainer(testResults.iterator(), null);
+			Iterator<TestResult> testResults = GherkinTestResultsCollector.iterateGherkinTestsResults(build.getRootDir());
+			return new TestResultContainer(testResults, null);
 		} catch (IOException e) {
 			throw e;
 		} catch (InterruptedException e) {
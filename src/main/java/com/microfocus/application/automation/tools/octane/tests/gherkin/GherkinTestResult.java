@@ -23,9 +23,9 @@ package com.microfocus.application.automation.tools.octane.tests.gherkin;
 import com.microfocus.application.automation.tools.octane.tests.junit.TestResultStatus;
 import com.microfocus.application.automation.tools.octane.tests.testResult.TestResult;
 import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 import java.util.HashMap;
@@ -36,9 +36,9 @@ import java.util.Map;
  */
 public class GherkinTestResult implements TestResult {
     private Map<String, String> attributes;
-    private Element contentElement;
+    private GherkinXmlFragment contentElement;
 
-    public GherkinTestResult(String name, Element xmlElement, long duration, TestResultStatus status) {
+    public GherkinTestResult(String name, GherkinXmlFragment xmlElement, long duration, TestResultStatus status) {
         this.attributes = new HashMap<>();
         this.attributes.put("name", name);
         this.attributes.put("duration", String.valueOf(duration));
@@ -50,10 +50,24 @@ public class GherkinTestResult implements TestResult {
         return attributes;
     }
 
-    public Element getXmlElement() {
+    public GherkinXmlFragment getXmlFragment() {
         return contentElement;
     }
 
+    /**
+     * @return content as DOM element, built on every call
+     */
+    public Element getXmlElement() {
+        if (contentElement == null) {
+            return null;
+        }
+        try {
+            return contentElement.toElement(DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument());
+        } catch (ParserConfigurationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     @Override
     public void writeXmlElement(XMLStreamWriter writer) throws XMLStreamException {
         writer.writeStartElement("gherkin_test_run");
@@ -62,27 +76,9 @@ public class GherkinTestResult implements TestResult {
                 writer.writeAttribute(attrName, attributes.get(attrName));
             }
         }
-        writeXmlElement(writer, contentElement);
-        writer.writeEndElement();
-    }
-
-    private void writeXmlElement(XMLStreamWriter writer, Element rootElement) throws XMLStreamException {
-        if (rootElement != null) {
-            writer.writeStartElement(rootElement.getTagName());
-            for (int a = 0; a < rootElement.getAttributes().getLength(); a++) {
-                String attrName = rootElement.getAttributes().item(a).getNodeName();
-                writer.writeAttribute(attrName, rootElement.getAttribute(attrName));
-            }
-            NodeList childNodes = rootElement.getChildNodes();
-            for (int c = 0; c < childNodes.getLength(); c++) {
-                Node child = childNodes.item(c);
-                if (child instanceof Element) {
-                    writeXmlElement(writer, (Element) child);
-                } else if (child.getNodeType() == Node.CDATA_SECTION_NODE) {
-                    writer.writeCharacters(child.getNodeValue());
-                }
-            }
-            writer.writeEndElement();
+        if (contentElement != null) {
+            contentElement.write(writer);
         }
+        writer.writeEndElement();
     }
 }
@@ -23,56 +23,141 @@ package com.microfocus.application.automation.tools.octane.tests.gherkin;
 import com.microfocus.application.automation.tools.octane.actions.cucumber.CucumberResultsService;
 import com.microfocus.application.automation.tools.octane.tests.junit.TestResultStatus;
 import com.microfocus.application.automation.tools.octane.tests.testResult.TestResult;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
-import org.xml.sax.SAXException;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.TransformerException;
+import org.apache.commons.io.IOUtils;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * Created by franksha on 20/03/2016.
  */
 public class GherkinTestResultsCollector {
+    private static final String REPORT_CDATA_EVENT = "http://java.sun.com/xml/stream/properties/report-cdata-event";
 
-    public static List<TestResult> collectGherkinTestsResults(File buildDir) throws ParserConfigurationException, IOException, InterruptedException, SAXException, TransformerException {
+    public static List<TestResult> collectGherkinTestsResults(File buildDir) throws IOException {
         List<TestResult> result = new ArrayList<>();
+        Iterator<TestResult> iterator = iterateGherkinTestsResults(buildDir);
+        try {
+            while (iterator.hasNext()) {
+                result.add(iterator.next());
+            }
+        } finally {
+            ((Closeable) iterator).close();
+        }
+        return result;
+    }
+
+    /**
+     * Versions of all result files are validated right away; features are read one by one as the iterator advances,
+     * so only a single feature is held in memory at a time.
+     * The iterator is {@link Closeable}: it closes the open results file on its own when it reaches the end or fails,
+     * a caller that abandons the iteration earlier has to close it.
+     */
+    public static Iterator<TestResult> iterateGherkinTestsResults(File buildDir) throws IOException {
+        List<File> files = new ArrayList<>();
 
         //Retrieve the cucumber results xml
         int i = 0;
         File gherkinTestResultsFile = new File(buildDir, CucumberResultsService.getGherkinResultFileName(i));
 
         while (gherkinTestResultsFile.exists()) {
-            String gherkinTestResultsPath = buildDir.getAbsolutePath() + File.separator + CucumberResultsService.getGherkinResultFileName(i);
-
-            //parse the xml
-            DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
-            DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-            Document doc = dBuilder.parse(gherkinTestResultsPath);
-            doc.getDocumentElement().normalize();
-
-            validateXMLVersion(doc);
-
-            //Go over the features
-            NodeList featureNodes = doc.getElementsByTagName("feature");
-            for (int f = 0; f < featureNodes.getLength(); f++) {
-                Element featureElement = (Element) featureNodes.item(f);
-                FeatureInfo featureInfo = new FeatureInfo(featureElement);
-                result.add(new GherkinTestResult(featureInfo.getName(), featureElement, featureInfo.getDuration(), featureInfo.getStatus()));
-            }
+            validateXMLVersion(gherkinTestResultsFile);
+            files.add(gherkinTestResultsFile);
 
             i++;
             gherkinTestResultsFile = new File(buildDir, CucumberResultsService.getGherkinResultFileName(i));
         } //end while
 
-        return result;
+        return new FeatureIterator(files);
+    }
+
+    private static class FeatureIterator implements Iterator<TestResult>, Closeable {
+        private final Iterator<File> files;
+        private InputStream is;
+        private XMLStreamReader reader;
+        private TestResult next;
+        private boolean closed = false;
+
+        private FeatureIterator(List<File> files) {
+            this.files = files.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next == null && !closed) {
+                try {
+                    next = readNextFeature();
+                } catch (IOException | XMLStreamException | RuntimeException e) {
+                    close();
+                    throw new IllegalStateException("Failed to read gherkin test results", e);
+                }
+                if (next == null) {
+                    close();
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public TestResult next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            TestResult result = next;
+            next = null;
+            return result;
+        }
+
+        private TestResult readNextFeature() throws IOException, XMLStreamException {
+            while (true) {
+                if (reader == null) {
+                    if (!files.hasNext()) {
+                        return null;
+                    }
+                    is = new FileInputStream(files.next());
+                    reader = createReader(is);
+                }
+                while (reader.hasNext()) {
+                    //Go over the features
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT && "feature".equals(GherkinXmlFragment.qualifiedName(reader.getName()))) {
+                        GherkinXmlFragment featureElement = GherkinXmlFragment.read(reader);
+                        FeatureInfo featureInfo = new FeatureInfo(featureElement);
+                        return new GherkinTestResult(featureInfo.getName(), featureElement, featureInfo.getDuration(), featureInfo.getStatus());
+                    }
+                }
+                closeFile();
+            }
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            closeFile();
+        }
+
+        private void closeFile() {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    // close quietly
+                }
+                reader = null;
+            }
+            IOUtils.closeQuietly(is);
+            is = null;
+        }
     }
 
     private static class FeatureInfo {
@@ -82,16 +167,14 @@ public class GherkinTestResultsCollector {
         private boolean statusDetermined = false;
         private long duration = 0;
 
-        public FeatureInfo(Element featureElement) {
+        public FeatureInfo(GherkinXmlFragment featureElement) {
             name = featureElement.getAttribute("name");
-            NodeList backgroundNodes = featureElement.getElementsByTagName("background");
-            Element backgroundElement = backgroundNodes.getLength() > 0 ? (Element)backgroundNodes.item(0) : null;
-            NodeList backgroundSteps = backgroundElement != null ? backgroundElement.getElementsByTagName("step") : null;
+            List<GherkinXmlFragment> backgroundNodes = featureElement.getElementsByTagName("background");
+            GherkinXmlFragment backgroundElement = !backgroundNodes.isEmpty() ? backgroundNodes.get(0) : null;
+            List<GherkinXmlFragment> backgroundSteps = backgroundElement != null ? backgroundElement.getElementsByTagName("step") : null;
 
             //Go over the scenarios
-            NodeList scenarioNodes = featureElement.getElementsByTagName("scenario");
-            for (int s = 0; s < scenarioNodes.getLength(); s++) {
-                Element scenarioElement = (Element) scenarioNodes.item(s);
+            for (GherkinXmlFragment scenarioElement : featureElement.getElementsByTagName("scenario")) {
                 ScenarioInfo scenarioInfo = new ScenarioInfo(scenarioElement, backgroundSteps);
                 String scenarioName = scenarioInfo.getName();
                 scenarioNames.add(scenarioName);
@@ -130,11 +213,11 @@ public class GherkinTestResultsCollector {
             private boolean statusDetermined = false;
             private String name;
 
-            public ScenarioInfo(Element scenarioElement, NodeList backgroundSteps) {
+            public ScenarioInfo(GherkinXmlFragment scenarioElement, List<GherkinXmlFragment> backgroundSteps) {
                 name = getScenarioName(scenarioElement);
 
-                List<Element> stepElements = getStepElements(backgroundSteps, scenarioElement);
-                for (Element stepElement : stepElements) {
+                List<GherkinXmlFragment> stepElements = getStepElements(backgroundSteps, scenarioElement);
+                for (GherkinXmlFragment stepElement : stepElements) {
                     addStep(stepElement);
                 }
 
@@ -161,12 +244,12 @@ public class GherkinTestResultsCollector {
                 return name;
             }
 
-            private void addStep(Element stepElement) {
+            private void addStep(GherkinXmlFragment stepElement) {
                 String stepName = stepElement.getAttribute("name");
                 stepNames.add(stepName);
 
                 String durationStr = stepElement.getAttribute("duration");
-                long stepDuration = durationStr != "" ? Long.parseLong(durationStr) : 0;
+                long stepDuration = !durationStr.isEmpty() ? Long.parseLong(durationStr) : 0;
                 duration += stepDuration;
 
                 String stepStatus = stepElement.getAttribute("status");
@@ -179,24 +262,17 @@ public class GherkinTestResultsCollector {
                 }
             }
 
-            private List<Element> getStepElements(NodeList backgroundSteps, Element scenarioElement) {
-                List<Element> stepElements = new ArrayList<>();
+            private List<GherkinXmlFragment> getStepElements(List<GherkinXmlFragment> backgroundSteps, GherkinXmlFragment scenarioElement) {
+                List<GherkinXmlFragment> stepElements = new ArrayList<>();
                 if(backgroundSteps != null) {
-                    for (int bs = 0; bs < backgroundSteps.getLength(); bs++) {
-                        Element stepElement = (Element) backgroundSteps.item(bs);
-                        stepElements.add(stepElement);
-                    }
-                }
-                NodeList stepNodes = scenarioElement.getElementsByTagName("step");
-                for (int sn = 0; sn < stepNodes.getLength(); sn++) {
-                    Element stepElement = (Element) stepNodes.item(sn);
-                    stepElements.add(stepElement);
+                    stepElements.addAll(backgroundSteps);
                 }
+                stepElements.addAll(scenarioElement.getElementsByTagName("step"));
 
                 return stepElements;
             }
 
-            private String getScenarioName(Element scenarioElement) {
+            private String getScenarioName(GherkinXmlFragment scenarioElement) {
                 String scenarioName = scenarioElement.getAttribute("name");
                 if (scenarioElement.hasAttribute("outlineIndex")) {
                     String outlineIndexStr = scenarioElement.getAttribute("outlineIndex");
@@ -219,20 +295,42 @@ public class GherkinTestResultsCollector {
         }
     }
 
-    private static void validateXMLVersion(Document doc) {
+    private static void validateXMLVersion(File file) throws IOException {
         String XML_VERSION = "1";
-        NodeList featuresNodes = doc.getElementsByTagName("features");
-        if(featuresNodes.item(0)!=null) {
-            String versionAttr = ((Element) featuresNodes.item(0)).getAttribute("version");
-            if (versionAttr == null || versionAttr.isEmpty() || versionAttr.compareTo(XML_VERSION) != 0) {
-                throw new IllegalArgumentException("\n********************************************************\n" +
-                    "Incompatible xml version received from the Octane formatter.\n" +
-                    "expected version = " + XML_VERSION + " actual version = " + versionAttr + ".\n" +
-                    "You may need to update the octane formatter version to the correct version in order to work with this jenkins plugin\n" +
-                    "********************************************************");
+        try (InputStream is = new FileInputStream(file)) {
+            XMLStreamReader reader = createReader(is);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT && "features".equals(GherkinXmlFragment.qualifiedName(reader.getName()))) {
+                        String versionAttr = reader.getAttributeValue(null, "version");
+                        if (versionAttr == null || versionAttr.isEmpty() || versionAttr.compareTo(XML_VERSION) != 0) {
+                            throw new IllegalArgumentException("\n********************************************************\n" +
+                                "Incompatible xml version received from the Octane formatter.\n" +
+                                "expected version = " + XML_VERSION + " actual version = " + versionAttr + ".\n" +
+                                "You may need to update the octane formatter version to the correct version in order to work with this jenkins plugin\n" +
+                                "********************************************************");
+                        }
+                        return;
+                    }
+                }
+            } finally {
+                reader.close();
             }
-        } else {
-            throw new IllegalArgumentException("The file does not contain Octane Gherkin results. Configuration error?");
+        } catch (XMLStreamException e) {
+            throw new IOException("Failed to read gherkin test results file " + file.getName(), e);
+        }
+        throw new IllegalArgumentException("The file does not contain Octane Gherkin results. Configuration error?");
+    }
+
+    private static XMLStreamReader createReader(InputStream is) throws XMLStreamException {
+        XMLInputFactory xmlFactory = XMLInputFactory.newInstance();
+        xmlFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        //CDATA content is sent while plain text is not, so the two must not be merged
+        xmlFactory.setProperty(XMLInputFactory.IS_COALESCING, false);
+        if (xmlFactory.isPropertySupported(REPORT_CDATA_EVENT)) {
+            xmlFactory.setProperty(REPORT_CDATA_EVENT, true);
         }
+        return xmlFactory.createXMLStreamReader(is);
     }
 }
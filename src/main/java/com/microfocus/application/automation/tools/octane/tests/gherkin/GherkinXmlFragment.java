@@ -0,0 +1,172 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.tests.gherkin;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Element of Gherkin results file holding just what is sent to Octane: attributes, child elements and CDATA content.
+ * Attributes are kept sorted by name, which is the order DOM used to write them.
+ */
+public class GherkinXmlFragment {
+    private final String tagName;
+    private final Map<String, String> attributes = new TreeMap<>();
+    //child fragments and CDATA strings in document order
+    private final List<Object> children = new ArrayList<>();
+
+    GherkinXmlFragment(String tagName) {
+        this.tagName = tagName;
+    }
+
+    public String getTagName() {
+        return tagName;
+    }
+
+    /**
+     * @return attribute value, empty string if there is no such attribute
+     */
+    public String getAttribute(String name) {
+        String value = attributes.get(name);
+        return value != null ? value : "";
+    }
+
+    public boolean hasAttribute(String name) {
+        return attributes.containsKey(name);
+    }
+
+    public void setAttribute(String name, String value) {
+        attributes.put(name, value);
+    }
+
+    /**
+     * @return all descendant elements with the given tag name in document order
+     */
+    public List<GherkinXmlFragment> getElementsByTagName(String name) {
+        List<GherkinXmlFragment> result = new ArrayList<>();
+        Deque<GherkinXmlFragment> stack = new ArrayDeque<>();
+        pushChildren(stack, this);
+        while (!stack.isEmpty()) {
+            GherkinXmlFragment fragment = stack.pop();
+            if (name.equals(fragment.tagName)) {
+                result.add(fragment);
+            }
+            pushChildren(stack, fragment);
+        }
+        return result;
+    }
+
+    private static void pushChildren(Deque<GherkinXmlFragment> stack, GherkinXmlFragment fragment) {
+        for (int i = fragment.children.size() - 1; i >= 0; i--) {
+            Object child = fragment.children.get(i);
+            if (child instanceof GherkinXmlFragment) {
+                stack.push((GherkinXmlFragment) child);
+            }
+        }
+    }
+
+    public void write(XMLStreamWriter writer) throws XMLStreamException {
+        writer.writeStartElement(tagName);
+        for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+            writer.writeAttribute(attribute.getKey(), attribute.getValue());
+        }
+        for (Object child : children) {
+            if (child instanceof GherkinXmlFragment) {
+                ((GherkinXmlFragment) child).write(writer);
+            } else {
+                writer.writeCharacters((String) child);
+            }
+        }
+        writer.writeEndElement();
+    }
+
+    public Element toElement(Document document) {
+        Element element = document.createElement(tagName);
+        for (Map.Entry<String, String> attribute : attributes.entrySet()) {
+            element.setAttribute(attribute.getKey(), attribute.getValue());
+        }
+        for (Object child : children) {
+            if (child instanceof GherkinXmlFragment) {
+                element.appendChild(((GherkinXmlFragment) child).toElement(document));
+            } else {
+                element.appendChild(document.createCDATASection((String) child));
+            }
+        }
+        return element;
+    }
+
+    /**
+     * Reads element the reader is positioned at, together with its content; reader is left at its end element
+     */
+    static GherkinXmlFragment read(XMLStreamReader reader) throws XMLStreamException {
+        GherkinXmlFragment root = startFragment(reader);
+        Deque<GherkinXmlFragment> open = new ArrayDeque<>();
+        open.push(root);
+        while (!open.isEmpty()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    GherkinXmlFragment child = startFragment(reader);
+                    open.peek().children.add(child);
+                    open.push(child);
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    open.pop();
+                    break;
+                case XMLStreamConstants.CDATA:
+                    open.peek().children.add(reader.getText());
+                    break;
+                default:
+                    //text, comments and processing instructions are not sent
+                    break;
+            }
+        }
+        return root;
+    }
+
+    private static GherkinXmlFragment startFragment(XMLStreamReader reader) {
+        GherkinXmlFragment fragment = new GherkinXmlFragment(qualifiedName(reader.getName()));
+        for (int n = 0; n < reader.getNamespaceCount(); n++) {
+            String prefix = reader.getNamespacePrefix(n);
+            fragment.setAttribute(prefix == null || prefix.isEmpty() ? "xmlns" : "xmlns:" + prefix, reader.getNamespaceURI(n) == null ? "" : reader.getNamespaceURI(n));
+        }
+        for (int a = 0; a < reader.getAttributeCount(); a++) {
+            fragment.setAttribute(qualifiedName(reader.getAttributeName(a)), reader.getAttributeValue(a));
+        }
+        return fragment;
+    }
+
+    static String qualifiedName(QName name) {
+        String prefix = name.getPrefix();
+        return prefix == null || prefix.isEmpty() ? name.getLocalPart() : prefix + ":" + name.getLocalPart();
+    }
+}
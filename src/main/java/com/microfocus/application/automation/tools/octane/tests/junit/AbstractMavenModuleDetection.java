@@ -27,12 +27,24 @@ import hudson.model.Run;
 import java.io.IOException;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Module of a result file is the nearest directory containing pom.xml below the first registered pom directory
+ * enclosing the file. Pom directories are indexed in a path trie and both the pom lookups and the resolved modules
+ * are memoized, since the same report directories are asked about for every file element of every report.
+ */
 public abstract class AbstractMavenModuleDetection implements ModuleDetection {
 
     protected FilePath rootDir;
     protected List<FilePath> pomDirs;
 
+    private transient PathPrefixTrie<FilePath> pomDirIndex;
+    private transient Map<String, Optional<String>> moduleByDirectory;
+    private transient Map<String, Boolean> pomExists;
+
     public AbstractMavenModuleDetection(Run build) {
         rootDir = BuildHandlerUtils.getWorkspace(build);
         pomDirs = new LinkedList<>();
@@ -40,17 +52,27 @@ public abstract class AbstractMavenModuleDetection implements ModuleDetection {
         addPomDirectories(build);
     }
 
+    protected AbstractMavenModuleDetection(FilePath rootDir) {
+        this.rootDir = rootDir;
+        pomDirs = new LinkedList<>();
+    }
+
     protected abstract void addPomDirectories(Run build);
 
     @Override
     public String getModule(FilePath resultFile) throws IOException, InterruptedException {
-        for (FilePath pomDir: pomDirs) {
-            if (childOf(pomDir, resultFile)) {
-                return normalize(locatePom(resultFile, pomDir));
-            }
+        FilePath directory = resultFile.getParent();
+        if (directory == null) {
+            // unable to determine module
+            return null;
         }
-        // unable to determine module
-        return null;
+        Map<String, Optional<String>> cache = getModuleByDirectory();
+        Optional<String> module = cache.get(directory.getRemote());
+        if (module == null) {
+            module = Optional.ofNullable(detectModule(directory));
+            cache.put(directory.getRemote(), module);
+        }
+        return module.orElse(null);
     }
 
     protected void addPomDirectory(FilePath pomDir) {
@@ -67,25 +89,65 @@ public abstract class AbstractMavenModuleDetection implements ModuleDetection {
         return false;
     }
 
+    private String detectModule(FilePath directory) throws IOException, InterruptedException {
+        FilePath pomDir = getPomDirIndex().findAncestor(directory.getRemote());
+        if (pomDir == null) {
+            // unable to determine module
+            return null;
+        }
+        return normalize(locatePom(directory, pomDir));
+    }
 
-    private String locatePom(FilePath filePath, FilePath pomDir) throws IOException, InterruptedException {
-        while (filePath != null) {
-            FilePath parentPath = filePath.getParent();
-            if (parentPath.equals(pomDir)) {
-                // walk up as far as the enclosing pom directory
-                break;
-            }
-            FilePath pomPath = new FilePath(parentPath, "pom.xml");
-            if (pomPath.exists()) {
+    private String locatePom(FilePath directory, FilePath pomDir) throws IOException, InterruptedException {
+        FilePath parentPath = directory;
+        while (parentPath != null && !PathPrefixTrie.isSamePath(parentPath.getRemote(), pomDir.getRemote())) {
+            // walk up as far as the enclosing pom directory
+            if (hasPom(parentPath)) {
                 // we found a nested pom directory
                 return parentPath.getRemote().substring(rootDir.getRemote().length());
             }
-            filePath = parentPath;
+            parentPath = parentPath.getParent();
         }
         // no other pom found in nested directories
         return pomDir.getRemote().substring(rootDir.getRemote().length());
     }
 
+    private boolean hasPom(FilePath directory) throws IOException, InterruptedException {
+        Map<String, Boolean> cache = getPomExists();
+        Boolean exists = cache.get(directory.getRemote());
+        if (exists == null) {
+            exists = new FilePath(directory, "pom.xml").exists();
+            cache.put(directory.getRemote(), exists);
+        }
+        return exists;
+    }
+
+    private synchronized PathPrefixTrie<FilePath> getPomDirIndex() {
+        if (pomDirIndex == null) {
+            pomDirIndex = new PathPrefixTrie<>();
+            for (FilePath pomDir : pomDirs) {
+                if (pomDir != null) {
+                    pomDirIndex.put(pomDir.getRemote(), pomDir);
+                }
+            }
+        }
+        return pomDirIndex;
+    }
+
+    private synchronized Map<String, Optional<String>> getModuleByDirectory() {
+        if (moduleByDirectory == null) {
+            moduleByDirectory = new ConcurrentHashMap<>();
+        }
+        return moduleByDirectory;
+    }
+
+    private synchronized Map<String, Boolean> getPomExists() {
+        if (pomExists == null) {
+            pomExists = new ConcurrentHashMap<>();
+        }
+        return pomExists;
+    }
+
     private String normalize(String path) {
         return path.replace("\\", "/").replaceFirst("^/", "");
     }
@@ -32,7 +32,6 @@ import com.microfocus.application.automation.tools.octane.tests.build.BuildHandl
 import com.microfocus.application.automation.tools.octane.tests.detection.MFToolsDetectionExtension;
 import com.microfocus.application.automation.tools.octane.tests.detection.ResultFields;
 import com.microfocus.application.automation.tools.octane.tests.detection.ResultFieldsDetectionService;
-import com.microfocus.application.automation.tools.octane.tests.impl.ObjectStreamIterator;
 import hudson.Extension;
 import hudson.FilePath;
 import hudson.maven.MavenBuild;
@@ -41,17 +40,20 @@ import hudson.maven.MavenModuleSetBuild;
 import hudson.model.Run;
 import hudson.remoting.VirtualChannel;
 import hudson.tasks.test.AbstractTestResultAction;
+import hudson.util.DaemonThreadFactory;
+import hudson.util.NamingThreadFactory;
 import org.apache.logging.log4j.Logger;
 import org.jenkinsci.remoting.Role;
 import org.jenkinsci.remoting.RoleChecker;
 
 import javax.xml.stream.XMLStreamException;
 import java.io.*;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Converter of Jenkins test report to ALM Octane test report format(junitResult.xml->mqmTests.xml)
@@ -60,8 +62,10 @@ import java.util.*;
 public class JUnitExtension extends OctaneTestsExtension {
 	private static Logger logger = SDKBasedLoggerProvider.getLogger(JUnitExtension.class);
 
-	private static final String JUNIT_RESULT_XML = "junitResult.xml"; // NON-NLS
+	public static final String JUNIT_RESULT_XML = "junitResult.xml"; // NON-NLS
 	public static final String TEMP_TEST_RESULTS_FILE_NAME_PREFIX = "GetJUnitTestResults";
+	//max number of maven module reports converted concurrently
+	private static final int REPORTS_PARALLELISM = Integer.getInteger("octane.junit.reports.parallelism", 4);
 
 	@Inject
 	private ResultFieldsDetectionService resultFieldsDetectionService;
@@ -92,9 +96,9 @@ public class JUnitExtension extends OctaneTestsExtension {
 				return null;
 			}
 
-			FilePath filePath = workspace.act(new GetJUnitTestResults(run, Collections.singletonList(resultFile), false, jenkinsRootUrl));
+			FilePath filePath = new GetJUnitTestResults(run, Collections.singletonList(resultFile), false, jenkinsRootUrl).convert();
 			ResultFields detectedFields = getResultFields(run);
-			return new TestResultContainer(new ObjectStreamIterator<>(filePath), detectedFields);
+			return new TestResultContainer(new JUnitTestResultCodec.Reader(filePath.read()), detectedFields);
 		} else {
 			//avoid java.lang.NoClassDefFoundError when maven plugin is not present
 			if ("hudson.maven.MavenModuleSetBuild".equals(run.getClass().getName())) {
@@ -114,8 +118,8 @@ public class JUnitExtension extends OctaneTestsExtension {
 				}
 				if (!resultFiles.isEmpty()) {
 					ResultFields detectedFields = getResultFields(run);
-					FilePath filePath = BuildHandlerUtils.getWorkspace(run).act(new GetJUnitTestResults(run, resultFiles, false, jenkinsRootUrl));
-					return new TestResultContainer(new ObjectStreamIterator<>(filePath), detectedFields);
+					FilePath filePath = new GetJUnitTestResults(run, resultFiles, false, jenkinsRootUrl).convert();
+					return new TestResultContainer(new JUnitTestResultCodec.Reader(filePath.read()), detectedFields);
 				}
 			}
 			logger.debug("No JUnit result report found");
@@ -127,7 +131,11 @@ public class JUnitExtension extends OctaneTestsExtension {
 		return resultFieldsDetectionService.getDetectedFields(build);
 	}
 
-	private static class GetJUnitTestResults implements FilePath.FileCallable<FilePath> {
+	/**
+	 * Reports are parsed on master where they live; only facts depending on the workspace are fetched from the agent,
+	 * all of them in a single call
+	 */
+	private static class GetJUnitTestResults {
 
 		private final List<FilePath> reports;
 		private final String jobName;
@@ -140,9 +148,11 @@ public class JUnitExtension extends OctaneTestsExtension {
 		private FilePath workspace;
 		private boolean stripPackageAndClass;
 		private String sharedCheckOutDirectory;
+		private final int parallelism;
+		private final File partsDir;
+		private WorkspaceFacts workspaceFacts;
 
-		//this class is run on master and JUnitXmlIterator is runnning on slave.
-		//this object pass some master2slave data
+		//build related data needed to enrich the results, for example UFT report folders
 		private Object additionalContext;
 
 		public GetJUnitTestResults(Run<?, ?> build, List<FilePath> reports, boolean stripPackageAndClass, String jenkinsRootUrl) throws IOException, InterruptedException {
@@ -153,6 +163,8 @@ public class JUnitExtension extends OctaneTestsExtension {
 			this.stripPackageAndClass = stripPackageAndClass;
 			this.hpRunnerType = MFToolsDetectionExtension.getRunnerType(build);
 			this.jenkinsRootUrl = jenkinsRootUrl;
+			this.parallelism = REPORTS_PARALLELISM;
+			this.partsDir = build.getRootDir();
 			String buildRootDir = build.getRootDir().getCanonicalPath();
 			this.sharedCheckOutDirectory = CheckOutSubDirEnvContributor.getSharedCheckOutDirectory(build.getParent());
 
@@ -178,39 +190,141 @@ public class JUnitExtension extends OctaneTestsExtension {
 						}
 					}
 				}
-				additionalContext = testFolderNames;
+				additionalContext = new UftReportFolders(testFolderNames);
 			}
 			if (HPRunnerType.StormRunnerLoad.equals(hpRunnerType)) {
-				try {
-					File file = new File(build.getRootDir(), "log");
-					Path path = Paths.get(file.getPath());
-					additionalContext = Files.readAllLines(path, StandardCharsets.UTF_8);
+				//only the report URL is passed on, the log itself is streamed
+				try (Reader log = build.getLogReader()) {
+					additionalContext = JUnitXmlIterator.tryGetStormRunnerReportURLFromLog(log);
 				} catch (Exception e) {
 					logger.error("Failed to add log file for StormRunnerLoad :" + e.getMessage());
 				}
 			}
 		}
 
-		@Override
-		public FilePath invoke(File f, VirtualChannel channel) throws IOException, InterruptedException {
-			OutputStream os = filePath.write();
-			BufferedOutputStream bos = new BufferedOutputStream(os);
-			ObjectOutputStream oos = new ObjectOutputStream(bos);
+		public FilePath convert() throws IOException, InterruptedException {
+			workspaceFacts = collectWorkspaceFacts();
+			try (JUnitTestResultCodec.Writer writer = new JUnitTestResultCodec.Writer(filePath.write())) {
+				//UFT enrichment consumes shared report folders list in tests order, so it stays sequential
+				if (reports.size() > 1 && parallelism > 1 && !HPRunnerType.UFT.equals(hpRunnerType)) {
+					writeReportsInParallel(reports, parallelism, partsDir, this::writeReport, writer);
+				} else {
+					for (FilePath report : reports) {
+						writeReport(report, writer);
+					}
+				}
+			}
+			return filePath;
+		}
 
+		private WorkspaceFacts collectWorkspaceFacts() throws IOException, InterruptedException {
+			Set<String> resultFiles = new LinkedHashSet<>();
+			for (FilePath report : reports) {
+				resultFiles.addAll(ResultFileIterator.readResultFiles(report));
+			}
+			if (resultFiles.isEmpty() && !HPRunnerType.UFT.equals(hpRunnerType)) {
+				return new WorkspaceFacts();
+			}
+			if (workspace == null) {
+				logger.error("Received null workspace, results will not be enriched by workspace data : " + jobName + " #" + buildId);
+				return new WorkspaceFacts();
+			}
+			return workspace.act(new GetWorkspaceFacts(resultFiles, moduleDetection, workspace, sharedCheckOutDirectory, hpRunnerType));
+		}
+
+		private void writeReport(FilePath report, JUnitTestResultCodec.Writer writer) throws IOException, InterruptedException {
 			try {
-				for (FilePath report : reports) {
-					JUnitXmlIterator iterator = new JUnitXmlIterator(report.read(), moduleDetection, workspace, sharedCheckOutDirectory, jobName, buildId, buildStarted, stripPackageAndClass, hpRunnerType, jenkinsRootUrl, additionalContext);
-					while (iterator.hasNext()) {
-						oos.writeObject(iterator.next());
-					}
+				JUnitXmlIterator iterator = new JUnitXmlIterator(report.read(), workspaceFacts, workspace, jobName, buildId, buildStarted, stripPackageAndClass, hpRunnerType, jenkinsRootUrl, additionalContext);
+				while (iterator.hasNext()) {
+					writer.write(iterator.next());
 				}
 			} catch (XMLStreamException e) {
 				throw new IOException(e);
 			}
-			os.flush();
+		}
+	}
 
-			oos.close();
-			return filePath;
+	/**
+	 * Converts a single report into the results stream
+	 */
+	interface ReportConverter {
+		void convert(FilePath report, JUnitTestResultCodec.Writer writer) throws IOException, InterruptedException;
+	}
+
+	/**
+	 * Each report is converted by a worker into its own part file; parts are appended to the output in reports order
+	 * as soon as they are ready, so the result does not depend on scheduling of the workers.
+	 */
+	static void writeReportsInParallel(List<FilePath> reports, int parallelism, File partsDir, ReportConverter converter,
+	                                   JUnitTestResultCodec.Writer writer) throws IOException, InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, reports.size()),
+				new NamingThreadFactory(new DaemonThreadFactory(), "octane-junit-reports"));
+		List<File> partFiles = Collections.synchronizedList(new ArrayList<>());
+		try {
+			List<Future<File>> parts = new ArrayList<>(reports.size());
+			for (FilePath report : reports) {
+				parts.add(executor.submit(() -> {
+					File partFile = File.createTempFile(TEMP_TEST_RESULTS_FILE_NAME_PREFIX, ".part", partsDir);
+					partFiles.add(partFile);
+					try (JUnitTestResultCodec.Writer partWriter = new JUnitTestResultCodec.Writer(new FileOutputStream(partFile))) {
+						converter.convert(report, partWriter);
+					}
+					return partFile;
+				}));
+			}
+			for (Future<File> part : parts) {
+				File partFile = getPart(part);
+				try (JUnitTestResultCodec.Reader partReader = new JUnitTestResultCodec.Reader(new FileInputStream(partFile))) {
+					while (partReader.hasNext()) {
+						writer.write((JUnitTestResult) partReader.next());
+					}
+				}
+				Files.deleteIfExists(partFile.toPath());
+			}
+		} finally {
+			executor.shutdownNow();
+			synchronized (partFiles) {
+				for (File partFile : partFiles) {
+					Files.deleteIfExists(partFile.toPath());
+				}
+			}
+		}
+	}
+
+	private static File getPart(Future<File> part) throws IOException, InterruptedException {
+		try {
+			return part.get();
+		} catch (ExecutionException ee) {
+			Throwable cause = ee.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof InterruptedException) {
+				throw (InterruptedException) cause;
+			}
+			throw new IOException(cause);
+		}
+	}
+
+	static class GetWorkspaceFacts implements FilePath.FileCallable<WorkspaceFacts> {
+
+		private final List<String> resultFiles;
+		private final List<ModuleDetection> moduleDetection;
+		private final FilePath workspace;
+		private final String sharedCheckOutDirectory;
+		private final HPRunnerType hpRunnerType;
+
+		GetWorkspaceFacts(Collection<String> resultFiles, List<ModuleDetection> moduleDetection, FilePath workspace, String sharedCheckOutDirectory, HPRunnerType hpRunnerType) {
+			this.resultFiles = new ArrayList<>(resultFiles);
+			this.moduleDetection = moduleDetection;
+			this.workspace = workspace;
+			this.sharedCheckOutDirectory = sharedCheckOutDirectory;
+			this.hpRunnerType = hpRunnerType;
+		}
+
+		@Override
+		public WorkspaceFacts invoke(File f, VirtualChannel channel) throws IOException, InterruptedException {
+			return WorkspaceFacts.collect(resultFiles, moduleDetection, workspace, sharedCheckOutDirectory,
+					HPRunnerType.UFT.equals(hpRunnerType), HPRunnerType.StormRunnerLoad.equals(hpRunnerType));
 		}
 
 		@Override
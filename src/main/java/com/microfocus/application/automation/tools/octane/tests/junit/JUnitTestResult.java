@@ -99,6 +99,10 @@ final public class JUnitTestResult implements Serializable, TestResult {
 
     public String getExternalReportUrl() {return externalReportUrl;}
 
+    public String getDescription() {
+        return description;
+    }
+
     @Override
     public void writeXmlElement(XMLStreamWriter writer) throws XMLStreamException {
         writer.writeStartElement("test_run");
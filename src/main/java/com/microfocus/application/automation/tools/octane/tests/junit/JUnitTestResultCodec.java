@@ -0,0 +1,314 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.tests.junit;
+
+import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
+import com.microfocus.application.automation.tools.octane.tests.testResult.TestResult;
+import org.apache.logging.log4j.Logger;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Compact streaming format used to pass {@link JUnitTestResult}s from the JUnit report parser to the mqmTests.xml writer.
+ * <p>
+ * Stream layout: magic, format version, sequence of length-prefixed records, end marker.
+ * Strings are written once and referred to by index afterwards, so module/package/class names repeated
+ * across thousands of tests cost a few bytes each. The string dictionary is bounded, so both writer and reader
+ * keep constant memory regardless of the number of records.
+ */
+public final class JUnitTestResultCodec {
+	private static final Logger logger = SDKBasedLoggerProvider.getLogger(JUnitTestResultCodec.class);
+
+	static final int MAGIC = 0x4F545253; // "OTRS"
+	static final int VERSION = 1;
+	static final int MAX_DICTIONARY_SIZE = 4096;
+	static final int MAX_DICTIONARY_STRING_LENGTH = 256;
+
+	private static final int TAG_END = 0;
+	private static final int TAG_RECORD = 1;
+
+	private static final int STRING_NULL = 0;
+	private static final int STRING_NEW = 1;        //literal, appended to dictionary
+	private static final int STRING_LITERAL = 2;    //literal, not appended to dictionary
+	private static final int STRING_REF_BASE = 3;   //dictionary reference, index = code - STRING_REF_BASE
+
+	private static final int FLAG_HAS_ERROR = 1;
+
+	//record buffer is reallocated after an oversized record (e.g. huge stack trace) to keep writer memory bounded
+	private static final int MAX_RETAINED_RECORD_BUFFER = 64 * 1024;
+
+	private JUnitTestResultCodec() {
+	}
+
+	/**
+	 * Writes test results to the stream one record at a time; nothing except the bounded string dictionary is retained.
+	 */
+	public static final class Writer implements Closeable {
+		private final DataOutputStream out;
+		private final Map<String, Integer> dictionary = new HashMap<>();
+		private ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream(512);
+		private boolean closed;
+
+		public Writer(OutputStream os) throws IOException {
+			out = new DataOutputStream(new BufferedOutputStream(os));
+			out.writeInt(MAGIC);
+			out.writeByte(VERSION);
+		}
+
+		public void write(JUnitTestResult testResult) throws IOException {
+			if (recordBuffer.size() > MAX_RETAINED_RECORD_BUFFER) {
+				recordBuffer = new ByteArrayOutputStream(512);
+			} else {
+				recordBuffer.reset();
+			}
+			DataOutputStream record = new DataOutputStream(recordBuffer);
+			TestError testError = testResult.getTestError();
+
+			record.writeByte(testError != null ? FLAG_HAS_ERROR : 0);
+			record.writeByte(testResult.getResult() == null ? 0 : testResult.getResult().ordinal() + 1);
+			writeString(record, testResult.getModuleName());
+			writeString(record, testResult.getPackageName());
+			writeString(record, testResult.getClassName());
+			writeString(record, testResult.getTestName());
+			writeVarLong(record, zigZag(testResult.getDuration()));
+			writeVarLong(record, zigZag(testResult.getStarted()));
+			writeString(record, testResult.getExternalReportUrl());
+			writeString(record, testResult.getDescription());
+			if (testError != null) {
+				writeString(record, testError.getStackTraceStr());
+				writeString(record, testError.getErrorType());
+				writeString(record, testError.getErrorMsg());
+			}
+			record.flush();
+
+			out.writeByte(TAG_RECORD);
+			writeVarLong(out, recordBuffer.size());
+			recordBuffer.writeTo(out);
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!closed) {
+				closed = true;
+				try {
+					out.writeByte(TAG_END);
+					out.flush();
+				} finally {
+					out.close();
+				}
+			}
+		}
+
+		private void writeString(DataOutputStream record, String value) throws IOException {
+			if (value == null) {
+				writeVarLong(record, STRING_NULL);
+				return;
+			}
+			Integer index = dictionary.get(value);
+			if (index != null) {
+				writeVarLong(record, STRING_REF_BASE + (long) index);
+				return;
+			}
+			if (value.length() <= MAX_DICTIONARY_STRING_LENGTH && dictionary.size() < MAX_DICTIONARY_SIZE) {
+				dictionary.put(value, dictionary.size());
+				writeVarLong(record, STRING_NEW);
+			} else {
+				writeVarLong(record, STRING_LITERAL);
+			}
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			writeVarLong(record, bytes.length);
+			record.write(bytes);
+		}
+	}
+
+	/**
+	 * Reads test results back lazily, one record per {@link #next()}; the stream is closed once exhausted or on failure.
+	 */
+	public static final class Reader implements Iterator<TestResult>, Closeable {
+		private final DataInputStream in;
+		private final List<String> dictionary = new ArrayList<>();
+		private JUnitTestResult next;
+		private boolean closed;
+
+		public Reader(InputStream is) throws IOException {
+			in = new DataInputStream(new BufferedInputStream(is));
+			try {
+				int magic = in.readInt();
+				if (magic != MAGIC) {
+					throw new IOException("Not a test results stream, unexpected header " + Integer.toHexString(magic));
+				}
+				int version = in.readUnsignedByte();
+				if (version > VERSION) {
+					throw new IOException("Unsupported test results stream version " + version + ", max supported " + VERSION);
+				}
+			} catch (IOException e) {
+				close();
+				throw e;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (next != null) {
+				return true;
+			}
+			if (closed) {
+				return false;
+			}
+			try {
+				int tag = in.readUnsignedByte();
+				if (tag == TAG_END) {
+					close();
+					return false;
+				} else if (tag != TAG_RECORD) {
+					throw new IOException("Unexpected record tag " + tag);
+				}
+				byte[] body = new byte[readLength(in)];
+				in.readFully(body);
+				next = readRecord(new DataInputStream(new ByteArrayInputStream(body)));
+				return true;
+			} catch (IOException e) {
+				logger.error("Failed to read test results stream, remaining results are skipped", e); // NON-NLS
+				closeQuietly();
+				return false;
+			}
+		}
+
+		@Override
+		public TestResult next() {
+			if (hasNext()) {
+				JUnitTestResult value = next;
+				next = null;
+				return value;
+			} else {
+				throw new NoSuchElementException();
+			}
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!closed) {
+				closed = true;
+				dictionary.clear();
+				in.close();
+			}
+		}
+
+		private void closeQuietly() {
+			try {
+				close();
+			} catch (IOException ioe) {
+				logger.error("Failed to close the stream", ioe); // NON-NLS
+			}
+		}
+
+		private JUnitTestResult readRecord(DataInputStream record) throws IOException {
+			int flags = record.readUnsignedByte();
+			int statusCode = record.readUnsignedByte();
+			TestResultStatus status = null;
+			if (statusCode > 0) {
+				if (statusCode > TestResultStatus.values().length) {
+					throw new IOException("Unexpected test status code " + statusCode);
+				}
+				status = TestResultStatus.values()[statusCode - 1];
+			}
+			String moduleName = readString(record);
+			String packageName = readString(record);
+			String className = readString(record);
+			String testName = readString(record);
+			long duration = unZigZag(readVarLong(record));
+			long started = unZigZag(readVarLong(record));
+			String externalReportUrl = readString(record);
+			String description = readString(record);
+			TestError testError = null;
+			if ((flags & FLAG_HAS_ERROR) != 0) {
+				String stackTraceStr = readString(record);
+				String errorType = readString(record);
+				String errorMsg = readString(record);
+				testError = new TestError(stackTraceStr, errorType, errorMsg);
+			}
+			return new JUnitTestResult(moduleName, packageName, className, testName, status, duration, started, testError, externalReportUrl, description);
+		}
+
+		private String readString(DataInputStream record) throws IOException {
+			long code = readVarLong(record);
+			if (code == STRING_NULL) {
+				return null;
+			} else if (code >= STRING_REF_BASE) {
+				long index = code - STRING_REF_BASE;
+				if (index >= dictionary.size()) {
+					throw new IOException("Dangling string reference " + index);
+				}
+				return dictionary.get((int) index);
+			}
+			byte[] bytes = new byte[readLength(record)];
+			record.readFully(bytes);
+			String value = new String(bytes, StandardCharsets.UTF_8);
+			if (code == STRING_NEW) {
+				dictionary.add(value);
+			}
+			return value;
+		}
+	}
+
+	static void writeVarLong(DataOutput out, long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			out.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+
+	static long readVarLong(DataInput in) throws IOException {
+		long result = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = in.readUnsignedByte();
+			result |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return result;
+			}
+		}
+		throw new IOException("Malformed variable-length number");
+	}
+
+	private static int readLength(DataInput in) throws IOException {
+		long length = readVarLong(in);
+		if (length > Integer.MAX_VALUE) {
+			throw new IOException("Malformed length " + length);
+		}
+		return (int) length;
+	}
+
+	private static long zigZag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static long unZigZag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+}
@@ -20,9 +20,6 @@
 
 package com.microfocus.application.automation.tools.octane.tests.junit;
 
-import com.hp.octane.integrations.dto.DTOFactory;
-import com.hp.octane.integrations.dto.tests.Property;
-import com.hp.octane.integrations.dto.tests.TestSuite;
 import com.hp.octane.integrations.utils.SdkConstants;
 import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
 import com.microfocus.application.automation.tools.octane.tests.HPRunnerType;
@@ -36,15 +33,14 @@ import javax.xml.stream.events.Characters;
 import javax.xml.stream.events.EndElement;
 import javax.xml.stream.events.StartElement;
 import javax.xml.stream.events.XMLEvent;
-import java.io.File;
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Paths;
+import java.io.Reader;
 import java.text.DecimalFormat;
 import java.text.ParseException;
-import java.util.Collection;
-import java.util.List;
-import java.util.Optional;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
 /**
  * JUnit result parser and enricher according to HPRunnerType
@@ -70,19 +66,19 @@ public class JUnitXmlIterator extends AbstractXmlIterator<JUnitTestResult> {
 	private String errorMsg;
 	private String externalURL;
 	private String description;
-	private List<ModuleDetection> moduleDetection;
+	private WorkspaceFacts workspaceFacts;
 	private String jenkinsRootUrl;
-	private String sharedCheckOutDirectory;
 	private Object additionalContext;
 	private String filePath;
+	private String uftTestsRootPath;
+	private final StringBuilder uftReportsManifest = new StringBuilder();
 	public static final String SRL_REPORT_URL = "reportUrl";
 
-	public JUnitXmlIterator(InputStream read, List<ModuleDetection> moduleDetection, FilePath workspace, String sharedCheckOutDirectory, String jobName, String buildId, long buildStarted, boolean stripPackageAndClass, HPRunnerType hpRunnerType, String jenkinsRootUrl, Object additionalContext) throws XMLStreamException {
+	public JUnitXmlIterator(InputStream read, WorkspaceFacts workspaceFacts, FilePath workspace, String jobName, String buildId, long buildStarted, boolean stripPackageAndClass, HPRunnerType hpRunnerType, String jenkinsRootUrl, Object additionalContext) throws XMLStreamException {
 		super(read);
 		this.stripPackageAndClass = stripPackageAndClass;
-		this.moduleDetection = moduleDetection;
+		this.workspaceFacts = workspaceFacts;
 		this.workspace = workspace;
-		this.sharedCheckOutDirectory = sharedCheckOutDirectory;
 		this.buildId = buildId;
 		this.jobName = jobName;
 		this.buildStarted = buildStarted;
@@ -113,12 +109,7 @@ public class JUnitXmlIterator extends AbstractXmlIterator<JUnitTestResult> {
 			String localName = element.getName().getLocalPart();
 			if ("file".equals(localName)) {  // NON-NLS
 				filePath = readNextValue();
-				for (ModuleDetection detection : moduleDetection) {
-					moduleNameFromFile = moduleName = detection.getModule(new FilePath(new File(filePath)));
-					if (moduleName != null) {
-						break;
-					}
-				}
+				moduleNameFromFile = moduleName = workspaceFacts.getModule(filePath);
 			} else if ("id".equals(localName)) {
 				id = readNextValue();
 			} else if ("case".equals(localName)) { // NON-NLS
@@ -166,7 +157,7 @@ public class JUnitXmlIterator extends AbstractXmlIterator<JUnitTestResult> {
 
                 if (hpRunnerType.equals(HPRunnerType.UFT)) {
 					if (testName != null && testName.contains("..")) { //resolve existence of ../ - for example c://a/../b => c://b
-						testName = new File(testName).getCanonicalPath();
+						testName = normalizePath(testName);
 					}
 
                     String myPackageName = packageName;
@@ -177,7 +168,7 @@ public class JUnitXmlIterator extends AbstractXmlIterator<JUnitTestResult> {
 
 					// if workspace is prefix of the method name, cut it off
 					// currently this handling is needed for UFT tests
-					int uftTextIndexStart = getUftTestIndexStart(workspace, sharedCheckOutDirectory, testName);
+					int uftTextIndexStart = getUftTestIndexStart(testName);
 					if (uftTextIndexStart != -1) {
 						String path = testName.substring(uftTextIndexStart);
 						path = path.replace(SdkConstants.FileSystem.LINUX_PATH_SPLITTER, SdkConstants.FileSystem.WINDOWS_PATH_SPLITTER);
@@ -196,21 +187,18 @@ public class JUnitXmlIterator extends AbstractXmlIterator<JUnitTestResult> {
 
 					String cleanedTestName = cleanTestName(testName);
 					boolean testReportCreated = true;
-					if (additionalContext != null && additionalContext instanceof List) {
+					if (additionalContext instanceof UftReportFolders) {
 						//test folders are appear in the following format GUITest1[1], while [1] number of test. It possible that tests with the same name executed in the same job
 						//by adding [1] or [2] we can differentiate between different instances.
-						//We assume that test folders are sorted so in this section, once we found the test folder, we remove it from collection , in order to find the second instance in next iteration
-						List<String> createdTests = (List<String>) additionalContext;
-						String searchFor = cleanedTestName + "[";
-						Optional<String> optional = createdTests.stream().filter(str -> str.startsWith(searchFor)).findFirst();
-						if (optional.isPresent()) {
-							cleanedTestName = optional.get();
-							createdTests.remove(cleanedTestName);
+						//Once a folder is matched to a test, it is not offered again, in order to find the second instance in next iteration
+						String reportFolder = ((UftReportFolders) additionalContext).take(cleanedTestName);
+						if (reportFolder != null) {
+							cleanedTestName = reportFolder;
 						}
-						testReportCreated = optional.isPresent();
+						testReportCreated = reportFolder != null;
 					}
 
-					workspace.createTextTempFile("build" + buildId + "." + cleanTestName(testName) + ".", "", "Created  " + testReportCreated);
+					uftReportsManifest.append(cleanTestName(testName)).append(": Created  ").append(testReportCreated).append('\n');
 					if (testReportCreated) {
 						externalURL = jenkinsRootUrl + "job/" + jobName + "/" + buildId + "/artifact/UFTReport/" + cleanedTestName + "/run_results.html";
 					} else {
@@ -220,9 +208,10 @@ public class JUnitXmlIterator extends AbstractXmlIterator<JUnitTestResult> {
 				} else if (hpRunnerType.equals(HPRunnerType.PerformanceCenter)) {
 					externalURL = jenkinsRootUrl + "job/" + jobName + "/" + buildId + "/artifact/performanceTestsReports/pcRun/Report.html";
 				} else if (hpRunnerType.equals(HPRunnerType.StormRunnerLoad)) {
-					externalURL = tryGetStormRunnerReportURLFromJunitFile(filePath);
-					if (StringUtils.isEmpty(externalURL) && additionalContext != null && additionalContext instanceof Collection) {
-						externalURL = tryGetStormRunnerReportURLFromLog((Collection) additionalContext);
+					externalURL = workspaceFacts.getStormRunnerReportUrl(filePath);
+					if (StringUtils.isEmpty(externalURL) && additionalContext instanceof String) {
+						//report URL found in build log
+						externalURL = (String) additionalContext;
 					}
 				}
 			} else if ("duration".equals(localName)) { // NON-NLS
@@ -270,37 +259,23 @@ public class JUnitXmlIterator extends AbstractXmlIterator<JUnitTestResult> {
 		}
 	}
 
-	private static String tryGetStormRunnerReportURLFromLog(Collection logLines) {
+	/**
+	 * Scans the log line by line, nothing but the current line is held in memory
+	 */
+	static String tryGetStormRunnerReportURLFromLog(Reader log) throws IOException {
 		//console contains link to report
 		//link start with "View report:"
 		String VIEW_REPORT_PREFIX = "view report at:";
-		for (Object str : logLines) {
-			if (str instanceof String && ((String) str).toLowerCase().startsWith(VIEW_REPORT_PREFIX)) {
-				return  ((String) str).substring(VIEW_REPORT_PREFIX.length()).trim();
+		BufferedReader reader = log instanceof BufferedReader ? (BufferedReader) log : new BufferedReader(log);
+		String line;
+		while ((line = reader.readLine()) != null) {
+			if (line.regionMatches(true, 0, VIEW_REPORT_PREFIX, 0, VIEW_REPORT_PREFIX.length())) {
+				return line.substring(VIEW_REPORT_PREFIX.length()).trim();
 			}
 		}
 		return "";
 	}
 
-	private static String tryGetStormRunnerReportURLFromJunitFile(String path) {
-		try {
-			String srUrl = null;
-			File srReport = new File(path);
-			if (srReport.exists()) {
-				TestSuite testSuite = DTOFactory.getInstance().dtoFromXmlFile(srReport, TestSuite.class);
-				for (Property property : testSuite.getProperties()) {
-					if (property.getPropertyName().equals(SRL_REPORT_URL)) {
-						srUrl = property.getPropertyValue();
-						break;
-					}
-				}
-			}
-			return srUrl;
-		} catch (Exception e) {
-			logger.debug("Failed to getStormRunnerURL: " + e.getMessage());
-			return "";
-		}
-	}
 	private String extractValueFromStdout(String stdoutValue, String startString, String endString, String defaultValue) {
 		String result = defaultValue;
 		int startIndex = stdoutValue.indexOf(startString);
@@ -313,29 +288,49 @@ public class JUnitXmlIterator extends AbstractXmlIterator<JUnitTestResult> {
 		return result;
 	}
 
-	private int getUftTestIndexStart(FilePath workspace, String sharedCheckOutDirectory, String testName) {
-		int returnIndex = -1;
-		try {
-			if (sharedCheckOutDirectory == null) {
-				sharedCheckOutDirectory = "";
-			}
-			String pathToTest;
-			if (StringUtils.isEmpty(sharedCheckOutDirectory)) {
-				pathToTest = workspace.getRemote();
-			} else {
-				pathToTest = Paths.get(sharedCheckOutDirectory).isAbsolute() ?
-						sharedCheckOutDirectory :
-						Paths.get(workspace.getRemote(), sharedCheckOutDirectory).toFile().getCanonicalPath();
-			}
+	@Override
+	protected void onClose() throws IOException, InterruptedException {
+		//one manifest per report instead of a marker file per test
+		if (uftReportsManifest.length() > 0) {
+			workspace.createTextTempFile("build" + buildId + ".UFTReports.", ".txt", uftReportsManifest.toString());
+			uftReportsManifest.setLength(0);
+		}
+	}
 
+	private int getUftTestIndexStart(String testName) {
+		int returnIndex = -1;
+		if (uftTestsRootPath == null && workspaceFacts.getUftTestsRootPath() != null) {
+			uftTestsRootPath = workspaceFacts.getUftTestsRootPath().toLowerCase();
+		}
+		if (uftTestsRootPath != null && testName != null && testName.toLowerCase().startsWith(uftTestsRootPath)) {
+			returnIndex = uftTestsRootPath.length() + 1;
+		}
+		return returnIndex;
+	}
 
-			if (testName.toLowerCase().startsWith(pathToTest.toLowerCase())) {
-				returnIndex = pathToTest.length() + 1;
+	/**
+	 * Lexically resolves '.' and '..' segments, for example c:\a\..\b => c:\b; both path separators are supported
+	 */
+	static String normalizePath(String path) {
+		char separator = path.indexOf('\\') >= 0 ? '\\' : '/';
+		String[] segments = path.split("[\\\\/]", -1);
+		Deque<String> resolved = new ArrayDeque<>();
+		int rootSegments = 0;
+		for (String segment : segments) {
+			if ("..".equals(segment)) {
+				if (resolved.size() > rootSegments) {
+					resolved.removeLast();
+				}
+			} else if (!".".equals(segment) && !(segment.isEmpty() && resolved.size() > rootSegments)) {
+				resolved.addLast(segment);
+				if (resolved.size() - 1 == rootSegments && (segment.isEmpty() || segment.endsWith(":"))) {
+					//leading separator(s) and drive letter are never removed by '..'
+					rootSegments++;
+				}
 			}
-		} catch (Exception e) {
-			logger.error(String.format("Failed to getUftTestIndexStart for testName '%s' and sharedCheckOutDirectory '%s' : %s", testName, sharedCheckOutDirectory, e.getMessage()), e);
 		}
-		return returnIndex;
+		String result = String.join(String.valueOf(separator), resolved);
+		return result.isEmpty() && rootSegments > 0 ? String.valueOf(separator) : result;
 	}
 
 	private String cleanTestName(String testName) {
@@ -0,0 +1,83 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.tests.junit;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Trie of file system paths split to segments ('/' and '\' are both separators).
+ * Finds which of the registered paths are ancestors of a given path in O(path length).
+ */
+final class PathPrefixTrie<V> {
+	private static final Pattern SEPARATORS = Pattern.compile("[\\\\/]+");
+
+	private final Node<V> root = new Node<>();
+	private int size;
+
+	/**
+	 * Registers path; when several registered paths are ancestors of a looked up path,
+	 * the one registered first wins
+	 */
+	void put(String path, V value) {
+		Node<V> node = root;
+		for (String segment : SEPARATORS.split(path)) {
+			node = node.children.computeIfAbsent(segment, k -> new Node<>());
+		}
+		if (node.value == null) {
+			node.value = value;
+			node.order = size++;
+		}
+	}
+
+	/**
+	 * @return value of the first registered path that is equal to or an ancestor of the given path, null if none
+	 */
+	V findAncestor(String path) {
+		Node<V> node = root;
+		Node<V> found = null;
+		for (String segment : SEPARATORS.split(path)) {
+			node = node.children.get(segment);
+			if (node == null) {
+				break;
+			}
+			if (node.value != null && (found == null || node.order < found.order)) {
+				found = node;
+			}
+		}
+		return found == null ? null : found.value;
+	}
+
+	/**
+	 * @return true if both paths consist of the same segments, regardless of separators used
+	 */
+	static boolean isSamePath(String path1, String path2) {
+		return Arrays.equals(SEPARATORS.split(path1), SEPARATORS.split(path2));
+	}
+
+	private static final class Node<V> {
+		private final Map<String, Node<V>> children = new HashMap<>();
+		private V value;
+		private int order;
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.tests.junit;
+
+import com.microfocus.application.automation.tools.octane.tests.xml.AbstractXmlIterator;
+import hudson.FilePath;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Iterates result files (junit source reports resolved by the archiver) referenced by junitResult.xml
+ */
+public class ResultFileIterator extends AbstractXmlIterator<String> {
+
+	public ResultFileIterator(InputStream read) throws XMLStreamException {
+		super(read);
+	}
+
+	/**
+	 * @return distinct result files in the order of the report
+	 */
+	public static Set<String> readResultFiles(FilePath junitResultXml) throws IOException, InterruptedException {
+		Set<String> resultFiles = new LinkedHashSet<>();
+		try {
+			ResultFileIterator iterator = new ResultFileIterator(junitResultXml.read());
+			while (iterator.hasNext()) {
+				resultFiles.add(iterator.next());
+			}
+		} catch (XMLStreamException e) {
+			throw new IOException(e);
+		}
+		return resultFiles;
+	}
+
+	@Override
+	protected void onEvent(XMLEvent event) throws XMLStreamException {
+		if (event instanceof StartElement && "file".equals(((StartElement) event).getName().getLocalPart())) { // NON-NLS
+			addItem(readNextValue());
+		}
+	}
+}
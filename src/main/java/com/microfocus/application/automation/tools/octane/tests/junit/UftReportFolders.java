@@ -0,0 +1,81 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.tests.junit;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Names of UFT report folders archived by the build, for example GUITest1[1], GUITest1[2].
+ * Test executed several times in the same job gets a folder per execution; each folder is handed out once,
+ * in the order of the list, and lookups go through a prefix index instead of scanning the whole list.
+ */
+public class UftReportFolders implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private final List<String> folderNames;
+	private transient Map<String, Deque<Folder>> foldersByPrefix;
+
+	public UftReportFolders(List<String> folderNames) {
+		this.folderNames = new ArrayList<>(folderNames);
+	}
+
+	/**
+	 * @return first not yet taken folder which name starts with testName + "[", null if there is no such folder
+	 */
+	public synchronized String take(String testName) {
+		if (foldersByPrefix == null) {
+			foldersByPrefix = buildIndex(folderNames);
+		}
+		Deque<Folder> candidates = foldersByPrefix.get(testName + "[");
+		if (candidates != null) {
+			Folder folder;
+			while ((folder = candidates.pollFirst()) != null) {
+				if (!folder.taken) {
+					folder.taken = true;
+					return folder.name;
+				}
+			}
+		}
+		return null;
+	}
+
+	//folder is indexed under each of its prefixes ending with '[', so test names containing '[' are matched as well
+	private static Map<String, Deque<Folder>> buildIndex(List<String> folderNames) {
+		Map<String, Deque<Folder>> index = new HashMap<>();
+		for (String name : folderNames) {
+			Folder folder = new Folder(name);
+			for (int i = name.indexOf('['); i >= 0; i = name.indexOf('[', i + 1)) {
+				index.computeIfAbsent(name.substring(0, i + 1), k -> new ArrayDeque<>()).addLast(folder);
+			}
+		}
+		return index;
+	}
+
+	private static final class Folder {
+		private final String name;
+		private boolean taken;
+
+		private Folder(String name) {
+			this.name = name;
+		}
+	}
+}
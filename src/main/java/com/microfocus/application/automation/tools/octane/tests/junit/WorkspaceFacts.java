@@ -0,0 +1,139 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.tests.junit;
+
+import com.hp.octane.integrations.dto.DTOFactory;
+import com.hp.octane.integrations.dto.tests.Property;
+import com.hp.octane.integrations.dto.tests.TestSuite;
+import com.microfocus.application.automation.tools.octane.configuration.SDKBasedLoggerProvider;
+import hudson.FilePath;
+import org.apache.commons.lang.StringUtils;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Workspace dependent facts needed to enrich JUnit results: module of each result file, StormRunner report URLs
+ * and UFT tests root. Collected on the agent in a single call, so the reports themselves can be parsed on master.
+ */
+public class WorkspaceFacts implements Serializable {
+	private static final long serialVersionUID = 1L;
+	private static final Logger logger = SDKBasedLoggerProvider.getLogger(WorkspaceFacts.class);
+
+	private final Map<String, String> modules = new HashMap<>();
+	private final Map<String, String> stormRunnerReportUrls = new HashMap<>();
+	private String uftTestsRootPath;
+
+	/**
+	 * @return module of the result file, null if it is unknown
+	 */
+	public String getModule(String resultFile) {
+		return modules.get(resultFile);
+	}
+
+	/**
+	 * @return report URL found in StormRunner result file, null if there is none
+	 */
+	public String getStormRunnerReportUrl(String resultFile) {
+		return stormRunnerReportUrls.get(resultFile);
+	}
+
+	public String getUftTestsRootPath() {
+		return uftTestsRootPath;
+	}
+
+	void setModule(String resultFile, String module) {
+		modules.put(resultFile, module);
+	}
+
+	void setStormRunnerReportUrl(String resultFile, String url) {
+		stormRunnerReportUrls.put(resultFile, url);
+	}
+
+	void setUftTestsRootPath(String uftTestsRootPath) {
+		this.uftTestsRootPath = uftTestsRootPath;
+	}
+
+	/**
+	 * Has to run where the workspace lives
+	 */
+	static WorkspaceFacts collect(Collection<String> resultFiles, List<ModuleDetection> moduleDetection, FilePath workspace,
+	                              String sharedCheckOutDirectory, boolean uft, boolean stormRunner) throws IOException, InterruptedException {
+		WorkspaceFacts facts = new WorkspaceFacts();
+		for (String resultFile : resultFiles) {
+			for (ModuleDetection detection : moduleDetection) {
+				String module = detection.getModule(new FilePath(new File(resultFile)));
+				if (module != null) {
+					facts.setModule(resultFile, module);
+					break;
+				}
+			}
+			if (stormRunner) {
+				facts.setStormRunnerReportUrl(resultFile, tryGetStormRunnerReportURLFromJunitFile(resultFile));
+			}
+		}
+		if (uft) {
+			try {
+				facts.setUftTestsRootPath(resolveUftTestsRootPath(workspace, sharedCheckOutDirectory));
+			} catch (Exception e) {
+				logger.error(String.format("Failed to resolve UFT tests root path for sharedCheckOutDirectory '%s' : %s", sharedCheckOutDirectory, e.getMessage()), e);
+			}
+		}
+		return facts;
+	}
+
+	//canonical path of the shared checkout directory requires file system access
+	private static String resolveUftTestsRootPath(FilePath workspace, String sharedCheckOutDirectory) throws IOException {
+		if (StringUtils.isEmpty(sharedCheckOutDirectory)) {
+			return workspace.getRemote();
+		}
+		return Paths.get(sharedCheckOutDirectory).isAbsolute() ?
+				sharedCheckOutDirectory :
+				Paths.get(workspace.getRemote(), sharedCheckOutDirectory).toFile().getCanonicalPath();
+	}
+
+	private static String tryGetStormRunnerReportURLFromJunitFile(String path) {
+		try {
+			String srUrl = null;
+			File srReport = new File(path);
+			if (srReport.exists()) {
+				TestSuite testSuite = DTOFactory.getInstance().dtoFromXmlFile(srReport, TestSuite.class);
+				for (Property property : testSuite.getProperties()) {
+					if (property.getPropertyName().equals(JUnitXmlIterator.SRL_REPORT_URL)) {
+						srUrl = property.getPropertyValue();
+						break;
+					}
+				}
+			}
+			return srUrl;
+		} catch (Exception e) {
+			logger.debug("Failed to getStormRunnerURL: " + e.getMessage());
+			return "";
+		}
+	}
+}
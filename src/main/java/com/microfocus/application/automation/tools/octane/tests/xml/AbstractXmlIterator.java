@@ -62,6 +62,7 @@ public abstract class AbstractXmlIterator<E> {
                 }
                 IOUtils.closeQuietly(is);
                 closed = true;
+                onClose();
             }
         }
         return !queue.isEmpty();
@@ -77,6 +78,12 @@ public abstract class AbstractXmlIterator<E> {
 
     protected abstract void onEvent(XMLEvent event) throws XMLStreamException, IOException, InterruptedException;
 
+    /**
+     * Called once the whole input was read
+     */
+    protected void onClose() throws IOException, InterruptedException {
+    }
+
     protected void addItem(E item) {
         queue.add(item);
     }
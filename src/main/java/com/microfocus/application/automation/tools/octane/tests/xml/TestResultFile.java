@@ -0,0 +1,58 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.tests.xml;
+
+import java.io.*;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Access to mqmTests.xml, which is stored gzip-compressed;
+ * files written by older plugin versions are plain XML and are read as is
+ */
+public final class TestResultFile {
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private TestResultFile() {
+		//for code climate
+	}
+
+	public static boolean isCompressed(File file) throws IOException {
+		try (InputStream is = new FileInputStream(file)) {
+			return is.read() == (GZIPInputStream.GZIP_MAGIC & 0xFF) && is.read() == (GZIPInputStream.GZIP_MAGIC >> 8);
+		}
+	}
+
+	/**
+	 * @return stream of plain XML regardless of how the file is stored
+	 */
+	public static InputStream openXml(File file) throws IOException {
+		InputStream is = new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE);
+		if (isCompressed(file)) {
+			try {
+				return new GZIPInputStream(is, BUFFER_SIZE);
+			} catch (IOException e) {
+				is.close();
+				throw e;
+			}
+		}
+		return is;
+	}
+}
@@ -27,21 +27,23 @@ import com.microfocus.application.automation.tools.octane.tests.detection.Result
 import com.microfocus.application.automation.tools.octane.tests.testResult.TestResult;
 import hudson.FilePath;
 import hudson.model.Run;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 
 import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Iterator;
+import java.util.zip.GZIPOutputStream;
 
 /**
- * Save results to mqmTests.xml in XML format
+ * Save results to mqmTests.xml in gzip-compressed XML format
  */
 @SuppressWarnings("all")
 public class TestResultXmlWriter {
+	private static final int BUFFER_SIZE = 64 * 1024;
 
 	private FilePath targetPath;
 	private BuildDescriptor buildDescriptor;
@@ -78,13 +80,17 @@ public class TestResultXmlWriter {
 			writer.writeEndElement(); // test_result
 			writer.writeEndDocument();
 			writer.close();
-			IOUtils.closeQuietly(outputStream);
+			try {
+				outputStream.close();
+			} catch (IOException ioe) {
+				throw new XMLStreamException("failed to finalize " + targetPath.getRemote(), ioe);
+			}
 		}
 	}
 
 	private void initialize(ResultFields resultFields) throws IOException, InterruptedException, XMLStreamException {
 		if (outputStream == null) {
-			outputStream = targetPath.write();
+			outputStream = new BufferedOutputStream(new GZIPOutputStream(targetPath.write(), BUFFER_SIZE), BUFFER_SIZE);
 			writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outputStream);
 			writer.writeStartDocument();
 
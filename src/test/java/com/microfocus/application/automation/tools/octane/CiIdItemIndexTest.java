@@ -0,0 +1,123 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane;
+
+import hudson.model.FreeStyleProject;
+import hudson.model.Item;
+import hudson.model.Items;
+import hudson.model.User;
+import hudson.security.ACL;
+import hudson.security.ACLContext;
+import jenkins.model.Jenkins;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+import org.jvnet.hudson.test.MockAuthorizationStrategy;
+import org.jvnet.hudson.test.MockFolder;
+
+@SuppressWarnings({"squid:S2699", "squid:S3658", "squid:S2259", "squid:S1872", "squid:S2925", "squid:S109", "squid:S1607", "squid:S2701"})
+public class CiIdItemIndexTest {
+
+	@ClassRule
+	public static final JenkinsRule rule = new JenkinsRule();
+
+	@Test
+	public void testRenameMoveAndDeleteAreReflected() throws Exception {
+		MockFolder folder = rule.createFolder("index-folder");
+		FreeStyleProject project = folder.createProject(FreeStyleProject.class, "index-job");
+		Assert.assertSame(project, getItem("index-folder/job/index-job"));
+
+		project.renameTo("index-renamed");
+		Assert.assertNull(getItem("index-folder/job/index-job"));
+		Assert.assertSame(project, getItem("index-folder/job/index-renamed"));
+
+		Items.move(project, rule.jenkins);
+		Assert.assertNull(getItem("index-folder/job/index-renamed"));
+		Assert.assertSame(project, getItem("index-renamed"));
+
+		project.delete();
+		Assert.assertNull(getItem("index-renamed"));
+	}
+
+	@Test
+	public void testChangesDropOnlyAffectedEntries() throws Exception {
+		FreeStyleProject kept = rule.createFreeStyleProject("entries-kept");
+		MockFolder folder = rule.createFolder("entries-folder");
+		folder.createProject(FreeStyleProject.class, "entries-job");
+		Assert.assertSame(kept, getItem("entries-kept"));
+		Assert.assertNotNull(getItem("entries-folder/job/entries-job"));
+		Assert.assertNull(getItem("entries-missing"));
+
+		//id of a missing item is resolved again once the item is created
+		FreeStyleProject created = rule.createFreeStyleProject("entries-missing");
+		Assert.assertTrue(CiIdItemIndex.isIndexed("entries-kept"));
+		Assert.assertFalse(CiIdItemIndex.isIndexed("entries-missing"));
+		Assert.assertSame(created, getItem("entries-missing"));
+
+		//moving a folder drops entries of the items within it
+		folder.renameTo("entries-folder-renamed");
+		Assert.assertTrue(CiIdItemIndex.isIndexed("entries-kept"));
+		Assert.assertFalse(CiIdItemIndex.isIndexed("entries-folder/job/entries-job"));
+		Assert.assertNull(getItem("entries-folder/job/entries-job"));
+		Assert.assertNotNull(getItem("entries-folder-renamed/job/entries-job"));
+
+		created.delete();
+		Assert.assertTrue(CiIdItemIndex.isIndexed("entries-kept"));
+		Assert.assertNull(getItem("entries-missing"));
+	}
+
+	@Test
+	public void testUserGetsFallbackItemWhenPreferredOneIsHidden() throws Exception {
+		//Octane may send f1/f2/f1/f2/jobA for f1/f2/jobA; here both exist
+		MockFolder f1 = rule.createFolder("f1");
+		MockFolder f2 = f1.createProject(MockFolder.class, "f2");
+		FreeStyleProject fallback = f2.createProject(FreeStyleProject.class, "jobA");
+		MockFolder nestedF1 = f2.createProject(MockFolder.class, "f1");
+		MockFolder nestedF2 = nestedF1.createProject(MockFolder.class, "f2");
+		FreeStyleProject preferred = nestedF2.createProject(FreeStyleProject.class, "jobA");
+
+		rule.jenkins.setSecurityRealm(rule.createDummySecurityRealm());
+		rule.jenkins.setAuthorizationStrategy(new MockAuthorizationStrategy()
+				.grant(Jenkins.ADMINISTER).everywhere().to("admin")
+				.grant(Jenkins.READ).everywhere().to("user")
+				.grant(Item.READ).onPaths("f1", "f1/f2", "f1/f2/jobA").to("user"));
+		try {
+			String ciId = "f1/job/f2/job/f1/job/f2/job/jobA";
+			try (ACLContext ignored = ACL.as(User.getById("admin", true).impersonate())) {
+				Assert.assertSame(preferred, getItem(ciId));
+			}
+			try (ACLContext ignored = ACL.as(User.getById("user", true).impersonate())) {
+				Assert.assertSame(fallback, getItem(ciId));
+			}
+			try (ACLContext ignored = ACL.as(User.getById("stranger", true).impersonate())) {
+				Assert.assertNull(getItem(ciId));
+			}
+		} finally {
+			rule.jenkins.setAuthorizationStrategy(null);
+			rule.jenkins.setSecurityRealm(null);
+		}
+	}
+
+	private static Item getItem(String ciId) {
+		return CiIdItemIndex.getItem(ciId, CIJenkinsServicesImpl::getItemNamesByRefId);
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class OrderedTaskExecutorTest {
+
+	@Test
+	public void testSameKeyTasksRunInSubmissionOrder() throws InterruptedException {
+		OrderedTaskExecutor executor = new OrderedTaskExecutor("test", 4, 1000);
+		Map<String, List<Integer>> executed = new HashMap<>();
+		for (int i = 0; i < 200; i++) {
+			String key = "job" + (i % 5);
+			int number = i;
+			executor.submit(key, () -> {
+				synchronized (executed) {
+					executed.computeIfAbsent(key, k -> new ArrayList<>()).add(number);
+				}
+			});
+		}
+
+		Assert.assertTrue(executor.awaitIdle(10, TimeUnit.SECONDS));
+		Assert.assertEquals(5, executed.size());
+		for (List<Integer> numbers : executed.values()) {
+			List<Integer> sorted = new ArrayList<>(numbers);
+			Collections.sort(sorted);
+			Assert.assertEquals(40, numbers.size());
+			Assert.assertEquals(sorted, numbers);
+		}
+		Assert.assertEquals(0, executor.getQueueDepth());
+		Assert.assertEquals(200L, executor.getMetrics().get("completed"));
+		executor.shutdown(1, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void testFullExecutorRejectsTaskWithoutRunningIt() throws InterruptedException {
+		OrderedTaskExecutor executor = new OrderedTaskExecutor("test", 1, 1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<String> executed = Collections.synchronizedList(new ArrayList<>());
+		Assert.assertTrue(executor.submit("job", () -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			executed.add("first");
+		}));
+
+		long started = System.currentTimeMillis();
+		Assert.assertFalse(executor.submit("job", () -> executed.add("second")));
+		Assert.assertTrue("submit must not wait for a free slot", System.currentTimeMillis() - started < 1000);
+		Assert.assertTrue(executed.isEmpty());
+		release.countDown();
+
+		Assert.assertTrue(executor.awaitIdle(10, TimeUnit.SECONDS));
+		Assert.assertEquals(Collections.singletonList("first"), executed);
+		Assert.assertEquals(1L, executor.getMetrics().get("rejected"));
+		executor.shutdown(1, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void testSubmitWaitsForFreeSlot() throws InterruptedException {
+		OrderedTaskExecutor executor = new OrderedTaskExecutor("test", 1, 1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<String> executed = Collections.synchronizedList(new ArrayList<>());
+		Assert.assertTrue(executor.submit("job", () -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			executed.add("first");
+		}));
+
+		Assert.assertFalse(executor.submit("job", () -> executed.add("timed out"), 100, TimeUnit.MILLISECONDS));
+		new Thread(() -> {
+			try {
+				Thread.sleep(200);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			release.countDown();
+		}).start();
+		Assert.assertTrue(executor.submit("job", () -> executed.add("second"), 10, TimeUnit.SECONDS));
+
+		Assert.assertTrue(executor.awaitIdle(10, TimeUnit.SECONDS));
+		Assert.assertEquals(Arrays.asList("first", "second"), executed);
+		Assert.assertEquals(1L, executor.getMetrics().get("rejected"));
+		executor.shutdown(1, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void testShutDownExecutorRejectsTask() {
+		OrderedTaskExecutor executor = new OrderedTaskExecutor("test", 1, 10);
+		executor.shutdown(1, TimeUnit.SECONDS);
+		List<String> executed = Collections.synchronizedList(new ArrayList<>());
+
+		Assert.assertFalse(executor.submit("job", () -> executed.add("late")));
+		Assert.assertTrue(executed.isEmpty());
+		Assert.assertEquals(1L, executor.getMetrics().get("rejected"));
+	}
+
+	@Test
+	public void testFailingTaskDoesNotBlockKey() throws InterruptedException {
+		OrderedTaskExecutor executor = new OrderedTaskExecutor("test", 2, 10);
+		List<String> executed = Collections.synchronizedList(new ArrayList<>());
+		executor.submit("job", () -> {
+			throw new IllegalStateException("expected");
+		});
+		executor.submit("job", () -> executed.add("second"));
+
+		Assert.assertTrue(executor.awaitIdle(10, TimeUnit.SECONDS));
+		Assert.assertEquals(Collections.singletonList("second"), executed);
+		Assert.assertEquals(1L, executor.getMetrics().get("failed"));
+		executor.shutdown(1, TimeUnit.SECONDS);
+	}
+}
@@ -29,14 +29,26 @@ import com.hp.octane.integrations.dto.pipelines.PipelineNode;
 import com.microfocus.application.automation.tools.octane.OctanePluginTestBase;
 import com.microfocus.application.automation.tools.octane.actions.PluginActions;
 import com.microfocus.application.automation.tools.octane.configuration.ConfigurationService;
+import com.microfocus.application.automation.tools.octane.model.processors.scm.GitTestUtils;
 import com.microfocus.application.automation.tools.octane.tests.TestUtils;
 import hudson.model.*;
+import jenkins.branch.BranchSource;
 import jenkins.model.Jenkins;
+import jenkins.plugins.git.GitSCMSource;
+import jenkins.plugins.git.traits.BranchDiscoveryTrait;
+import org.eclipse.jgit.api.Git;
+import org.jenkinsci.plugins.workflow.multibranch.WorkflowMultiBranchProject;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.xml.sax.SAXException;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
 
 import static org.junit.Assert.*;
@@ -52,6 +64,9 @@ import static org.junit.Assert.*;
 @SuppressWarnings({"squid:S2699", "squid:S3658", "squid:S2259", "squid:S1872", "squid:S2925", "squid:S109", "squid:S1607", "squid:S2701", "squid:S3578", "squid:S2698"})
 public class PluginActionsTest extends OctanePluginTestBase {
 
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
 	@Test
 	public void testPluginActionsMethods() {
 		PluginActions pluginActions = new PluginActions();
@@ -151,4 +166,73 @@ public class PluginActionsTest extends OctanePluginTestBase {
 		assertEquals("file param", response.getJobs()[0].getParameters().get(2).getDescription());
 		assertEquals("", response.getJobs()[0].getParameters().get(2).getDefaultValue());
 	}
+
+	@Test
+	public void testPluginActions_REST_Jobs_FollowsRenameAndDelete() throws Exception {
+		String projectName = "root-job-" + UUID.randomUUID().toString();
+		String taskUrl = "nga/api/v1/jobs";
+
+		FreeStyleProject fsp = rule.createFreeStyleProject(projectName);
+		assertTrue(getJobNames(TestUtils.sendTask(taskUrl, CIJobsList.class)).contains(projectName));
+
+		fsp.renameTo(projectName + "-renamed");
+		List<String> jobNames = getJobNames(TestUtils.sendTask(taskUrl, CIJobsList.class));
+		assertFalse(jobNames.contains(projectName));
+		assertTrue(jobNames.contains(projectName + "-renamed"));
+
+		fsp.delete();
+		assertFalse(getJobNames(TestUtils.sendTask(taskUrl, CIJobsList.class)).contains(projectName + "-renamed"));
+	}
+
+	@Test
+	public void testPluginActions_REST_Jobs_OrderedByNameIgnoringCase() throws Exception {
+		String taskUrl = "nga/api/v1/jobs";
+		List<FreeStyleProject> projects = Arrays.asList(
+				rule.createFreeStyleProject("order-job-b"),
+				rule.createFreeStyleProject("Order-Job-A"),
+				rule.createFreeStyleProject("order-job-C"));
+		try {
+			List<String> jobNames = getJobNames(TestUtils.sendTask(taskUrl, CIJobsList.class));
+			jobNames.removeIf(name -> !name.toLowerCase().startsWith("order-job-"));
+			assertEquals(Arrays.asList("Order-Job-A", "order-job-b", "order-job-C"), jobNames);
+		} finally {
+			for (FreeStyleProject project : projects) {
+				project.delete();
+			}
+		}
+	}
+
+	@Test
+	public void testPluginActions_REST_Jobs_MultiBranchListedOnce() throws Exception {
+		String taskUrl = "nga/api/v1/jobs";
+		File repo = tmp.newFolder("repo");
+		WorkflowMultiBranchProject multiBranch = rule.createProject(WorkflowMultiBranchProject.class, "multibranch-jobs");
+		try (Git git = Git.init().setDirectory(repo).call()) {
+			GitTestUtils.commit(git, "Jenkinsfile", "echo 'branch'");
+			git.branchCreate().setName("feature").call();
+
+			GitSCMSource source = new GitSCMSource(repo.toURI().toString());
+			source.setTraits(Collections.singletonList(new BranchDiscoveryTrait()));
+			multiBranch.getSourcesList().add(new BranchSource(source));
+			multiBranch.scheduleBuild2(0).getFuture().get();
+			rule.waitUntilNoActivity();
+			assertEquals(2, multiBranch.getItems().size());
+
+			List<String> jobNames = getJobNames(TestUtils.sendTask(taskUrl, CIJobsList.class));
+			assertEquals(1, Collections.frequency(jobNames, "multibranch-jobs"));
+			for (String jobName : jobNames) {
+				assertFalse(jobName.startsWith("multibranch-jobs/"));
+			}
+		} finally {
+			multiBranch.delete();
+		}
+	}
+
+	private static List<String> getJobNames(CIJobsList jobsList) {
+		List<String> result = new ArrayList<>();
+		for (PipelineNode ciJob : jobsList.getJobs()) {
+			result.add(ciJob.getName());
+		}
+		return result;
+	}
 }
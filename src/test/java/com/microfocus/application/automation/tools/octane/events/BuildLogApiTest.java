@@ -0,0 +1,54 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+
+package com.microfocus.application.automation.tools.octane.events;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BuildLogApiTest {
+
+	@Test
+	public void testWholeLogIsServedWithoutValidSingleRange() {
+		Assert.assertNull(BuildLogApi.parseRange(null, 100));
+		Assert.assertNull(BuildLogApi.parseRange("items=0-10", 100));
+		Assert.assertNull(BuildLogApi.parseRange("bytes=0-10,20-30", 100));
+		Assert.assertNull(BuildLogApi.parseRange("bytes=10", 100));
+		Assert.assertNull(BuildLogApi.parseRange("bytes=a-10", 100));
+		Assert.assertNull(BuildLogApi.parseRange("bytes=20-10", 100));
+	}
+
+	@Test
+	public void testRangesAreResolvedAgainstLogLength() {
+		Assert.assertArrayEquals(new long[]{0, 9}, BuildLogApi.parseRange("bytes=0-9", 100));
+		Assert.assertArrayEquals(new long[]{40, 99}, BuildLogApi.parseRange("bytes=40-", 100));
+		Assert.assertArrayEquals(new long[]{90, 99}, BuildLogApi.parseRange("bytes=90-500", 100));
+		Assert.assertArrayEquals(new long[]{80, 99}, BuildLogApi.parseRange("bytes=-20", 100));
+		Assert.assertArrayEquals(new long[]{0, 99}, BuildLogApi.parseRange("bytes=-500", 100));
+	}
+
+	@Test
+	public void testRangeBeyondLogIsUnsatisfiable() {
+		Assert.assertSame(BuildLogApi.UNSATISFIABLE, BuildLogApi.parseRange("bytes=100-", 100));
+		Assert.assertSame(BuildLogApi.UNSATISFIABLE, BuildLogApi.parseRange("bytes=-0", 100));
+		Assert.assertSame(BuildLogApi.UNSATISFIABLE, BuildLogApi.parseRange("bytes=0-", 0));
+	}
+}
@@ -0,0 +1,53 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.events;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+public class BuildLogFileTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@Test
+	public void testLogIsStoredCompressed() throws IOException {
+		StringBuilder log = new StringBuilder();
+		for (int i = 0; i < 20000; i++) {
+			log.append("line ").append(i).append(" of the build log\n");
+		}
+		byte[] bytes = log.toString().getBytes(StandardCharsets.UTF_8);
+		File target = tmp.newFile(BuildLogFile.LOG_FILE_NAME);
+
+		BuildLogFile.write(new ByteArrayInputStream(bytes), target);
+		Assert.assertTrue(target.length() < bytes.length / 5);
+
+		try (InputStream is = BuildLogFile.openCompressed(target)) {
+			Assert.assertArrayEquals(bytes, IOUtils.toByteArray(is));
+		}
+	}
+}
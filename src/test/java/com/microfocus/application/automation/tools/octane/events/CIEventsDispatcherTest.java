@@ -0,0 +1,107 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.events;
+
+import com.hp.octane.integrations.dto.DTOFactory;
+import com.hp.octane.integrations.dto.events.CIEvent;
+import com.hp.octane.integrations.dto.events.CIEventType;
+import com.hp.octane.integrations.dto.events.PhaseType;
+import com.hp.octane.integrations.dto.snapshots.CIBuildResult;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class CIEventsDispatcherTest {
+	private static final DTOFactory dtoFactory = DTOFactory.getInstance();
+
+	@Test
+	public void testEventsAreDeliveredInPublishOrder() throws InterruptedException {
+		List<CIEvent> delivered = Collections.synchronizedList(new ArrayList<>());
+		CIEventsDispatcher dispatcher = new CIEventsDispatcher("test", 20, 50, delivered::addAll);
+		List<CIEvent> published = new ArrayList<>();
+		for (int i = 0; i < 300; i++) {
+			CIEvent event = stageEvent(i % 2 == 0 ? CIEventType.STARTED : CIEventType.FINISHED, "stage" + i / 2, "run" + i % 3);
+			published.add(event);
+			dispatcher.publish(event);
+		}
+
+		long deadline = System.currentTimeMillis() + 10000;
+		while (delivered.size() < published.size() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+		Assert.assertEquals(published, delivered);
+		Assert.assertEquals(0, dispatcher.getQueueDepth());
+		Assert.assertEquals(300L, dispatcher.getMetrics().get("delivered"));
+	}
+
+	@Test
+	public void testRepeatedEventsAreAllDelivered() {
+		List<CIEvent> delivered = new ArrayList<>();
+		CIEventsDispatcher dispatcher = new CIEventsDispatcher("test", 60000, 1000, delivered::addAll);
+		//  same-named parallel stages of one run may produce events equal in every field
+		List<CIEvent> published = Arrays.asList(
+				stageEvent(CIEventType.STARTED, "test", "1"),
+				stageEvent(CIEventType.STARTED, "test", "1"),
+				stageEvent(CIEventType.FINISHED, "test", "1").setDuration(10L).setResult(CIBuildResult.SUCCESS),
+				stageEvent(CIEventType.FINISHED, "test", "1").setDuration(10L).setResult(CIBuildResult.SUCCESS));
+		published.forEach(dispatcher::publish);
+		dispatcher.flush();
+
+		Assert.assertEquals(published, delivered);
+	}
+
+	@Test
+	public void testFlushDeliversPendingEventsAsOneBatch() {
+		List<List<CIEvent>> batches = new ArrayList<>();
+		CIEventsDispatcher dispatcher = new CIEventsDispatcher("test", 60000, 1000, batches::add);
+		dispatcher.publish(stageEvent(CIEventType.STARTED, "build", "1"));
+		dispatcher.publish(stageEvent(CIEventType.STARTED, "build", "1"));
+		dispatcher.publish(stageEvent(CIEventType.FINISHED, "build", "1"));
+		dispatcher.flush();
+
+		Assert.assertEquals(1, batches.size());
+		Assert.assertEquals(3, batches.get(0).size());
+		Assert.assertEquals(0, dispatcher.getQueueDepth());
+	}
+
+	@Test
+	public void testZeroWindowDeliversOnPublishingThread() {
+		List<CIEvent> delivered = new ArrayList<>();
+		CIEventsDispatcher dispatcher = new CIEventsDispatcher("test", 0, 1000, delivered::addAll);
+		CIEvent event = stageEvent(CIEventType.STARTED, "build", "1");
+		dispatcher.publish(event);
+		Assert.assertEquals(Collections.singletonList(event), delivered);
+	}
+
+	private static CIEvent stageEvent(CIEventType type, String stage, String buildCiId) {
+		return dtoFactory.newDTO(CIEvent.class)
+				.setEventType(type)
+				.setPhaseType(PhaseType.INTERNAL)
+				.setProject(stage)
+				.setBuildCiId(buildCiId)
+				.setNumber(buildCiId)
+				.setStartTime(1000L);
+	}
+}
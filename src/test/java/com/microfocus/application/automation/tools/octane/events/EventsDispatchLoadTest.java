@@ -0,0 +1,165 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.events;
+
+import com.hp.octane.integrations.dto.DTOFactory;
+import com.hp.octane.integrations.dto.events.CIEvent;
+import com.hp.octane.integrations.dto.events.CIEventType;
+import com.hp.octane.integrations.dto.events.CIEventsList;
+import com.hp.octane.integrations.dto.events.PhaseType;
+import com.hp.octane.integrations.dto.snapshots.CIBuildResult;
+import com.microfocus.application.automation.tools.model.OctaneServerSettingsModel;
+import com.microfocus.application.automation.tools.octane.CIJenkinsServicesImpl;
+import com.microfocus.application.automation.tools.octane.OctaneServerMock;
+import com.microfocus.application.automation.tools.octane.configuration.ConfigurationService;
+import hudson.util.Secret;
+import org.eclipse.jetty.server.Request;
+import org.junit.*;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.*;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+
+/**
+ * Synthetic load generator for events publishing: simulates pipelines with many short stages
+ * and measures how fast the events reach the Octane server mock
+ */
+@SuppressWarnings({"squid:S2699", "squid:S3658", "squid:S2925"})
+public class EventsDispatchLoadTest {
+	private static final Logger logger = Logger.getLogger(EventsDispatchLoadTest.class.getName());
+	private static final DTOFactory dtoFactory = DTOFactory.getInstance();
+
+	private static final String sharedSpaceId = "1017";
+	private static final int RUNS = 20;
+	private static final int STAGES_PER_RUN = 25;
+	private static final EventsCountingHandler eventsHandler = new EventsCountingHandler();
+
+	@ClassRule
+	public static final JenkinsRule rule = new JenkinsRule();
+
+	@BeforeClass
+	public static void beforeClass() {
+		OctaneServerMock serverMock = OctaneServerMock.getInstance();
+		assertTrue(serverMock.isRunning());
+		serverMock.addTestSpecificHandler(eventsHandler);
+
+		OctaneServerSettingsModel model = new OctaneServerSettingsModel(
+				"http://127.0.0.1:" + serverMock.getPort() + "/ui?p=" + sharedSpaceId,
+				"some",
+				Secret.fromString("pass"),
+				"");
+		ConfigurationService.configurePlugin(model);
+	}
+
+	@AfterClass
+	public static void afterClass() {
+		OctaneServerMock.getInstance().removeTestSpecificHandler(eventsHandler);
+	}
+
+	@Test
+	public void testManyShortStages() throws InterruptedException {
+		CIEventsDispatcher dispatcher = CIEventsDispatcher.getInstance();
+
+		//runs progress interleaved, as concurrent pipelines do
+		int published = 0;
+		long started = System.currentTimeMillis();
+		for (int stage = 0; stage < STAGES_PER_RUN; stage++) {
+			for (int run = 0; run < RUNS; run++) {
+				CIJenkinsServicesImpl.publishEventToRelevantClients(stageEvent(CIEventType.STARTED, run, stage));
+				CIJenkinsServicesImpl.publishEventToRelevantClients(stageEvent(CIEventType.FINISHED, run, stage));
+				published += 2;
+			}
+		}
+		long publishMillis = System.currentTimeMillis() - started;
+		//hand whatever is still pending to the clients now, not at the end of the window
+		dispatcher.flush();
+		assertEquals(0, dispatcher.getQueueDepth());
+
+		long deadline = System.currentTimeMillis() + 60000;
+		while (eventsHandler.getReceived().size() < published && System.currentTimeMillis() < deadline) {
+			Thread.sleep(100);
+		}
+		long deliverMillis = System.currentTimeMillis() - started;
+		List<CIEvent> received = eventsHandler.getReceived();
+		logger.info("EVENTS LOAD: published " + published + " events in " + publishMillis + " ms, " +
+				received.size() + " reached server in " + deliverMillis + " ms (" +
+				(received.size() * 1000L / Math.max(1, deliverMillis)) + " events/sec); dispatch metrics " + dispatcher.getMetrics());
+
+		assertEquals(published, received.size());
+
+		//per run: every stage is started before it is finished, stages go one after another
+		Map<String, List<String>> byRun = new HashMap<>();
+		for (CIEvent event : received) {
+			byRun.computeIfAbsent(event.getBuildCiId(), k -> new ArrayList<>()).add(event.getEventType() + ":" + event.getProject());
+		}
+		assertEquals(RUNS, byRun.size());
+		for (List<String> runEvents : byRun.values()) {
+			assertEquals(STAGES_PER_RUN * 2, runEvents.size());
+			for (int stage = 0; stage < STAGES_PER_RUN; stage++) {
+				assertEquals(CIEventType.STARTED + ":stage" + stage, runEvents.get(stage * 2));
+				assertEquals(CIEventType.FINISHED + ":stage" + stage, runEvents.get(stage * 2 + 1));
+			}
+		}
+	}
+
+	private static CIEvent stageEvent(CIEventType type, int run, int stage) {
+		CIEvent event = dtoFactory.newDTO(CIEvent.class)
+				.setEventType(type)
+				.setPhaseType(PhaseType.INTERNAL)
+				.setProject("stage" + stage)
+				.setBuildCiId("load-run-" + run)
+				.setNumber(String.valueOf(run))
+				.setStartTime(1000L + stage);
+		if (CIEventType.FINISHED.equals(type)) {
+			event.setDuration(1L).setResult(CIBuildResult.SUCCESS);
+		}
+		return event;
+	}
+
+	private static final class EventsCountingHandler extends OctaneServerMock.TestSpecificHandler {
+		private final List<CIEvent> received = new ArrayList<>();
+
+		@Override
+		public boolean ownsUrlToProcess(String url) {
+			return ("/internal-api/shared_spaces/" + sharedSpaceId + "/analytics/ci/events").equals(url);
+		}
+
+		@Override
+		public void handle(String s, Request baseRequest, HttpServletRequest request, HttpServletResponse response) throws IOException {
+			CIEventsList eventsList = dtoFactory.dtoFromJson(getBodyAsString(baseRequest), CIEventsList.class);
+			synchronized (received) {
+				received.addAll(eventsList.getEvents());
+			}
+			response.setStatus(HttpServletResponse.SC_OK);
+		}
+
+		private List<CIEvent> getReceived() {
+			synchronized (received) {
+				return new ArrayList<>(received);
+			}
+		}
+	}
+}
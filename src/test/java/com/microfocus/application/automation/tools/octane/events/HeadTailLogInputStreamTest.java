@@ -0,0 +1,110 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.events;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.lang.StringUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+public class HeadTailLogInputStreamTest {
+
+	@Test
+	public void testMiddleLinesAreReplacedByMarker() throws IOException {
+		String result = truncate(lines(1, 10), 2, 3);
+		Assert.assertEquals("line 1\nline 2\n" + String.format(HeadTailLogInputStream.OMITTED_LINES_MARKER, 5) + "line 8\nline 9\nline 10\n", result);
+	}
+
+	@Test
+	public void testShortLogIsKeptAsIs() throws IOException {
+		Assert.assertEquals(lines(1, 5), truncate(lines(1, 5), 2, 3));
+		Assert.assertEquals(lines(1, 5), truncate(lines(1, 5), 10, 0));
+		Assert.assertEquals("a\nb", truncate("a\nb", 1, 1));
+	}
+
+	@Test
+	public void testHeadOnlyAndTailOnly() throws IOException {
+		Assert.assertEquals("line 1\n" + String.format(HeadTailLogInputStream.OMITTED_LINES_MARKER, 9), truncate(lines(1, 10), 1, 0));
+		Assert.assertEquals(String.format(HeadTailLogInputStream.OMITTED_LINES_MARKER, 8) + "line 9\nline 10", truncate(lines(1, 10).trim(), 0, 2));
+	}
+
+	@Test
+	public void testLargeLogIsReadInChunks() throws IOException {
+		String log = lines(1, 200000);
+		String result = truncate(log, 1000, 1000);
+		Assert.assertTrue(result.startsWith(lines(1, 1000) + String.format(HeadTailLogInputStream.OMITTED_LINES_MARKER, 198000)));
+		Assert.assertTrue(result.endsWith(lines(199001, 200000)));
+	}
+
+	@Test
+	public void testZeroHeadLinesKeepOnlyTailAndZeroBothKeepWholeLog() throws IOException {
+		String log = lines(1, 10);
+		try (InputStream is = BuildLogFile.truncate(new ByteArrayInputStream(log.getBytes(StandardCharsets.UTF_8)), 0, 3)) {
+			Assert.assertEquals(String.format(HeadTailLogInputStream.OMITTED_LINES_MARKER, 7) + lines(8, 10), IOUtils.toString(is, StandardCharsets.UTF_8));
+		}
+		try (InputStream is = BuildLogFile.truncate(new ByteArrayInputStream(log.getBytes(StandardCharsets.UTF_8)), 0, 0)) {
+			Assert.assertEquals(log, IOUtils.toString(is, StandardCharsets.UTF_8));
+		}
+	}
+
+	@Test
+	public void testLongTailLinesAreCut() throws IOException {
+		String longLine = StringUtils.repeat('x', 1000);
+		String log = "head\n" + longLine + "\n" + longLine + "\nlast " + longLine;
+		try (InputStream is = new HeadTailLogInputStream(new ByteArrayInputStream(log.getBytes(StandardCharsets.UTF_8)), 1, 2, 10, 1000)) {
+			Assert.assertEquals("head\n" + String.format(HeadTailLogInputStream.OMITTED_LINES_MARKER, 1) + "xxxxxxxxxx\nlast xxxxx",
+					IOUtils.toString(is, StandardCharsets.UTF_8));
+		}
+	}
+
+	@Test
+	public void testTailIsBoundedInBytes() throws IOException {
+		String log = "head\n" + lines(1, 100);
+		try (InputStream is = new HeadTailLogInputStream(new ByteArrayInputStream(log.getBytes(StandardCharsets.UTF_8)), 1, 50, 100, 30)) {
+			//lines 98-100 take 25 bytes, with line 97 they would take 33
+			Assert.assertEquals("head\n" + String.format(HeadTailLogInputStream.OMITTED_LINES_MARKER, 97) + lines(98, 100),
+					IOUtils.toString(is, StandardCharsets.UTF_8));
+		}
+		try (InputStream is = new HeadTailLogInputStream(new ByteArrayInputStream(log.getBytes(StandardCharsets.UTF_8)), 1, 50, 100, 5)) {
+			Assert.assertEquals("head\n" + String.format(HeadTailLogInputStream.OMITTED_LINES_MARKER, 99) + lines(100, 100),
+					IOUtils.toString(is, StandardCharsets.UTF_8));
+		}
+	}
+
+	private static String truncate(String log, int head, int tail) throws IOException {
+		try (InputStream is = new HeadTailLogInputStream(new ByteArrayInputStream(log.getBytes(StandardCharsets.UTF_8)), head, tail)) {
+			return IOUtils.toString(is, StandardCharsets.UTF_8);
+		}
+	}
+
+	private static String lines(int from, int to) {
+		StringBuilder result = new StringBuilder();
+		for (int i = from; i <= to; i++) {
+			result.append("line ").append(i).append('\n');
+		}
+		return result.toString();
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+
+package com.microfocus.application.automation.tools.octane.events;
+
+import hudson.model.FreeStyleProject;
+import hudson.plugins.parameterizedtrigger.AbstractBuildParameters;
+import hudson.plugins.parameterizedtrigger.BlockableBuildTriggerConfig;
+import hudson.plugins.parameterizedtrigger.TriggerBuilder;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+@SuppressWarnings({"squid:S2699", "squid:S3658"})
+public class InternalJobsIndexTest {
+
+	@ClassRule
+	public static final JenkinsRule rule = new JenkinsRule();
+
+	@Test
+	public void testInvokedJobsAreIndexedByName() throws Exception {
+		rule.createFreeStyleProject("index-child");
+		rule.createFreeStyleProject("index-other");
+		FreeStyleProject parent = parentOf("index-parent", "index-child");
+
+		assertTrue(InternalJobsIndex.isInvokedBy(parent, "index-child"));
+		assertFalse(InternalJobsIndex.isInvokedBy(parent, "index-other"));
+		assertEquals(Collections.singleton("index-parent"), InternalJobsIndex.getInvokingJobs("index-child"));
+	}
+
+	@Test
+	public void testSavedJobIsIndexedAgain() throws Exception {
+		rule.createFreeStyleProject("saved-child");
+		rule.createFreeStyleProject("saved-other");
+		FreeStyleProject parent = parentOf("saved-parent", "saved-child");
+		assertTrue(InternalJobsIndex.isInvokedBy(parent, "saved-child"));
+
+		parent.getBuildersList().clear();
+		parent.getBuildersList().add(triggerOf("saved-other"));
+		parent.save();
+		assertTrue(InternalJobsIndex.getInvokingJobs("saved-child").isEmpty());
+		assertTrue(InternalJobsIndex.isInvokedBy(parent, "saved-other"));
+		assertFalse(InternalJobsIndex.isInvokedBy(parent, "saved-child"));
+	}
+
+	@Test
+	public void testJobCreatedAfterIndexingIsFound() throws Exception {
+		FreeStyleProject parent = parentOf("late-parent", "late-child");
+		assertFalse(InternalJobsIndex.isInvokedBy(parent, "late-child"));
+
+		rule.createFreeStyleProject("late-child");
+		assertTrue(InternalJobsIndex.isInvokedBy(parent, "late-child"));
+	}
+
+	@Test
+	public void testDeletedJobIsRemovedFromIndex() throws Exception {
+		rule.createFreeStyleProject("deleted-child");
+		FreeStyleProject parent = parentOf("deleted-parent", "deleted-child");
+		assertTrue(InternalJobsIndex.isInvokedBy(parent, "deleted-child"));
+
+		parent.delete();
+		assertTrue(InternalJobsIndex.getInvokingJobs("deleted-child").isEmpty());
+	}
+
+	private static FreeStyleProject parentOf(String name, String childName) throws Exception {
+		FreeStyleProject parent = rule.createFreeStyleProject(name);
+		parent.getBuildersList().add(triggerOf(childName));
+		return parent;
+	}
+
+	private static TriggerBuilder triggerOf(String childName) {
+		return new TriggerBuilder(Collections.singletonList(
+				new BlockableBuildTriggerConfig(childName, null, Collections.<AbstractBuildParameters>emptyList())));
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.events;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RecentRunKeysTest {
+
+	@Test
+	public void testKeyIsAddedOnceUntilRemoved() {
+		RecentRunKeys keys = new RecentRunKeys(1000, 10);
+		Assert.assertTrue(keys.add("job#1"));
+		Assert.assertFalse(keys.add("job#1"));
+		keys.remove("job#1");
+		Assert.assertTrue(keys.add("job#1"));
+	}
+
+	@Test
+	public void testExpiredKeyCanBeAddedAgain() {
+		AtomicLong now = new AtomicLong(0);
+		RecentRunKeys keys = new RecentRunKeys(1000, 10, now::get);
+		Assert.assertTrue(keys.add("job#1"));
+		now.set(999);
+		Assert.assertFalse(keys.add("job#1"));
+		now.set(1000);
+		Assert.assertTrue(keys.add("job#1"));
+	}
+
+	@Test
+	public void testOldestKeysAreEvictedWhenFull() {
+		AtomicLong now = new AtomicLong(0);
+		RecentRunKeys keys = new RecentRunKeys(TimeUnit.DAYS.toMillis(1), 3, now::get);
+		for (int i = 1; i <= 5; i++) {
+			now.set(i);
+			keys.add("job#" + i);
+		}
+		Assert.assertEquals(3, keys.size());
+		Assert.assertTrue(keys.add("job#1"));
+		Assert.assertFalse(keys.add("job#5"));
+	}
+
+	@Test
+	public void testConcurrentStartsOfSameRunAreAddedOnce() throws Exception {
+		RecentRunKeys keys = new RecentRunKeys(TimeUnit.DAYS.toMillis(1), 10000);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger added = new AtomicInteger();
+		for (int i = 0; i < 800; i++) {
+			String key = "job#" + i % 100;
+			executor.execute(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				if (keys.add(key)) {
+					added.incrementAndGet();
+				}
+			});
+		}
+		start.countDown();
+		executor.shutdown();
+		Assert.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+		Assert.assertEquals(100, added.get());
+		Assert.assertEquals(100, keys.size());
+	}
+}
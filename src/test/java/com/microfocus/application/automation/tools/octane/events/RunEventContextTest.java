@@ -0,0 +1,112 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+
+package com.microfocus.application.automation.tools.octane.events;
+
+import com.microfocus.application.automation.tools.octane.OctanePluginTestBase;
+import com.microfocus.application.automation.tools.octane.model.CIEventCausesFactory;
+import com.microfocus.application.automation.tools.octane.model.processors.scm.CommonOriginRevision;
+import com.microfocus.application.automation.tools.octane.model.processors.scm.GitTestUtils;
+import hudson.model.Cause;
+import hudson.model.CauseAction;
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.model.Run;
+import hudson.model.TaskListener;
+import hudson.plugins.git.GitSCM;
+import hudson.triggers.TimerTrigger;
+import org.eclipse.jgit.api.Git;
+import org.jenkinsci.plugins.workflow.cps.CpsFlowDefinition;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+@SuppressWarnings({"squid:S2699", "squid:S3658", "squid:S2259", "squid:S1872", "squid:S2925", "squid:S109", "squid:S1607", "squid:S2701"})
+public class RunEventContextTest extends OctanePluginTestBase {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@Test
+	public void testValuesAreComputedOnce() throws Exception {
+		FreeStyleProject project = rule.createFreeStyleProject("context-memoized");
+		FreeStyleBuild build = rule.buildAndAssertSuccess(project);
+
+		RunEventContext context = RunEventContext.of(build);
+		Assert.assertEquals("context-memoized", context.getJobCiId());
+		Assert.assertSame(context.getJobCiId(), RunEventContext.of(build).getJobCiId());
+		Assert.assertSame(context.getBuildCiId(), RunEventContext.of(build).getBuildCiId());
+		Assert.assertSame(context.getProjectDisplayName(), RunEventContext.of(build).getProjectDisplayName());
+		Assert.assertSame(context.getParameters(), RunEventContext.of(build).getParameters());
+		Assert.assertSame(context.getRootJobCiIds(), RunEventContext.of(build).getRootJobCiIds());
+	}
+
+	@Test
+	public void testSCMRevisionIsComputedAgainAfterChangelogIsParsed() throws Exception {
+		File repo = tmp.newFolder("repo");
+		try (Git git = Git.init().setDirectory(repo).call()) {
+			GitTestUtils.commit(git, "a.txt", "first");
+			FreeStyleProject project = rule.createFreeStyleProject("context-scm");
+			project.setScm(new GitSCM(repo.toURI().toString()));
+			FreeStyleBuild build = rule.buildAndAssertSuccess(project);
+
+			RunEventContext context = RunEventContext.of(build);
+			CommonOriginRevision revision = context.getCommonOriginRevision();
+			Assert.assertNotNull(revision);
+			Assert.assertSame(revision, RunEventContext.of(build).getCommonOriginRevision());
+
+			rule.jenkins.getExtensionList(SCMListenerOctaneImpl.class).get(0)
+					.onChangeLogParsed(build, project.getScm(), TaskListener.NULL, build.getChangeSet());
+			CommonOriginRevision recomputed = context.getCommonOriginRevision();
+			Assert.assertNotSame(revision, recomputed);
+			Assert.assertEquals(revision.branch, recomputed.branch);
+			Assert.assertEquals(revision.revision, recomputed.revision);
+			Assert.assertSame(recomputed, RunEventContext.of(build).getCommonOriginRevision());
+		}
+	}
+
+	@Test
+	public void testRootJobsAreKeptOnlyOnceCausesAreResolved() throws Exception {
+		WorkflowJob pipeline = rule.createProject(WorkflowJob.class, "context-pipeline");
+		pipeline.setDefinition(new CpsFlowDefinition("echo 'no build step'", true));
+		WorkflowRun pipelineRun = rule.assertBuildStatusSuccess(pipeline.scheduleBuild2(0, new CauseAction(new TimerTrigger.TimerTriggerCause())));
+
+		//  the pipeline did not build the job, so the stages chain of the cause can not be resolved
+		FreeStyleProject unresolvedProject = rule.createFreeStyleProject("context-unresolved");
+		FreeStyleBuild unresolved = rule.assertBuildStatusSuccess(unresolvedProject.scheduleBuild2(0, new Cause.UpstreamCause((Run<?, ?>) pipelineRun)));
+		Assert.assertFalse(CIEventCausesFactory.hasResolvedCauses(unresolved));
+		RunEventContext unresolvedContext = RunEventContext.of(unresolved);
+		Assert.assertEquals("context-pipeline", unresolvedContext.getRootJobCiIds());
+		Assert.assertNotSame(unresolvedContext.getRootJobCiIds(), unresolvedContext.getRootJobCiIds());
+
+		FreeStyleProject resolvedProject = rule.createFreeStyleProject("context-resolved");
+		FreeStyleBuild resolved = rule.assertBuildStatusSuccess(resolvedProject.scheduleBuild2(0, new TimerTrigger.TimerTriggerCause()));
+		Assert.assertTrue(CIEventCausesFactory.hasResolvedCauses(resolved));
+		RunEventContext resolvedContext = RunEventContext.of(resolved);
+		Assert.assertEquals("context-resolved", resolvedContext.getRootJobCiIds());
+		Assert.assertSame(resolvedContext.getRootJobCiIds(), resolvedContext.getRootJobCiIds());
+	}
+}
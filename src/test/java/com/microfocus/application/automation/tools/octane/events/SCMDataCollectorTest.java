@@ -0,0 +1,154 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hp.octane.integrations.dto.DTOFactory;
+import com.hp.octane.integrations.dto.scm.SCMData;
+import com.microfocus.application.automation.tools.model.OctaneServerSettingsModel;
+import com.microfocus.application.automation.tools.octane.OctaneServerMock;
+import com.microfocus.application.automation.tools.octane.configuration.ConfigurationService;
+import com.microfocus.application.automation.tools.octane.model.processors.scm.GitTestUtils;
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.plugins.git.GitSCM;
+import hudson.util.Secret;
+import org.eclipse.jgit.api.Git;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.jvnet.hudson.test.FakeChangeLogSCM;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.Assert.*;
+
+@SuppressWarnings({"squid:S2699", "squid:S3658", "squid:S2925"})
+public class SCMDataCollectorTest {
+	private static final String sharedSpaceId = "1018";
+
+	private static final DTOFactory dtoFactory = DTOFactory.getInstance();
+
+	@ClassRule
+	public static final JenkinsRule rule = new JenkinsRule();
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@BeforeClass
+	public static void beforeClass() {
+		OctaneServerMock serverMock = OctaneServerMock.getInstance();
+		assertTrue(serverMock.isRunning());
+		OctaneServerSettingsModel model = new OctaneServerSettingsModel(
+				"http://127.0.0.1:" + serverMock.getPort() + "/ui?p=" + sharedSpaceId,
+				"some",
+				Secret.fromString("pass"),
+				"");
+		ConfigurationService.configurePlugin(model);
+	}
+
+	@Test
+	public void testSCMDataIsPersistedAfterCheckout() throws Exception {
+		FreeStyleBuild build = buildWithSCM("scm-collected");
+
+		waitForCollection(build);
+		assertTrue(new File(build.getRootDir(), "scmdata.json").exists());
+		assertFalse(new File(build.getRootDir(), SCMDataCollector.PENDING_FILE_NAME).exists());
+		assertFalse(pendingIndexContains(build));
+	}
+
+	@Test
+	public void testPendingCollectionIsResumed() throws Exception {
+		FreeStyleBuild build = buildWithSCM("scm-resumed");
+		waitForCollection(build);
+		File scmData = new File(build.getRootDir(), "scmdata.json");
+		assertTrue(scmData.delete());
+
+		//as if Jenkins stopped before the collection finished
+		SCMDataCollector.markPending(build, build.getProject().getScm());
+		assertTrue(pendingIndexContains(build));
+
+		SCMDataCollector.resumePending();
+		waitForCollection(build);
+		assertTrue(scmData.exists());
+		assertFalse(pendingIndexContains(build));
+	}
+
+	@Test
+	public void testGitLinesAreEnrichedWhileBuildOwnsWorkspace() throws Exception {
+		File repo = tmp.newFolder("repo");
+		try (Git git = Git.init().setDirectory(repo).call()) {
+			GitTestUtils.commit(git, "a.txt", "1\n2\n3\n");
+			FreeStyleProject project = rule.createFreeStyleProject("scm-git-enriched");
+			project.setScm(new GitSCM(repo.toURI().toString()));
+			//first build has no changelog
+			rule.buildAndAssertSuccess(project);
+
+			GitTestUtils.commit(git, "a.txt", "1\n2 changed\n3\n");
+			FreeStyleBuild build = rule.buildAndAssertSuccess(project);
+			assertFalse(SCMDataCollector.isExtracting(build));
+			waitForCollection(build);
+			SCMData scmData = readSCMData(build);
+			assertEquals(1, scmData.getCommits().size());
+			assertEquals(1, scmData.getFileBlameList().size());
+			assertEquals("a.txt", scmData.getFileBlameList().get(0).getPath());
+
+			//the build no longer owns its workspace, resumed collection does not read it
+			assertTrue(new File(build.getRootDir(), "scmdata.json").delete());
+			SCMDataCollector.markPending(build, project.getScm());
+			SCMDataCollector.resumePending();
+			waitForCollection(build);
+			SCMData resumed = readSCMData(build);
+			assertEquals(1, resumed.getCommits().size());
+			assertTrue(resumed.getFileBlameList() == null || resumed.getFileBlameList().isEmpty());
+		}
+	}
+
+	private static SCMData readSCMData(FreeStyleBuild build) throws Exception {
+		ObjectMapper mapper = new ObjectMapper();
+		String scmDataList = new String(Files.readAllBytes(new File(build.getRootDir(), "scmdata.json").toPath()), StandardCharsets.UTF_8);
+		return dtoFactory.dtoFromJson(mapper.writeValueAsString(mapper.readTree(scmDataList).get(0)), SCMData.class);
+	}
+
+	private static FreeStyleBuild buildWithSCM(String jobName) throws Exception {
+		FreeStyleProject project = rule.createFreeStyleProject(jobName);
+		project.setScm(new FakeChangeLogSCM());
+		return rule.buildAndAssertSuccess(project);
+	}
+
+	private static void waitForCollection(FreeStyleBuild build) throws InterruptedException {
+		File marker = new File(build.getRootDir(), SCMDataCollector.PENDING_FILE_NAME);
+		long deadline = System.currentTimeMillis() + 30000;
+		while ((marker.exists() || !new File(build.getRootDir(), "scmdata.json").exists()) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(100);
+		}
+	}
+
+	private static boolean pendingIndexContains(FreeStyleBuild build) throws Exception {
+		File index = new File(rule.jenkins.getRootDir(), SCMDataCollector.PENDING_INDEX_FILE_NAME);
+		return index.exists() && Files.readAllLines(index.toPath(), StandardCharsets.UTF_8).contains(build.getExternalizableId());
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+
+package com.microfocus.application.automation.tools.octane.model;
+
+import com.hp.octane.integrations.dto.causes.CIEventCause;
+import com.hp.octane.integrations.dto.causes.CIEventCauseType;
+import com.microfocus.application.automation.tools.octane.OctanePluginTestBase;
+import com.microfocus.application.automation.tools.octane.tests.build.BuildHandlerUtils;
+import hudson.model.Cause;
+import hudson.model.CauseAction;
+import hudson.model.FreeStyleBuild;
+import hudson.model.FreeStyleProject;
+import hudson.model.Run;
+import hudson.triggers.TimerTrigger;
+import org.jenkinsci.plugins.workflow.cps.CpsFlowDefinition;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+@SuppressWarnings({"squid:S2699", "squid:S3658", "squid:S2259", "squid:S1872", "squid:S2925", "squid:S109", "squid:S1607", "squid:S2701"})
+public class CIEventCausesFactoryTest extends OctanePluginTestBase {
+
+	@Test
+	public void testMultiLevelUpstreamChain() throws Exception {
+		FreeStyleProject first = rule.createFreeStyleProject("chain-first");
+		FreeStyleProject second = rule.createFreeStyleProject("chain-second");
+		FreeStyleProject third = rule.createFreeStyleProject("chain-third");
+		FreeStyleBuild firstBuild = rule.assertBuildStatusSuccess(first.scheduleBuild2(0, new TimerTrigger.TimerTriggerCause()));
+		FreeStyleBuild secondBuild = rule.assertBuildStatusSuccess(second.scheduleBuild2(0, new Cause.UpstreamCause((Run<?, ?>) firstBuild)));
+		FreeStyleBuild thirdBuild = rule.assertBuildStatusSuccess(third.scheduleBuild2(0, new Cause.UpstreamCause((Run<?, ?>) secondBuild)));
+
+		Assert.assertEquals("UPSTREAM:chain-second#1[UPSTREAM:chain-first#1[TIMER]]", describe(CIEventCausesFactory.processCauses(thirdBuild)));
+		Assert.assertTrue(CIEventCausesFactory.hasResolvedCauses(thirdBuild));
+		Assert.assertEquals("chain-first", BuildHandlerUtils.getRootJobCiIds(thirdBuild));
+		Assert.assertEquals("chain-first", BuildHandlerUtils.getRootJobCiIds(secondBuild));
+		Assert.assertEquals("chain-first", BuildHandlerUtils.getRootJobCiIds(firstBuild));
+	}
+
+	@Test
+	public void testStageChainSkipsEndedStages() throws Exception {
+		rule.createFreeStyleProject("stages-child");
+		WorkflowRun parent = runPipeline("stages-parent",
+				"stage('first') { echo 'first' }\n" +
+				"stage('second') { stage('nested') { build job: 'stages-child' } }");
+
+		FreeStyleBuild child = lastBuild("stages-child");
+		Assert.assertEquals("UPSTREAM:nested#1[UPSTREAM:second#1[UPSTREAM:stages-parent#1[TIMER]]]", describe(CIEventCausesFactory.processCauses(child)));
+		Assert.assertEquals("stages-parent", BuildHandlerUtils.getRootJobCiIds(child));
+		Assert.assertEquals("TIMER", describe(CIEventCausesFactory.processCauses(parent)));
+	}
+
+	@Test
+	public void testParallelStagesKeepTheirOwnChains() throws Exception {
+		rule.createFreeStyleProject("left-child");
+		rule.createFreeStyleProject("right-child");
+		runPipeline("parallel-parent",
+				"stage('outer') {\n" +
+				"  parallel left: { stage('left') { build job: 'left-child' } }, right: { stage('right') { build job: 'right-child' } }\n" +
+				"}");
+
+		Assert.assertEquals("UPSTREAM:left#1[UPSTREAM:outer#1[UPSTREAM:parallel-parent#1[TIMER]]]",
+				describe(CIEventCausesFactory.processCauses(lastBuild("left-child"))));
+		Assert.assertEquals("UPSTREAM:right#1[UPSTREAM:outer#1[UPSTREAM:parallel-parent#1[TIMER]]]",
+				describe(CIEventCausesFactory.processCauses(lastBuild("right-child"))));
+		Assert.assertEquals("parallel-parent", BuildHandlerUtils.getRootJobCiIds(lastBuild("left-child")));
+	}
+
+	@Test
+	public void testCachedCausesEqualFreshOnesAndAreNotShared() throws Exception {
+		FreeStyleProject childJob = rule.createFreeStyleProject("cached-child");
+		runPipeline("cached-parent", "stage('outer') { stage('inner') { build job: 'cached-child' } }");
+		FreeStyleBuild child = childJob.getLastBuild();
+		Assert.assertTrue(CIEventCausesFactory.hasResolvedCauses(child));
+
+		List<CIEventCause> cached = CIEventCausesFactory.processCauses(child);
+		String cachedJson = dtoFactory.dtoCollectionToJson(cached);
+		cached.get(0).setProject("changed");
+		cached.get(0).getCauses().get(0).setProject("changed");
+		Assert.assertEquals(cachedJson, dtoFactory.dtoCollectionToJson(CIEventCausesFactory.processCauses(child)));
+
+		//  a run loaded again is not in the cache, its causes are computed from the flow graph again
+		childJob._getRuns().purgeCache();
+		FreeStyleBuild reloaded = childJob.getBuildByNumber(child.getNumber());
+		Assert.assertNotSame(child, reloaded);
+		Assert.assertFalse(CIEventCausesFactory.hasResolvedCauses(reloaded));
+		Assert.assertEquals(cachedJson, dtoFactory.dtoCollectionToJson(CIEventCausesFactory.processCauses(reloaded)));
+	}
+
+	private static WorkflowRun runPipeline(String name, String script) throws Exception {
+		WorkflowJob job = rule.createProject(WorkflowJob.class, name);
+		job.setDefinition(new CpsFlowDefinition(script, true));
+		return rule.assertBuildStatusSuccess(job.scheduleBuild2(0, new CauseAction(new TimerTrigger.TimerTriggerCause())));
+	}
+
+	private static FreeStyleBuild lastBuild(String jobName) {
+		FreeStyleBuild build = rule.jenkins.getItemByFullName(jobName, FreeStyleProject.class).getLastBuild();
+		Assert.assertNotNull(build);
+		return build;
+	}
+
+	//  compact form of causes chain, e.g. UPSTREAM:job#1[TIMER]
+	private static String describe(List<CIEventCause> causes) {
+		StringBuilder result = new StringBuilder();
+		for (CIEventCause cause : causes) {
+			if (result.length() > 0) {
+				result.append(',');
+			}
+			result.append(cause.getType());
+			if (CIEventCauseType.UPSTREAM.equals(cause.getType())) {
+				result.append(':').append(cause.getProject()).append('#').append(cause.getBuildCiId());
+			}
+			if (cause.getCauses() != null && !cause.getCauses().isEmpty()) {
+				result.append('[').append(describe(cause.getCauses())).append(']');
+			}
+		}
+		return result.toString();
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.model;
+
+import com.hp.octane.integrations.OctaneSDK;
+import com.hp.octane.integrations.dto.connectivity.HttpMethod;
+import com.hp.octane.integrations.dto.connectivity.OctaneResultAbridged;
+import com.hp.octane.integrations.dto.connectivity.OctaneTaskAbridged;
+import com.hp.octane.integrations.dto.pipelines.PipelineNode;
+import com.microfocus.application.automation.tools.octane.OctanePluginTestBase;
+import hudson.model.FreeStyleProject;
+import hudson.model.Job;
+import hudson.model.Items;
+import hudson.model.Result;
+import hudson.tasks.BuildTrigger;
+import org.apache.http.HttpStatus;
+import org.junit.Assert;
+import org.junit.Test;
+import org.jvnet.hudson.test.MockFolder;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+@SuppressWarnings({"squid:S2699", "squid:S3658", "squid:S2259", "squid:S1872", "squid:S2925", "squid:S109", "squid:S1607", "squid:S2701"})
+public class PipelineStructureCacheTest extends OctanePluginTestBase {
+
+	@Test
+	public void testConfigurationChangeIsReflected() throws Exception {
+		FreeStyleProject root = rule.createFreeStyleProject("structure-root");
+		rule.createFreeStyleProject("structure-downstream");
+
+		PipelineNode pipeline = getPipeline("structure-root");
+		Assert.assertEquals(0, pipeline.getPhasesPostBuild().size());
+
+		root.getPublishersList().add(new BuildTrigger("structure-downstream", Result.SUCCESS));
+		pipeline = getPipeline("structure-root");
+		Assert.assertEquals(1, pipeline.getPhasesPostBuild().size());
+		Assert.assertEquals("structure-downstream", pipeline.getPhasesPostBuild().get(0).getJobs().get(0).getJobCiId());
+
+		root.getPublishersList().clear();
+		Assert.assertEquals(0, getPipeline("structure-root").getPhasesPostBuild().size());
+	}
+
+	@Test
+	public void testRenameMoveAndDeleteAreReflected() throws Exception {
+		MockFolder folder = rule.createFolder("structure-folder");
+		FreeStyleProject project = folder.createProject(FreeStyleProject.class, "structure-job");
+		Assert.assertEquals("structure-folder/job/structure-job", getPipeline("structure-folder/job/structure-job").getJobCiId());
+
+		project.renameTo("structure-renamed");
+		Assert.assertEquals(HttpStatus.SC_NOT_FOUND, execute("structure-folder/job/structure-job").getStatus());
+		Assert.assertEquals("structure-folder/job/structure-renamed", getPipeline("structure-folder/job/structure-renamed").getJobCiId());
+
+		Items.move(project, rule.jenkins);
+		Assert.assertEquals(HttpStatus.SC_NOT_FOUND, execute("structure-folder/job/structure-renamed").getStatus());
+		Assert.assertEquals("structure-renamed", getPipeline("structure-renamed").getJobCiId());
+
+		project.delete();
+		Assert.assertEquals(HttpStatus.SC_NOT_FOUND, execute("structure-renamed").getStatus());
+	}
+
+	@Test
+	public void testCallersGetOwnCopies() throws Exception {
+		FreeStyleProject root = rule.createFreeStyleProject("structure-copies");
+		rule.createFreeStyleProject("structure-copies-downstream");
+		root.getPublishersList().add(new BuildTrigger("structure-copies-downstream", Result.SUCCESS));
+		ModelFactory.createStructureItem(root);
+
+		PipelineNode cached = ModelFactory.createStructureItem(root);
+		cached.setName("changed");
+		cached.getPhasesPostBuild().get(0).getJobs().get(0).setName("changed");
+
+		PipelineNode again = ModelFactory.createStructureItem(root);
+		Assert.assertNotSame(cached, again);
+		Assert.assertEquals("structure-copies", again.getName());
+		Assert.assertEquals("structure-copies-downstream", again.getPhasesPostBuild().get(0).getJobs().get(0).getName());
+	}
+
+	@Test
+	public void testOnlyStructuresIncludingSavedJobAreDropped() throws Exception {
+		FreeStyleProject root = rule.createFreeStyleProject("structure-included-root");
+		FreeStyleProject downstream = rule.createFreeStyleProject("structure-included-downstream");
+		FreeStyleProject unrelated = rule.createFreeStyleProject("structure-unrelated");
+		AtomicInteger builds = new AtomicInteger();
+		Function<Job, PipelineNode> builder = job -> {
+			builds.incrementAndGet();
+			PipelineStructureCache.included(job);
+			PipelineStructureCache.included(downstream);
+			return dtoFactory.newDTO(PipelineNode.class).setName(job.getName());
+		};
+
+		PipelineStructureCache.get(root, builder);
+		PipelineStructureCache.get(root, builder);
+		Assert.assertEquals(1, builds.get());
+
+		unrelated.save();
+		PipelineStructureCache.get(root, builder);
+		Assert.assertEquals(1, builds.get());
+
+		downstream.save();
+		PipelineStructureCache.get(root, builder);
+		Assert.assertEquals(2, builds.get());
+
+		root.save();
+		PipelineStructureCache.get(root, builder);
+		Assert.assertEquals(3, builds.get());
+	}
+
+	private static PipelineNode getPipeline(String jobCiId) {
+		OctaneResultAbridged result = execute(jobCiId);
+		Assert.assertEquals(HttpStatus.SC_OK, result.getStatus());
+		return dtoFactory.dtoFromJson(result.getBody(), PipelineNode.class);
+	}
+
+	private static OctaneResultAbridged execute(String jobCiId) {
+		OctaneTaskAbridged task = dtoFactory.newDTO(OctaneTaskAbridged.class)
+				.setMethod(HttpMethod.GET)
+				.setUrl("nga/api/v1/jobs/" + jobCiId)
+				.setHeaders(Collections.singletonMap("Content-Type", "application/json"));
+		return OctaneSDK.getClients().get(0).getTasksProcessor().execute(task);
+	}
+}
@@ -0,0 +1,178 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.model.processors.scm;
+
+import org.eclipse.jgit.api.BlameCommand;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ObjectId;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class GitBlameCacheTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@Test
+	public void testKeyIsKeptWhileFileIsNotModified() throws Exception {
+		try (Git git = Git.init().setDirectory(tmp.getRoot()).call()) {
+			GitTestUtils.commit(git, "a.txt", "first");
+			GitBlameCache cache = GitBlameCache.of(git.getRepository());
+			String entryBefore = cache.keyOf(head(git), "a.txt").getEntryName();
+
+			GitTestUtils.commit(git, "b.txt", "unrelated");
+			Assert.assertEquals(entryBefore, cache.keyOf(head(git), "a.txt").getEntryName());
+
+			GitTestUtils.commit(git, "a.txt", "second");
+			Assert.assertNotEquals(entryBefore, cache.keyOf(head(git), "a.txt").getEntryName());
+		}
+	}
+
+	@Test
+	public void testMissingFileHasNoKey() throws Exception {
+		try (Git git = Git.init().setDirectory(tmp.getRoot()).call()) {
+			GitTestUtils.commit(git, "a.txt", "first");
+			Assert.assertNull(GitBlameCache.of(git.getRepository()).keyOf(head(git), "missing.txt"));
+		}
+	}
+
+	@Test
+	public void testRangesAreStoredInGitDirectory() throws Exception {
+		try (Git git = Git.init().setDirectory(tmp.getRoot()).call()) {
+			GitTestUtils.commit(git, "a.txt", "first");
+			GitBlameCache.Key key = GitBlameCache.of(git.getRepository()).keyOf(head(git), "a.txt");
+			Assert.assertNull(GitBlameCache.of(git.getRepository()).get(key));
+
+			GitBlameCache.of(git.getRepository()).put(key, Collections.singletonList(new GitBlameCache.BlameRange(head(git).getName(), 1, 3)));
+			Assert.assertTrue(new File(git.getRepository().getDirectory(), GitBlameCache.CACHE_DIR_NAME).isDirectory());
+
+			List<GitBlameCache.BlameRange> ranges = GitBlameCache.of(git.getRepository()).get(key);
+			Assert.assertNotNull(ranges);
+			Assert.assertEquals(1, ranges.size());
+			Assert.assertEquals(head(git).getName(), ranges.get(0).revision);
+			Assert.assertEquals(1, ranges.get(0).start);
+			Assert.assertEquals(3, ranges.get(0).end);
+		}
+	}
+
+	@Test
+	public void testPruneKeepsMostRecentEntries() throws Exception {
+		try (Git git = Git.init().setDirectory(tmp.getRoot()).call()) {
+			GitTestUtils.commit(git, "a.txt", "first");
+			GitTestUtils.commit(git, "b.txt", "first");
+			GitTestUtils.commit(git, "c.txt", "first");
+			GitBlameCache cache = GitBlameCache.of(git.getRepository(), 2);
+			for (String file : new String[]{"a.txt", "b.txt", "c.txt"}) {
+				cache.put(cache.keyOf(head(git), file), Collections.emptyList());
+			}
+			File[] entries = new File(git.getRepository().getDirectory(), GitBlameCache.CACHE_DIR_NAME).listFiles();
+			Assert.assertNotNull(entries);
+			for (int i = 0; i < entries.length; i++) {
+				Assert.assertTrue(entries[i].setLastModified(1000L * (i + 1)));
+			}
+			File oldest = entries[0];
+
+			cache.prune();
+			Assert.assertEquals(2, new File(git.getRepository().getDirectory(), GitBlameCache.CACHE_DIR_NAME).list().length);
+			Assert.assertFalse(oldest.exists());
+		}
+	}
+
+	@Test
+	public void testPruneRunsOnlyAfterWrite() throws Exception {
+		try (Git git = Git.init().setDirectory(tmp.getRoot()).call()) {
+			GitTestUtils.commit(git, "a.txt", "first");
+			GitTestUtils.commit(git, "b.txt", "first");
+			GitTestUtils.commit(git, "c.txt", "first");
+			GitBlameCache writer = GitBlameCache.of(git.getRepository(), 2);
+			for (String file : new String[]{"a.txt", "b.txt", "c.txt"}) {
+				writer.put(writer.keyOf(head(git), file), Collections.emptyList());
+			}
+			File cacheDir = new File(git.getRepository().getDirectory(), GitBlameCache.CACHE_DIR_NAME);
+
+			//served from the cache only - entries are not even listed
+			GitBlameCache reader = GitBlameCache.of(git.getRepository(), 2);
+			Assert.assertNotNull(reader.get(reader.keyOf(head(git), "a.txt")));
+			reader.prune();
+			Assert.assertEquals(3, cacheDir.list().length);
+
+			writer.prune();
+			Assert.assertEquals(2, cacheDir.list().length);
+		}
+	}
+
+	@Test
+	public void testBlameDerivedFromParentEqualsBlame() throws Exception {
+		try (Git git = Git.init().setDirectory(tmp.getRoot()).call()) {
+			GitTestUtils.commit(git, "a.txt", "1\n2\n3\n4\n5\n6\n");
+			GitTestUtils.commit(git, "a.txt", "1\n2 changed\n3\n4\n6\n");
+			GitBlameCache cache = GitBlameCache.of(git.getRepository());
+			GitBlameCache.Key parentKey = cache.keyOf(head(git), "a.txt");
+			cache.put(parentKey, blame(git, "a.txt"));
+
+			GitTestUtils.commit(git, "b.txt", "unrelated");
+			GitTestUtils.commit(git, "a.txt", "0\n1\n2 changed\n3 changed\n4\n6\n7\n");
+			GitBlameCache.Key key = cache.keyOf(head(git), "a.txt");
+			Assert.assertNull(cache.get(key));
+
+			List<GitBlameCache.BlameRange> derived = cache.getFromParent(key);
+			Assert.assertNotNull(derived);
+			Assert.assertEquals(describe(blame(git, "a.txt")), describe(derived));
+			Assert.assertEquals(3, derived.stream().map(range -> range.revision).distinct().count());
+		}
+	}
+
+	@Test
+	public void testNothingIsDerivedWithoutParentEntry() throws Exception {
+		try (Git git = Git.init().setDirectory(tmp.getRoot()).call()) {
+			GitTestUtils.commit(git, "a.txt", "1\n2\n");
+			GitTestUtils.commit(git, "a.txt", "1\n2\n3\n");
+			GitBlameCache cache = GitBlameCache.of(git.getRepository());
+			Assert.assertNull(cache.getFromParent(cache.keyOf(head(git), "a.txt")));
+
+			GitTestUtils.commit(git, "b.txt", "added");
+			Assert.assertNull(cache.getFromParent(cache.keyOf(head(git), "b.txt")));
+		}
+	}
+
+	private static List<GitBlameCache.BlameRange> blame(Git git, String file) throws Exception {
+		BlameCommand blamer = new BlameCommand(git.getRepository());
+		blamer.setStartCommit(head(git));
+		blamer.setFilePath(file);
+		return GitBlameCache.toRanges(blamer.call());
+	}
+
+	private static String describe(List<GitBlameCache.BlameRange> ranges) {
+		return ranges.stream().map(range -> range.revision + ":" + range.start + "-" + range.end).collect(Collectors.joining(","));
+	}
+
+	private static ObjectId head(Git git) throws IOException {
+		return git.getRepository().resolve("HEAD");
+	}
+}
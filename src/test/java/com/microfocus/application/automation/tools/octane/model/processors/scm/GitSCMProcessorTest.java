@@ -0,0 +1,224 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.model.processors.scm;
+
+import com.hp.octane.integrations.dto.DTOFactory;
+import com.hp.octane.integrations.dto.scm.SCMChange;
+import com.hp.octane.integrations.dto.scm.SCMCommit;
+import com.hp.octane.integrations.dto.scm.SCMData;
+import com.hp.octane.integrations.dto.scm.SCMFileBlame;
+import hudson.model.FreeStyleBuild;
+import hudson.plugins.git.GitChangeLogParser;
+import hudson.scm.ChangeLogSet;
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.diff.Edit;
+import org.eclipse.jgit.diff.EditList;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.io.File;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class GitSCMProcessorTest {
+	private static final DTOFactory dtoFactory = DTOFactory.getInstance();
+
+	@ClassRule
+	public static final JenkinsRule rule = new JenkinsRule();
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@Test
+	public void testChangelogIsCutAtLimits() throws Exception {
+		FreeStyleBuild build = rule.buildAndAssertSuccess(rule.createFreeStyleProject("git-changelog-limits"));
+		File changelog = tmp.newFile("changelog.txt");
+		StringBuilder log = new StringBuilder();
+		for (int commit = 1; commit <= 3; commit++) {
+			log.append("commit ").append(sha(commit)).append('\n')
+					.append("tree ").append(sha(100 + commit)).append('\n')
+					.append("parent ").append(sha(commit - 1)).append('\n')
+					.append("author test <test@test.com> 1546300800 +0000\n")
+					.append("committer test <test@test.com> 1546300800 +0000\n")
+					.append("\n    change ").append(commit).append("\n\n");
+			for (int file = 1; file <= 3; file++) {
+				log.append(":100644 100644 ").append(sha(200 + file)).append(' ').append(sha(300 + file))
+						.append(" M\tf").append(file).append(".txt\n");
+			}
+			log.append('\n');
+		}
+		Files.write(changelog.toPath(), log.toString().getBytes(StandardCharsets.UTF_8));
+		List<ChangeLogSet<? extends ChangeLogSet.Entry>> changes =
+				Collections.singletonList(new GitChangeLogParser(false).parse(build, null, changelog));
+
+		GitSCMProcessor unlimited = new GitSCMProcessor(0, 0);
+		assertCommits(unlimited.extractCommits(changes), 3, 3);
+		Assert.assertFalse(unlimited.isTruncated());
+
+		GitSCMProcessor atLimits = new GitSCMProcessor(3, 3);
+		assertCommits(atLimits.extractCommits(changes), 3, 3);
+		Assert.assertFalse(atLimits.isTruncated());
+
+		GitSCMProcessor commitsLimited = new GitSCMProcessor(2, 0);
+		assertCommits(commitsLimited.extractCommits(changes), 2, 3);
+		Assert.assertTrue(commitsLimited.isTruncated());
+
+		GitSCMProcessor filesLimited = new GitSCMProcessor(0, 2);
+		assertCommits(filesLimited.extractCommits(changes), 3, 2);
+		Assert.assertTrue(filesLimited.isTruncated());
+	}
+
+	@Test
+	public void testParallelEnrichmentMergesInCommitAndFileOrder() throws Exception {
+		try (Git git = Git.init().setDirectory(tmp.getRoot()).call()) {
+			GitTestUtils.commit(git, "a.txt", "1\n2\n3\n");
+			List<String[]> commits = new ArrayList<>();
+			for (int i = 0; i < 20; i++) {
+				StringBuilder content = new StringBuilder();
+				for (int line = 0; line < i + 3; line++) {
+					content.append(line == i ? "changed " + i : "line " + line).append('\n');
+				}
+				String file = "f" + (i % 5) + ".txt";
+				GitTestUtils.commit(git, "a.txt", "1\n2 " + i + "\n3\n");
+				commits.add(new String[]{GitTestUtils.commit(git, file, content.toString()), file});
+			}
+
+			String sequential = dtoFactory.dtoToJson(enrich(commits, 1).scmData);
+			for (int attempt = 0; attempt < 5; attempt++) {
+				GitSCMProcessor.LineEnrichment parallel = enrich(commits, 8);
+				Assert.assertEquals(sequential, dtoFactory.dtoToJson(parallel.scmData));
+
+				List<String> paths = new ArrayList<>();
+				for (SCMFileBlame blame : parallel.scmData.getFileBlameList()) {
+					paths.add(blame.getPath());
+				}
+				Assert.assertEquals(Arrays.asList("f0.txt", "f1.txt", "f2.txt", "f3.txt", "f4.txt"), paths);
+			}
+		}
+	}
+
+	@Test
+	public void testTaskMissingTheDeadlineIsCancelled() throws Exception {
+		FutureTask<String> neverRun = new FutureTask<>(() -> "late");
+		Assert.assertNull(GitSCMProcessor.LineEnricherCallable.await(neverRun, System.currentTimeMillis() + 50));
+		Assert.assertTrue(neverRun.isCancelled());
+	}
+
+	@Test
+	public void testCancelledBlameStops() throws Exception {
+		try (Git git = Git.init().setDirectory(tmp.getRoot()).call()) {
+			GitTestUtils.commit(git, "a.txt", "1\n");
+			GitTestUtils.commit(git, "a.txt", "1\n2\n");
+			ObjectId head = git.getRepository().resolve(Constants.HEAD);
+			GitBlameCache cache = GitBlameCache.of(git.getRepository());
+
+			Thread.currentThread().interrupt();
+			try {
+				GitSCMProcessor.getBlameData(git.getRepository(), cache, head, "a.txt", 0, new AtomicBoolean());
+				Assert.fail("cancelled blame completed");
+			} catch (InterruptedIOException expected) {
+				//stopped
+			} finally {
+				Thread.interrupted();
+			}
+			Assert.assertNull(cache.get(cache.keyOf(head, "a.txt")));
+			Assert.assertNotNull(GitSCMProcessor.getBlameData(git.getRepository(), cache, head, "a.txt", 0, new AtomicBoolean()));
+		}
+	}
+
+	@Test
+	public void testCompletedAndFailedTasks() throws Exception {
+		long expired = System.currentTimeMillis() - 1000;
+		Assert.assertEquals("done", GitSCMProcessor.LineEnricherCallable.await(CompletableFuture.completedFuture("done"), expired));
+
+		CompletableFuture<String> failed = new CompletableFuture<>();
+		failed.completeExceptionally(new IllegalStateException("blame failed"));
+		Assert.assertNull(GitSCMProcessor.LineEnricherCallable.await(failed, expired));
+	}
+
+	@Test
+	public void testLimitEditsKeepsWholeEditsWithinLimit() {
+		EditList edits = new EditList();
+		edits.add(new Edit(0, 2, 0, 3));
+		edits.add(new Edit(5, 6, 6, 7));
+		edits.add(new Edit(10, 14, 11, 11));
+
+		Assert.assertSame(edits, GitSCMProcessor.limitEdits(edits, 0));
+		Assert.assertEquals(edits.subList(0, 2), GitSCMProcessor.limitEdits(edits, 7));
+		Assert.assertEquals(edits.subList(0, 2), GitSCMProcessor.limitEdits(edits, 10));
+		Assert.assertEquals(edits, GitSCMProcessor.limitEdits(edits, 11));
+		Assert.assertTrue(GitSCMProcessor.limitEdits(edits, 4).isEmpty());
+	}
+
+	@Test
+	public void testHasLinesWithin() throws Exception {
+		try (Git git = Git.init().setDirectory(tmp.getRoot()).call(); ObjectInserter inserter = git.getRepository().newObjectInserter()) {
+			ObjectId blobId = inserter.insert(Constants.OBJ_BLOB, "a\nb\nc\n".getBytes(StandardCharsets.UTF_8));
+			inserter.flush();
+
+			Assert.assertTrue(GitSCMProcessor.hasLinesWithin(git.getRepository(), blobId, 4));
+			Assert.assertTrue(GitSCMProcessor.hasLinesWithin(git.getRepository(), blobId, 3));
+			Assert.assertFalse(GitSCMProcessor.hasLinesWithin(git.getRepository(), blobId, 2));
+		}
+	}
+
+	private static String sha(int value) {
+		return String.format("%040x", value);
+	}
+
+	private static void assertCommits(List<SCMCommit> commits, int expectedCommits, int expectedFilesPerCommit) {
+		Assert.assertEquals(expectedCommits, commits.size());
+		for (SCMCommit commit : commits) {
+			Assert.assertEquals(expectedFilesPerCommit, commit.getChanges().size());
+		}
+	}
+
+	private GitSCMProcessor.LineEnrichment enrich(List<String[]> commits, int threads) throws Exception {
+		//every run computes its blames
+		FileUtils.deleteDirectory(new File(tmp.getRoot(), ".git/" + GitBlameCache.CACHE_DIR_NAME));
+		List<SCMCommit> scmCommits = new ArrayList<>();
+		for (String[] commit : commits) {
+			List<SCMChange> changes = new ArrayList<>();
+			for (int i = 1; i < commit.length; i++) {
+				changes.add(dtoFactory.newDTO(SCMChange.class).setType("edit").setFile(commit[i]));
+			}
+			scmCommits.add(dtoFactory.newDTO(SCMCommit.class).setRevId(commit[0]).setChanges(changes));
+		}
+		SCMData scmData = dtoFactory.newDTO(SCMData.class).setCommits(scmCommits);
+		return new GitSCMProcessor.LineEnricherCallable("", scmData, threads, 0, 0).invoke(tmp.getRoot(), null);
+	}
+}
@@ -0,0 +1,42 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+
+package com.microfocus.application.automation.tools.octane.model.processors.scm;
+
+import org.eclipse.jgit.api.Git;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+public class GitTestUtils {
+
+	/**
+	 * writes the file into the work tree of the repository and commits it
+	 *
+	 * @return id of the new commit
+	 */
+	public static String commit(Git git, String file, String content) throws Exception {
+		Files.write(new File(git.getRepository().getWorkTree(), file).toPath(), content.getBytes(StandardCharsets.UTF_8));
+		git.add().addFilepattern(file).call();
+		return git.commit().setMessage("change " + file).setAuthor("test", "test@test.com").setCommitter("test", "test@test.com").call().getName();
+	}
+}
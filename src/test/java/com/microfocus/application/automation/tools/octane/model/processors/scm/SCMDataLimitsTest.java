@@ -0,0 +1,42 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+
+package com.microfocus.application.automation.tools.octane.model.processors.scm;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SCMDataLimitsTest {
+
+	@Test
+	public void testLimitIsReachedAtItsValue() {
+		Assert.assertFalse(SCMDataLimits.isReached(9, 10));
+		Assert.assertTrue(SCMDataLimits.isReached(10, 10));
+		Assert.assertTrue(SCMDataLimits.isReached(11, 10));
+	}
+
+	@Test
+	public void testZeroOrNegativeLimitIsNeverReached() {
+		Assert.assertFalse(SCMDataLimits.isReached(0, 0));
+		Assert.assertFalse(SCMDataLimits.isReached(Integer.MAX_VALUE, 0));
+		Assert.assertFalse(SCMDataLimits.isReached(Integer.MAX_VALUE, -1));
+	}
+}
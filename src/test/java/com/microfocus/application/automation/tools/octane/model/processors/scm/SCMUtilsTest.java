@@ -0,0 +1,59 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+
+package com.microfocus.application.automation.tools.octane.model.processors.scm;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hp.octane.integrations.dto.DTOFactory;
+import com.hp.octane.integrations.dto.scm.SCMCommit;
+import com.hp.octane.integrations.dto.scm.SCMData;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+
+public class SCMUtilsTest {
+	private static final DTOFactory dtoFactory = DTOFactory.getInstance();
+
+	@Test
+	public void testTruncatedSCMDataIsMarked() throws Exception {
+		JsonNode content = new ObjectMapper().readTree(SCMUtils.toJson(scmData(), true));
+
+		Assert.assertEquals(1, content.size());
+		Assert.assertTrue(content.get(0).get("truncated").asBoolean());
+		Assert.assertEquals("rev1", content.get(0).get("commits").get(0).get("revId").asText());
+	}
+
+	@Test
+	public void testCompleteSCMDataIsNotMarked() throws Exception {
+		SCMData scmData = scmData();
+		String json = SCMUtils.toJson(scmData, false);
+
+		Assert.assertEquals(dtoFactory.dtoCollectionToJson(Collections.singletonList(scmData)), json);
+		Assert.assertFalse(new ObjectMapper().readTree(json).get(0).has("truncated"));
+	}
+
+	private static SCMData scmData() {
+		SCMCommit commit = dtoFactory.newDTO(SCMCommit.class).setRevId("rev1");
+		return dtoFactory.newDTO(SCMData.class).setCommits(Collections.singletonList(commit));
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.model.processors.scm;
+
+import com.hp.octane.integrations.dto.scm.SCMCommit;
+import hudson.model.FreeStyleBuild;
+import hudson.scm.ChangeLogSet;
+import hudson.scm.SubversionChangeLogParser;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.jvnet.hudson.test.JenkinsRule;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+
+public class SvnSCMProcessorTest {
+
+	@ClassRule
+	public static final JenkinsRule rule = new JenkinsRule();
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@Test
+	public void testChangelogIsCutAtLimits() throws Exception {
+		FreeStyleBuild build = rule.buildAndAssertSuccess(rule.createFreeStyleProject("svn-changelog-limits"));
+		File changelog = tmp.newFile("changelog.xml");
+		StringBuilder log = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<log>\n");
+		for (int revision = 1; revision <= 3; revision++) {
+			log.append("<logentry revision=\"").append(revision).append("\">\n")
+					.append("<author>test</author>\n")
+					.append("<date>2019-01-01T00:00:0").append(revision).append(".000000Z</date>\n")
+					.append("<paths>\n");
+			for (int file = 1; file <= 3; file++) {
+				log.append("<path kind=\"file\" action=\"M\">/trunk/f").append(file).append(".txt</path>\n");
+			}
+			log.append("</paths>\n<msg>change ").append(revision).append("</msg>\n</logentry>\n");
+		}
+		log.append("</log>\n");
+		Files.write(changelog.toPath(), log.toString().getBytes(StandardCharsets.UTF_8));
+		List<ChangeLogSet<? extends ChangeLogSet.Entry>> changes =
+				Collections.singletonList(new SubversionChangeLogParser(false).parse(build, null, changelog));
+
+		SvnSCMProcessor unlimited = new SvnSCMProcessor(0, 0);
+		assertCommits(unlimited.extractCommits(changes), 3, 3);
+		Assert.assertFalse(unlimited.isTruncated());
+
+		SvnSCMProcessor atLimits = new SvnSCMProcessor(3, 3);
+		assertCommits(atLimits.extractCommits(changes), 3, 3);
+		Assert.assertFalse(atLimits.isTruncated());
+
+		SvnSCMProcessor commitsLimited = new SvnSCMProcessor(2, 0);
+		assertCommits(commitsLimited.extractCommits(changes), 2, 3);
+		Assert.assertTrue(commitsLimited.isTruncated());
+
+		SvnSCMProcessor filesLimited = new SvnSCMProcessor(0, 2);
+		assertCommits(filesLimited.extractCommits(changes), 3, 2);
+		Assert.assertTrue(filesLimited.isTruncated());
+	}
+
+	private static void assertCommits(List<SCMCommit> commits, int expectedCommits, int expectedFilesPerCommit) {
+		Assert.assertEquals(expectedCommits, commits.size());
+		for (SCMCommit commit : commits) {
+			Assert.assertEquals(expectedFilesPerCommit, commit.getChanges().size());
+		}
+	}
+}
@@ -34,7 +34,7 @@ import org.junit.Test;
 import org.jvnet.hudson.test.ToolInstallations;
 
 import java.io.File;
-import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
@@ -211,7 +211,7 @@ public class JUnitResultsTest extends OctanePluginTestBase {
 		Assert.assertFalse(new File(build.getRootDir(), "mqmTests.xml").exists());
 	}
 
-	private void matchTests(AbstractBuild build, String projectName, Set<String>... expectedTests) throws FileNotFoundException {
+	private void matchTests(AbstractBuild build, String projectName, Set<String>... expectedTests) throws IOException {
 		File mqmTestsXml = new File(build.getRootDir(), "mqmTests.xml");
 		TestUtils.matchTests(new TestResultIterable(mqmTestsXml), projectName, build.getStartTimeInMillis(), expectedTests);
 	}
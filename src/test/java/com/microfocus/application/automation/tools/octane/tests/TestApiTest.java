@@ -126,6 +126,20 @@ public class TestApiTest {
 		TestUtils.matchTests(new TestResultIterable(new StringReader(testResultsBody)), testsJobName, build.getStartTimeInMillis(), TestUtils.helloWorldTests);
 	}
 
+	@Test
+	public void testAcceptsGzipHonoursQualityValues() {
+		assertFalse(TestApi.acceptsGzip(null));
+		assertFalse(TestApi.acceptsGzip("identity"));
+		assertTrue(TestApi.acceptsGzip("gzip"));
+		assertTrue(TestApi.acceptsGzip("deflate, GZIP;q=0.5"));
+		assertTrue(TestApi.acceptsGzip("x-gzip"));
+		assertFalse(TestApi.acceptsGzip("gzip;q=0"));
+		assertFalse(TestApi.acceptsGzip("gzip; q=0.0, deflate"));
+		assertTrue(TestApi.acceptsGzip("*"));
+		assertFalse(TestApi.acceptsGzip("*;q=0"));
+		assertFalse(TestApi.acceptsGzip("*, gzip;q=0"));
+	}
+
 	@Test
 	@Ignore
 	public void testAudit() throws Exception {
@@ -24,16 +24,15 @@ import com.microfocus.application.automation.tools.octane.tests.junit.JUnitTestR
 
 import javax.xml.stream.XMLStreamException;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.IOException;
 import java.io.Reader;
 
 public class TestResultIterable implements Iterable<JUnitTestResult> {
 
     private Reader reader;
 
-    public TestResultIterable(File file) throws FileNotFoundException {
-        this.reader = new FileReader(file);
+    public TestResultIterable(File file) throws IOException {
+        this.reader = TestUtils.openTestResultXml(file);
     }
 
     public TestResultIterable(Reader reader) {
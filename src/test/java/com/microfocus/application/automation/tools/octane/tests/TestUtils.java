@@ -29,16 +29,24 @@ import com.microfocus.application.automation.tools.model.OctaneServerSettingsMod
 import com.microfocus.application.automation.tools.octane.configuration.ConfigurationService;
 import com.microfocus.application.automation.tools.octane.tests.junit.JUnitTestResult;
 import com.microfocus.application.automation.tools.octane.tests.junit.TestResultStatus;
+import com.microfocus.application.automation.tools.octane.tests.xml.TestResultFile;
 import hudson.model.AbstractBuild;
 import hudson.model.AbstractProject;
 import hudson.model.Result;
 import hudson.util.Secret;
+import jenkins.model.Jenkins;
 import org.junit.Assert;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 public class TestUtils {
 
@@ -61,9 +69,20 @@ public class TestUtils {
 		if (!build.getResult().isBetterOrEqualTo(Result.UNSTABLE)) { // avoid expensive build.getLog() until condition is met
 			Assert.fail("Build status: " + build.getResult() + ", log follows:\n" + build.getLog());
 		}
+		waitForTestsProcessing();
 		return build;
 	}
 
+	public static void waitForTestsProcessing() throws InterruptedException {
+		//tests of finished builds are processed in background
+		TestListener testListener = Jenkins.get().getExtensionList(TestListener.class).get(0);
+		Assert.assertTrue("Tests processing did not finish in time", testListener.awaitProcessing(60, TimeUnit.SECONDS));
+	}
+
+	public static Reader openTestResultXml(File mqmTestsXml) throws IOException {
+		return new InputStreamReader(TestResultFile.openXml(mqmTestsXml), StandardCharsets.UTF_8);
+	}
+
 	private static String testSignature(JUnitTestResult testResult) {
 		return testSignature(testResult.getModuleName(), testResult.getPackageName(), testResult.getClassName(),
 				testResult.getTestName(), testResult.getResult());
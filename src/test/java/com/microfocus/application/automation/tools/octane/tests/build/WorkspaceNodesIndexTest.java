@@ -0,0 +1,75 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.tests.build;
+
+import org.jenkinsci.plugins.workflow.actions.WorkspaceAction;
+import org.jenkinsci.plugins.workflow.cps.CpsFlowDefinition;
+import org.jenkinsci.plugins.workflow.job.WorkflowJob;
+import org.jenkinsci.plugins.workflow.job.WorkflowRun;
+import org.junit.Assert;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.jvnet.hudson.test.JenkinsRule;
+
+@SuppressWarnings({"squid:S2699", "squid:S3658", "squid:S2259", "squid:S1872", "squid:S2925", "squid:S109", "squid:S1607", "squid:S2701"})
+public class WorkspaceNodesIndexTest {
+
+	@ClassRule
+	public static final JenkinsRule jenkins = new JenkinsRule();
+
+	@Test
+	public void testNodeWorkspace() throws Exception {
+		WorkflowJob job = jenkins.createProject(WorkflowJob.class, "node-workspace");
+		job.setDefinition(new CpsFlowDefinition("node { echo 'in node' }", true));
+		WorkflowRun run = jenkins.buildAndAssertSuccess(job);
+
+		WorkspaceAction action = WorkspaceNodesIndex.findWorkspaceAction(run, run.getExecution());
+		Assert.assertNotNull(action);
+		Assert.assertEquals(jenkins.jenkins.getWorkspaceFor(job).getRemote(), action.getPath());
+	}
+
+	@Test
+	public void testNestedWsWorkspace() throws Exception {
+		WorkflowJob job = jenkins.createProject(WorkflowJob.class, "nested-ws-workspace");
+		job.setDefinition(new CpsFlowDefinition("node { ws('nested-ws') { echo 'in ws' } }", true));
+		WorkflowRun run = jenkins.buildAndAssertSuccess(job);
+
+		WorkspaceAction action = WorkspaceNodesIndex.findWorkspaceAction(run, run.getExecution());
+		Assert.assertNotNull(action);
+		Assert.assertTrue(action.getPath(), action.getPath().endsWith("nested-ws"));
+	}
+
+	@Test
+	public void testReloadedRunWalksGraphOnce() throws Exception {
+		WorkflowJob job = jenkins.createProject(WorkflowJob.class, "reloaded-workspace");
+		job.setDefinition(new CpsFlowDefinition("node { ws('reloaded-ws') { echo 'in ws' } }", true));
+		WorkflowRun run = jenkins.buildAndAssertSuccess(job);
+
+		//  a run loaded again from disk comes with no recorded nodes, its graph is walked instead
+		job._getRuns().purgeCache();
+		WorkflowRun reloaded = job.getBuildByNumber(run.getNumber());
+		Assert.assertNotSame(run, reloaded);
+
+		WorkspaceAction action = WorkspaceNodesIndex.findWorkspaceAction(reloaded, reloaded.getExecution());
+		Assert.assertNotNull(action);
+		Assert.assertTrue(action.getPath(), action.getPath().endsWith("reloaded-ws"));
+	}
+}
@@ -36,7 +36,6 @@ import org.jvnet.hudson.test.ToolInstallations;
 import org.mockito.Mockito;
 
 import java.io.File;
-import java.io.FileReader;
 import java.util.UUID;
 
 import static org.mockito.Matchers.any;
@@ -88,7 +87,7 @@ public class ResultFieldsDetectionTest  extends OctanePluginTestBase {
 		AbstractBuild build = TestUtils.runAndCheckBuild(project);
 
 		File mqmTestsXml = new File(build.getRootDir(), "mqmTests.xml");
-		ResultFieldsXmlReader xmlReader = new ResultFieldsXmlReader(new FileReader(mqmTestsXml));
+		ResultFieldsXmlReader xmlReader = new ResultFieldsXmlReader(TestUtils.openTestResultXml(mqmTestsXml));
 		ResultFields resultFields = xmlReader.readXml().getResultFields();
 
 		Assert.assertNotNull(resultFields);
@@ -104,7 +103,7 @@ public class ResultFieldsDetectionTest  extends OctanePluginTestBase {
 		AbstractBuild build = TestUtils.runAndCheckBuild(project);
 
 		File mqmTestsXml = new File(build.getRootDir(), "mqmTests.xml");
-		ResultFieldsXmlReader xmlReader = new ResultFieldsXmlReader(new FileReader(mqmTestsXml));
+		ResultFieldsXmlReader xmlReader = new ResultFieldsXmlReader(TestUtils.openTestResultXml(mqmTestsXml));
 		ResultFields resultFields = xmlReader.readXml().getResultFields();
 		Assert.assertNull(resultFields.getFramework());
 		Assert.assertNull(resultFields.getTestingTool());
@@ -118,7 +117,7 @@ public class ResultFieldsDetectionTest  extends OctanePluginTestBase {
 		AbstractBuild build = TestUtils.runAndCheckBuild(project);
 
 		File mqmTestsXml = new File(build.getRootDir(), "mqmTests.xml");
-		ResultFieldsXmlReader xmlReader = new ResultFieldsXmlReader(new FileReader(mqmTestsXml));
+		ResultFieldsXmlReader xmlReader = new ResultFieldsXmlReader(TestUtils.openTestResultXml(mqmTestsXml));
 		ResultFields resultFields = xmlReader.readXml().getResultFields();
 
 		Assert.assertNull(resultFields.getFramework());
@@ -135,7 +134,7 @@ public class ResultFieldsDetectionTest  extends OctanePluginTestBase {
 		AbstractBuild build = TestUtils.runAndCheckBuild(project);
 
 		File mqmTestsXml = new File(build.getRootDir(), "mqmTests.xml");
-		ResultFieldsXmlReader xmlReader = new ResultFieldsXmlReader(new FileReader(mqmTestsXml));
+		ResultFieldsXmlReader xmlReader = new ResultFieldsXmlReader(TestUtils.openTestResultXml(mqmTestsXml));
 		ResultFields resultFields = xmlReader.readXml().getResultFields();
 
 		Assert.assertNull(resultFields.getFramework());
@@ -40,8 +40,6 @@ import org.jvnet.hudson.test.ToolInstallations;
 
 import javax.xml.stream.XMLStreamException;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
 import java.io.IOException;
 import java.util.Map;
 import java.util.UUID;
@@ -331,9 +329,9 @@ public class TestNGExtensionTest extends OctanePluginTestBase {
 		Assert.assertNull(fields.getTestLevel());
 	}
 
-	private ResultFields readResultFields(AbstractBuild build) throws FileNotFoundException, XMLStreamException {
+	private ResultFields readResultFields(AbstractBuild build) throws IOException, XMLStreamException {
 		File mqmTestsXml = new File(build.getRootDir(), "mqmTests.xml");
-		ResultFieldsXmlReader xmlReader = new ResultFieldsXmlReader(new FileReader(mqmTestsXml));
+		ResultFieldsXmlReader xmlReader = new ResultFieldsXmlReader(TestUtils.openTestResultXml(mqmTestsXml));
 		return xmlReader.readXml().getResultFields();
 	}
 }
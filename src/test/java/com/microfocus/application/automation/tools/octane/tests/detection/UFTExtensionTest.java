@@ -21,6 +21,7 @@
 package com.microfocus.application.automation.tools.octane.tests.detection;
 
 import com.microfocus.application.automation.tools.uft.model.FilterTestsModel;
+import com.microfocus.application.automation.tools.octane.tests.HPRunnerType;
 import com.microfocus.application.automation.tools.octane.tests.TestUtils;
 import com.microfocus.application.automation.tools.octane.tests.detection.ResultFieldsXmlReader.TestAttributes;
 import com.microfocus.application.automation.tools.octane.tests.detection.ResultFieldsXmlReader.TestResultContainer;
@@ -31,13 +32,14 @@ import hudson.model.FreeStyleProject;
 import hudson.scm.SubversionSCM;
 import hudson.tasks.Maven;
 import hudson.tasks.junit.JUnitResultArchiver;
+import org.apache.commons.io.FileUtils;
 import org.junit.*;
 import org.jvnet.hudson.test.JenkinsRule;
 import org.jvnet.hudson.test.ToolInstallations;
 import org.mockito.Mockito;
 
 import java.io.File;
-import java.io.FileReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.UUID;
 
@@ -97,6 +99,29 @@ public class UFTExtensionTest {
 		assertUFTFields(fields);
 	}
 
+	@Test
+	public void testDetectionIsKeptWithBuild() throws Exception {
+		String projectName = "root-job-" + UUID.randomUUID().toString();
+		FreeStyleProject project = rule.createFreeStyleProject(projectName);
+		project.getBuildersList().add(new RunFromFileBuilder(""));
+		AbstractBuild build = project.scheduleBuild2(0).get();
+
+		ResultFields fields = detectionService.getDetectedFields(build);
+		assertUFTFields(fields);
+		TestDetection detection = TestDetection.of(build);
+		Assert.assertNotNull(detection);
+		Assert.assertEquals(HPRunnerType.UFT, detection.getRunnerType());
+
+		//detection is not written to the build record
+		build.save();
+		Assert.assertFalse(FileUtils.readFileToString(new File(build.getRootDir(), "build.xml"), StandardCharsets.UTF_8).contains("TestDetection"));
+
+		//builders changed after the build do not affect its detection
+		project.getBuildersList().clear();
+		Assert.assertSame(fields, detectionService.getDetectedFields(build));
+		Assert.assertEquals(HPRunnerType.UFT, MFToolsDetectionExtension.getRunnerType(build));
+	}
+
 	@Ignore
 	@Test
 	public void testUFTEndToEnd() throws Exception {
@@ -111,7 +136,7 @@ public class UFTExtensionTest {
 		AbstractBuild build = TestUtils.runAndCheckBuild(project);
 
 		File mqmTestsXml = new File(build.getRootDir(), "mqmTests.xml");
-		ResultFieldsXmlReader xmlReader = new ResultFieldsXmlReader(new FileReader(mqmTestsXml));
+		ResultFieldsXmlReader xmlReader = new ResultFieldsXmlReader(TestUtils.openTestResultXml(mqmTestsXml));
 		TestResultContainer container = xmlReader.readXml();
 		assertUFTFields(container.getResultFields());
 		assertUFTTestAttributes(container.getTestAttributes());
@@ -24,6 +24,7 @@ import com.microfocus.application.automation.tools.octane.OctanePluginTestBase;
 import com.microfocus.application.automation.tools.octane.actions.cucumber.CucumberTestResultsActionPublisher;
 import com.microfocus.application.automation.tools.octane.tests.CopyResourceSCM;
 import com.microfocus.application.automation.tools.octane.tests.TestUtils;
+import com.microfocus.application.automation.tools.octane.tests.xml.TestResultFile;
 import hudson.matrix.*;
 import hudson.maven.MavenModuleSet;
 import hudson.model.AbstractBuild;
@@ -46,6 +47,7 @@ import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
@@ -234,7 +236,10 @@ public class GherkinResultsTest extends OctanePluginTestBase {
     private void assertTestResultsEqual(Set<String> expected, File actual) throws ParserConfigurationException, IOException, SAXException {
         DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
         DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-        Document actualDoc = dBuilder.parse(actual);
+        Document actualDoc;
+        try (InputStream is = TestResultFile.openXml(actual)) {
+            actualDoc = dBuilder.parse(is);
+        }
 
         NodeList actualTests = actualDoc.getElementsByTagName("gherkin_test_run");
         Assert.assertEquals("Number of tests should be equal", expected.size(), actualTests.getLength());
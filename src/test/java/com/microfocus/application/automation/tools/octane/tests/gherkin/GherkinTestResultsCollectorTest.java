@@ -23,14 +23,24 @@ package com.microfocus.application.automation.tools.octane.tests.gherkin;
 import com.microfocus.application.automation.tools.octane.tests.junit.TestResultStatus;
 import com.microfocus.application.automation.tools.octane.tests.testResult.TestResult;
 import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.xml.sax.SAXException;
 
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.TransformerException;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -38,6 +48,9 @@ public class GherkinTestResultsCollectorTest {
     String defaultResourceRelativePath = "f1";
     String defaultResourceName = "OctaneGherkinResults0.xml";
 
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
     private String getDefaultRootResourceFolder(){
         return getRootResourceFolder(defaultResourceRelativePath,defaultResourceName);
     }
@@ -78,6 +91,44 @@ public class GherkinTestResultsCollectorTest {
         GherkinTestResultsCollector.collectGherkinTestsResults(new File(getRootResourceFolder("f3",defaultResourceName)));
     }
 
+    @Test
+    public void testFeatureIsWrittenAsInResultsFile() throws IOException, XMLStreamException {
+        Iterator<TestResult> gherkinTestsResults = GherkinTestResultsCollector.iterateGherkinTestsResults(new File(getDefaultRootResourceFolder()));
+        StringWriter output = new StringWriter();
+        XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(output);
+        gherkinTestsResults.next().writeXmlElement(writer);
+        writer.close();
+
+        String xml = output.toString();
+        Assert.assertTrue(xml.startsWith("<gherkin_test_run duration=\"21\" name=\"test Feature1\" status=\"Failed\"><feature name=\"test Feature1\" path=\"src\\main\\features\\test2.feature\" started=\"1467028340511\" tag=\"@TID2001REV0.2.0\"><file>#Auto generated NGA revision tag"));
+        Assert.assertTrue(xml.endsWith("<scenario name=\"test scenario3\" status=\"Failed\"><steps><step duration=\"4\" name=\"Given testg\" status=\"passed\"></step><step duration=\"5\" name=\"When testw\" status=\"passed\"></step><step duration=\"6\" name=\"Then testth\" status=\"failed\"></step></steps></scenario></scenarios></feature></gherkin_test_run>"));
+        Assert.assertTrue(gherkinTestsResults.hasNext());
+    }
+
+    @Test
+    public void testParseErrorClosesIterator() throws IOException {
+        Files.write(new File(tmp.getRoot(), defaultResourceName).toPath(),
+                "<features version=\"1\"><feature name=\"broken\"><scenarios>".getBytes(StandardCharsets.UTF_8));
+        Iterator<TestResult> gherkinTestsResults = GherkinTestResultsCollector.iterateGherkinTestsResults(tmp.getRoot());
+        try {
+            gherkinTestsResults.hasNext();
+            Assert.fail("parse error expected");
+        } catch (IllegalStateException ise) {
+            //expected
+        }
+        Assert.assertFalse(gherkinTestsResults.hasNext());
+    }
+
+    @Test
+    public void testAbandonedIterationIsClosed() throws IOException {
+        Iterator<TestResult> gherkinTestsResults = GherkinTestResultsCollector.iterateGherkinTestsResults(new File(getDefaultRootResourceFolder()));
+        Assert.assertTrue(gherkinTestsResults.hasNext());
+        gherkinTestsResults.next();
+        Assert.assertTrue(gherkinTestsResults instanceof Closeable);
+        ((Closeable) gherkinTestsResults).close();
+        Assert.assertFalse(gherkinTestsResults.hasNext());
+    }
+
     private void validateGherkinTestResult(GherkinTestResult gherkinTestResult, String name, long duration, TestResultStatus status){
         validateAttributes(gherkinTestResult, name, duration, status);
         Assert.assertNotNull(gherkinTestResult.getXmlElement());
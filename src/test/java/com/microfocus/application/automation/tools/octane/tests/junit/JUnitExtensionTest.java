@@ -0,0 +1,179 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+
+package com.microfocus.application.automation.tools.octane.tests.junit;
+
+import com.microfocus.application.automation.tools.octane.tests.HPRunnerType;
+import hudson.FilePath;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class JUnitExtensionTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@Test
+	public void testParallelConversionWritesSameStreamAsSequential() throws Exception {
+		List<FilePath> reports = new ArrayList<>();
+		WorkspaceFacts facts = new WorkspaceFacts();
+		for (int module = 0; module < 6; module++) {
+			reports.add(report(module, 10 + module * 7, facts));
+		}
+		//first reports take longest, so workers finish in reverse order
+		JUnitExtension.ReportConverter converter = (report, writer) -> {
+			try {
+				Thread.sleep((reports.size() - reports.indexOf(report)) * 20L);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			convert(report, facts, writer);
+		};
+
+		ByteArrayOutputStream sequential = new ByteArrayOutputStream();
+		try (JUnitTestResultCodec.Writer writer = new JUnitTestResultCodec.Writer(sequential)) {
+			for (FilePath report : reports) {
+				convert(report, facts, writer);
+			}
+		}
+		File partsDir = tmp.newFolder("parts");
+		for (int attempt = 0; attempt < 3; attempt++) {
+			ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+			try (JUnitTestResultCodec.Writer writer = new JUnitTestResultCodec.Writer(parallel)) {
+				JUnitExtension.writeReportsInParallel(reports, 4, partsDir, converter, writer);
+			}
+			Assert.assertArrayEquals(sequential.toByteArray(), parallel.toByteArray());
+		}
+		String[] leftParts = partsDir.list();
+		Assert.assertNotNull(leftParts);
+		Assert.assertEquals(0, leftParts.length);
+	}
+
+	@Test
+	public void testWorkspaceFactsMapResultFilesToModules() throws Exception {
+		File workspace = tmp.newFolder("ws");
+		String first = resultFile(workspace, "first/target/surefire-reports/TEST-First.xml", "<testsuite/>");
+		String second = resultFile(workspace, "second/target/surefire-reports/TEST-Second.xml", "<testsuite/>");
+		String other = resultFile(workspace, "other/TEST-Other.xml", "<testsuite/>");
+		List<ModuleDetection> detections = Arrays.asList(
+				file -> file.getRemote().contains("first") ? "first-module" : null,
+				file -> file.getRemote().contains("target") ? "target-module" : null);
+
+		WorkspaceFacts facts = collect(workspace, Arrays.asList(first, second, other), detections, null, HPRunnerType.NONE);
+
+		Assert.assertEquals("first-module", facts.getModule(first));
+		Assert.assertEquals("target-module", facts.getModule(second));
+		Assert.assertNull(facts.getModule(other));
+		Assert.assertNull(facts.getStormRunnerReportUrl(first));
+		Assert.assertNull(facts.getUftTestsRootPath());
+	}
+
+	@Test
+	public void testWorkspaceFactsReadStormRunnerReportUrls() throws Exception {
+		File workspace = tmp.newFolder("ws");
+		String withUrl = resultFile(workspace, "srl/TEST-Load.xml",
+				"<testsuite name=\"load\"><properties><property name=\"reportUrl\" value=\"http://srl/report/1\"/></properties></testsuite>");
+		String withoutUrl = resultFile(workspace, "srl/TEST-Other.xml",
+				"<testsuite name=\"other\"><properties><property name=\"other\" value=\"value\"/></properties></testsuite>");
+		String missing = new File(workspace, "srl/TEST-Missing.xml").getPath();
+
+		WorkspaceFacts facts = collect(workspace, Arrays.asList(withUrl, withoutUrl, missing),
+				Collections.singletonList(new ModuleDetection.Default()), null, HPRunnerType.StormRunnerLoad);
+
+		Assert.assertEquals("http://srl/report/1", facts.getStormRunnerReportUrl(withUrl));
+		Assert.assertNull(facts.getStormRunnerReportUrl(withoutUrl));
+		Assert.assertNull(facts.getStormRunnerReportUrl(missing));
+		Assert.assertEquals("", facts.getModule(withUrl));
+	}
+
+	@Test
+	public void testWorkspaceFactsResolveUftTestsRootPath() throws Exception {
+		File workspace = tmp.newFolder("ws");
+		File absolute = tmp.newFolder("shared");
+		List<String> noResultFiles = Collections.emptyList();
+		List<ModuleDetection> detections = Collections.singletonList(new ModuleDetection.Default());
+
+		Assert.assertEquals(workspace.getPath(), collect(workspace, noResultFiles, detections, null, HPRunnerType.UFT).getUftTestsRootPath());
+		Assert.assertEquals(new File(workspace, "tests").getCanonicalPath(),
+				collect(workspace, noResultFiles, detections, "sub/../tests", HPRunnerType.UFT).getUftTestsRootPath());
+		Assert.assertEquals(absolute.getPath(),
+				collect(workspace, noResultFiles, detections, absolute.getPath(), HPRunnerType.UFT).getUftTestsRootPath());
+	}
+
+	private static WorkspaceFacts collect(File workspace, List<String> resultFiles, List<ModuleDetection> detections,
+	                                      String sharedCheckOutDirectory, HPRunnerType hpRunnerType) throws Exception {
+		FilePath workspacePath = new FilePath(workspace);
+		return workspacePath.act(new JUnitExtension.GetWorkspaceFacts(resultFiles, detections, workspacePath, sharedCheckOutDirectory, hpRunnerType));
+	}
+
+	private static String resultFile(File workspace, String path, String content) throws IOException {
+		File file = new File(workspace, path);
+		Files.createDirectories(file.getParentFile().toPath());
+		Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+		return file.getPath();
+	}
+
+	private FilePath report(int module, int cases, WorkspaceFacts facts) throws IOException {
+		String resultFile = "/ws/module" + module + "/target/surefire-reports/TEST-com.example.Module" + module + "Test.xml";
+		facts.setModule(resultFile, "module" + module);
+		StringBuilder xml = new StringBuilder("<?xml version='1.0' encoding='UTF-8'?>\n<result><suites><suite>")
+				.append("<file>").append(resultFile).append("</file>")
+				.append("<name>com.example.Module").append(module).append("Test</name><cases>");
+		for (int i = 0; i < cases; i++) {
+			xml.append("<case><duration>0.0").append(i % 10).append("</duration>")
+					.append("<className>com.example.Module").append(module).append("Test</className>")
+					.append("<testName>test").append(i).append("</testName><skipped>false</skipped>");
+			if (i % 5 == 0) {
+				xml.append("<errorStackTrace>java.lang.AssertionError: case ").append(i).append(" at com.example.Module").append(module).append("Test</errorStackTrace>")
+						.append("<errorDetails>case ").append(i).append("</errorDetails>");
+			}
+			xml.append("<failedSince>0</failedSince></case>");
+		}
+		xml.append("</cases></suite></suites></result>");
+		File report = tmp.newFile("junitResult" + module + ".xml");
+		Files.write(report.toPath(), xml.toString().getBytes(StandardCharsets.UTF_8));
+		return new FilePath(report);
+	}
+
+	private static void convert(FilePath report, WorkspaceFacts facts, JUnitTestResultCodec.Writer writer) throws IOException, InterruptedException {
+		try {
+			JUnitXmlIterator iterator = new JUnitXmlIterator(report.read(), facts, null, "job", "1", 1500000000000L, false, HPRunnerType.NONE, "http://localhost:8080/", null);
+			while (iterator.hasNext()) {
+				writer.write(iterator.next());
+			}
+		} catch (XMLStreamException e) {
+			throw new IOException(e);
+		}
+	}
+}
@@ -0,0 +1,155 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.tests.junit;
+
+import com.microfocus.application.automation.tools.octane.tests.testResult.TestResult;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Round trip tests of JUnitTestResultCodec
+ */
+public class JUnitTestResultCodecTest {
+
+	@Test
+	public void testRoundTripPreservesAllFields() throws IOException {
+		StringBuilder longStackTrace = new StringBuilder();
+		for (int i = 0; i < 5000; i++) {
+			longStackTrace.append("\tat com.example.Foo.bar(Foo.java:").append(i).append(")\n");
+		}
+		List<JUnitTestResult> expected = Arrays.asList(
+				new JUnitTestResult("module", "com.example", "FooTest", "testPass", TestResultStatus.PASSED, 15, 1500000000000L, null, null, null),
+				new JUnitTestResult("module", "com.example", "FooTest", "testFail", TestResultStatus.FAILED, 0, 1500000000000L,
+						new TestError(longStackTrace.toString(), "java.lang.AssertionError", "expected:<1> but was:<2>"), "http://report/url", "description"),
+				new JUnitTestResult(null, "", "", "C:\\tests\\GUITest1", TestResultStatus.SKIPPED, -1, 0,
+						new TestError("", "", "Test ended with 'Warning' status."), "", ""),
+				new JUnitTestResult("modul\u00e9-\u00fc", "\u30d1\u30c3\u30b1\u30fc\u30b8", "\u041a\u043b\u0430\u0441\u0441", "test \u2713", TestResultStatus.PASSED, Long.MAX_VALUE, Long.MIN_VALUE,
+						new TestError(null, null, null), null, "multi\nline\ndescription"));
+
+		List<TestResult> actual = readAll(writeAll(expected));
+
+		Assert.assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertTestResultEquals(expected.get(i), (JUnitTestResult) actual.get(i));
+		}
+	}
+
+	@Test
+	public void testRoundTripBeyondDictionaryLimit() throws IOException {
+		List<JUnitTestResult> expected = new ArrayList<>();
+		for (int i = 0; i < JUnitTestResultCodec.MAX_DICTIONARY_SIZE + 100; i++) {
+			expected.add(new JUnitTestResult("module", "package" + (i % 10), "Class" + (i % 100), "test" + i, TestResultStatus.PASSED, i, 1000, null, null, null));
+		}
+
+		List<TestResult> actual = readAll(writeAll(expected));
+
+		Assert.assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertTestResultEquals(expected.get(i), (JUnitTestResult) actual.get(i));
+		}
+	}
+
+	@Test
+	public void testEmptyStream() throws IOException {
+		Assert.assertTrue(readAll(writeAll(new ArrayList<>())).isEmpty());
+	}
+
+	@Test
+	public void testCompactComparedToJavaSerialization() throws IOException {
+		List<JUnitTestResult> results = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			results.add(new JUnitTestResult("some-maven-module", "com.example.some.deep.package", "SomeReasonablyNamedTest", "test" + i, TestResultStatus.PASSED, i, 1500000000000L, null, "", ""));
+		}
+		ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+		try (ObjectOutputStream oos = new ObjectOutputStream(serialized)) {
+			for (JUnitTestResult result : results) {
+				oos.writeObject(result);
+			}
+		}
+
+		Assert.assertTrue(writeAll(results).length < serialized.size());
+	}
+
+	@Test
+	public void testTruncatedStreamStopsIteration() throws IOException {
+		List<JUnitTestResult> expected = Arrays.asList(
+				new JUnitTestResult("module", "package", "Class", "test1", TestResultStatus.PASSED, 1, 2, null, null, null),
+				new JUnitTestResult("module", "package", "Class", "test2", TestResultStatus.PASSED, 1, 2, null, null, null));
+		byte[] bytes = writeAll(expected);
+
+		List<TestResult> actual = readAll(Arrays.copyOf(bytes, bytes.length - 3));
+
+		Assert.assertEquals(1, actual.size());
+		assertTestResultEquals(expected.get(0), (JUnitTestResult) actual.get(0));
+	}
+
+	@Test(expected = IOException.class)
+	public void testUnknownHeader() throws IOException {
+		new JUnitTestResultCodec.Reader(new ByteArrayInputStream(new byte[]{(byte) 0xAC, (byte) 0xED, 0, 5, 0}));
+	}
+
+	private static byte[] writeAll(List<JUnitTestResult> results) throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		try (JUnitTestResultCodec.Writer writer = new JUnitTestResultCodec.Writer(bos)) {
+			for (JUnitTestResult result : results) {
+				writer.write(result);
+			}
+		}
+		return bos.toByteArray();
+	}
+
+	private static List<TestResult> readAll(byte[] bytes) throws IOException {
+		List<TestResult> result = new ArrayList<>();
+		JUnitTestResultCodec.Reader reader = new JUnitTestResultCodec.Reader(new ByteArrayInputStream(bytes));
+		while (reader.hasNext()) {
+			result.add(reader.next());
+		}
+		return result;
+	}
+
+	private static void assertTestResultEquals(JUnitTestResult expected, JUnitTestResult actual) {
+		Assert.assertEquals(expected.getModuleName(), actual.getModuleName());
+		Assert.assertEquals(expected.getPackageName(), actual.getPackageName());
+		Assert.assertEquals(expected.getClassName(), actual.getClassName());
+		Assert.assertEquals(expected.getTestName(), actual.getTestName());
+		Assert.assertEquals(expected.getResult(), actual.getResult());
+		Assert.assertEquals(expected.getDuration(), actual.getDuration());
+		Assert.assertEquals(expected.getStarted(), actual.getStarted());
+		Assert.assertEquals(expected.getExternalReportUrl(), actual.getExternalReportUrl());
+		Assert.assertEquals(expected.getDescription(), actual.getDescription());
+		if (expected.getTestError() == null) {
+			Assert.assertNull(actual.getTestError());
+		} else {
+			Assert.assertNotNull(actual.getTestError());
+			Assert.assertEquals(expected.getTestError().getStackTraceStr(), actual.getTestError().getStackTraceStr());
+			Assert.assertEquals(expected.getTestError().getErrorType(), actual.getTestError().getErrorType());
+			Assert.assertEquals(expected.getTestError().getErrorMsg(), actual.getTestError().getErrorMsg());
+		}
+	}
+}
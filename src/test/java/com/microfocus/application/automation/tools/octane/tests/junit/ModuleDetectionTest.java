@@ -0,0 +1,129 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.tests.junit;
+
+import hudson.FilePath;
+import hudson.model.Run;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+
+public class ModuleDetectionTest {
+
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@Test
+	public void testTrieReturnsFirstRegisteredAncestor() {
+		PathPrefixTrie<String> trie = new PathPrefixTrie<>();
+		trie.put("/ws/parent/child", "child");
+		trie.put("/ws/parent", "parent");
+
+		Assert.assertEquals("child", trie.findAncestor("/ws/parent/child/target/surefire-reports"));
+		Assert.assertEquals("parent", trie.findAncestor("/ws/parent/other/target"));
+		Assert.assertEquals("parent", trie.findAncestor("/ws/parent"));
+		Assert.assertNull(trie.findAncestor("/ws"));
+	}
+
+	@Test
+	public void testTrieDoesNotMatchOverlappingNames() {
+		PathPrefixTrie<String> trie = new PathPrefixTrie<>();
+		trie.put("/ws/module", "module");
+
+		Assert.assertNull(trie.findAncestor("/ws/module-a/target"));
+		Assert.assertNull(trie.findAncestor("/ws/modul"));
+		Assert.assertEquals("module", trie.findAncestor("/ws/module/target"));
+	}
+
+	@Test
+	public void testTrieIgnoresSeparatorStyle() {
+		PathPrefixTrie<String> trie = new PathPrefixTrie<>();
+		trie.put("C:\\ws\\module\\", "module");
+
+		Assert.assertEquals("module", trie.findAncestor("C:/ws/module/target"));
+		Assert.assertTrue(PathPrefixTrie.isSamePath("C:\\ws\\module\\", "C:/ws/module"));
+		Assert.assertFalse(PathPrefixTrie.isSamePath("/ws/module", "/ws/module-a"));
+	}
+
+	@Test
+	public void testNestedModules() throws Exception {
+		File root = tmp.getRoot();
+		pom(root, "");
+		pom(root, "parent");
+		pom(root, "parent/child");
+		ModuleDetection detection = new TestModuleDetection(root, root);
+
+		Assert.assertEquals("parent/child", detection.getModule(report(root, "parent/child/target/surefire-reports")));
+		Assert.assertEquals("parent", detection.getModule(report(root, "parent/target/surefire-reports")));
+		Assert.assertEquals("", detection.getModule(report(root, "target/surefire-reports")));
+	}
+
+	@Test
+	public void testOverlappingPomDirectories() throws Exception {
+		File root = tmp.getRoot();
+		pom(root, "module");
+		pom(root, "module-a");
+		ModuleDetection detection = new TestModuleDetection(root, new File(root, "module"));
+
+		Assert.assertEquals("module", detection.getModule(report(root, "module/target/surefire-reports")));
+		Assert.assertNull(detection.getModule(report(root, "module-a/target/surefire-reports")));
+	}
+
+	@Test
+	public void testModuleIsMemoizedPerDirectory() throws Exception {
+		File root = tmp.getRoot();
+		pom(root, "");
+		ModuleDetection detection = new TestModuleDetection(root, root);
+
+		Assert.assertEquals("", detection.getModule(report(root, "nested/target/surefire-reports")));
+		pom(root, "nested");
+		Assert.assertEquals("", detection.getModule(report(root, "nested/target/surefire-reports")));
+		Assert.assertEquals("nested", new TestModuleDetection(root, root).getModule(report(root, "nested/target/surefire-reports")));
+	}
+
+	private static void pom(File root, String module) throws IOException {
+		File dir = new File(root, module);
+		Assert.assertTrue(dir.isDirectory() || dir.mkdirs());
+		Assert.assertTrue(new File(dir, "pom.xml").createNewFile());
+	}
+
+	private static FilePath report(File root, String directory) {
+		return new FilePath(new File(new File(root, directory), "TEST-Sample.xml"));
+	}
+
+	private static class TestModuleDetection extends AbstractMavenModuleDetection {
+
+		private TestModuleDetection(File rootDir, File... pomDirs) {
+			super(new FilePath(rootDir));
+			for (File pomDir : pomDirs) {
+				addPomDirectory(new FilePath(pomDir));
+			}
+		}
+
+		@Override
+		protected void addPomDirectories(Run build) {
+		}
+	}
+}
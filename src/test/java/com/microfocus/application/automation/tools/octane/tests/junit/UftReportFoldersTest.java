@@ -0,0 +1,50 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.tests.junit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class UftReportFoldersTest {
+
+	@Test
+	public void testFoldersAreTakenInListOrder() {
+		UftReportFolders folders = new UftReportFolders(Arrays.asList("GUITest1[1]", "APITest[1]", "GUITest1[2]", "GUITest10[1]"));
+
+		Assert.assertEquals("GUITest1[1]", folders.take("GUITest1"));
+		Assert.assertEquals("GUITest1[2]", folders.take("GUITest1"));
+		Assert.assertNull(folders.take("GUITest1"));
+		Assert.assertEquals("GUITest10[1]", folders.take("GUITest10"));
+		Assert.assertEquals("APITest[1]", folders.take("APITest"));
+		Assert.assertNull(folders.take("Unknown"));
+	}
+
+	@Test
+	public void testTestNameWithBrackets() {
+		UftReportFolders folders = new UftReportFolders(Arrays.asList("Test[a][1]", "Test[1]"));
+
+		Assert.assertEquals("Test[a][1]", folders.take("Test"));
+		Assert.assertNull(folders.take("Test[a]"));
+		Assert.assertEquals("Test[1]", folders.take("Test"));
+	}
+}
@@ -0,0 +1,70 @@
+/*
+ * Certain versions of software and/or documents ("Material") accessible here may contain branding from
+ * Hewlett-Packard Company (now HP Inc.) and Hewlett Packard Enterprise Company.  As of September 1, 2017,
+ * the Material is now offered by Micro Focus, a separately owned and operated company.  Any reference to the HP
+ * and Hewlett Packard Enterprise/HPE marks is historical in nature, and the HP and Hewlett Packard Enterprise/HPE
+ * marks are the property of their respective owners.
+ * __________________________________________________________________
+ * MIT License
+ *
+ * (c) Copyright 2012-2019 Micro Focus or one of its affiliates.
+ *
+ * The only warranties for products and services of Micro Focus and its affiliates
+ * and licensors ("Micro Focus") are set forth in the express warranty statements
+ * accompanying such products and services. Nothing herein should be construed as
+ * constituting an additional warranty. Micro Focus shall not be liable for technical
+ * or editorial errors or omissions contained herein.
+ * The information contained herein is subject to change without notice.
+ * ___________________________________________________________________
+ */
+
+package com.microfocus.application.automation.tools.octane.tests.xml;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+public class TestResultFileTest {
+	private static final String XML = "<?xml version=\"1.0\" ?><test_result><test_runs></test_runs></test_result>";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testReadCompressed() throws IOException {
+		File file = folder.newFile("mqmTests.xml");
+		try (OutputStream os = new GZIPOutputStream(new FileOutputStream(file))) {
+			os.write(XML.getBytes(StandardCharsets.UTF_8));
+		}
+
+		Assert.assertTrue(TestResultFile.isCompressed(file));
+		assertXml(file);
+	}
+
+	@Test
+	public void testReadLegacyPlain() throws IOException {
+		File file = folder.newFile("mqmTests.xml");
+		try (OutputStream os = new FileOutputStream(file)) {
+			os.write(XML.getBytes(StandardCharsets.UTF_8));
+		}
+
+		Assert.assertFalse(TestResultFile.isCompressed(file));
+		assertXml(file);
+	}
+
+	private static void assertXml(File file) throws IOException {
+		try (InputStream is = TestResultFile.openXml(file)) {
+			Assert.assertEquals(XML, IOUtils.toString(is, StandardCharsets.UTF_8));
+		}
+	}
+}